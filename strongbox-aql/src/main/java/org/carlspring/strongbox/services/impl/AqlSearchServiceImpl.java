@@ -46,7 +46,7 @@ public class AqlSearchServiceImpl implements AqlSearchService
 
         QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(
                 new OQueryTemplate<>(entityManager));
-        for (ArtifactEntry artifactEntry : queryTemplate.select(selector))
+        for (ArtifactEntry artifactEntry : queryTemplate.select(selector.named("aqlSearch")))
         {
             SearchResult r = new SearchResult();
             result.getResults().add(r);
@@ -0,0 +1,75 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.PypiArtifactCoordinates;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of the artifact paths into the coordinates of each layout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactCoordinatesBenchmark
+{
+
+    private String mavenPath = "org/carlspring/strongbox/strongbox-commons/1.0-SNAPSHOT/" +
+                               "strongbox-commons-1.0-20190101.120000-1-sources.jar";
+
+    private String npmPath = "@types/node/8.0.51/node-8.0.51.tgz";
+
+    private String nugetPath = "Org.Carlspring.Strongbox.Examples.Nuget.Mono/1.0/" +
+                               "Org.Carlspring.Strongbox.Examples.Nuget.Mono.1.0.nupkg";
+
+    private String pypiWheelPath = "distribution-1.0-1-py27-none-any.whl";
+
+    private String pypiSourcePath = "example_pkg_your_username-1.5.0.tar.gz";
+
+    @Benchmark
+    public MavenArtifactCoordinates parseMaven()
+    {
+        return new MavenArtifactCoordinates(MavenArtifactUtils.convertPathToArtifact(mavenPath));
+    }
+
+    @Benchmark
+    public NpmArtifactCoordinates parseNpm()
+    {
+        return NpmArtifactCoordinates.parse(npmPath);
+    }
+
+    @Benchmark
+    public NugetArtifactCoordinates parseNuget()
+    {
+        return NugetArtifactCoordinates.parse(nugetPath);
+    }
+
+    @Benchmark
+    public PypiArtifactCoordinates parsePypiWheel()
+    {
+        return PypiArtifactCoordinates.parse(pypiWheelPath);
+    }
+
+    @Benchmark
+    public PypiArtifactCoordinates parsePypiSource()
+    {
+        return PypiArtifactCoordinates.parse(pypiSourcePath);
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRule;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRuleRepository;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRules;
+import org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+import static org.carlspring.strongbox.benchmarks.BenchmarkRepositories.GROUP_REPOSITORY_ID;
+import static org.carlspring.strongbox.benchmarks.BenchmarkRepositories.STORAGE_ID;
+import static org.carlspring.strongbox.benchmarks.BenchmarkRepositories.getRepositoryId;
+
+/**
+ * Measures {@link ArtifactRoutingRulesChecker#isDenied(Repository, RepositoryPath)} for the members of a group
+ * repository, with only the last of the routing rules matching the artifact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactRoutingRulesCheckerBenchmark
+{
+
+    private static final int REPOSITORY_COUNT = 5;
+
+    private static final String ARTIFACT_PATH =
+            "org/carlspring/strongbox/strongbox-commons/1.0/strongbox-commons-1.0.jar";
+
+    @Param({ "10", "100" })
+    private int numberOfRules;
+
+    private ArtifactRoutingRulesChecker artifactRoutingRulesChecker;
+
+    private Repository groupRepository;
+
+    private List<RootRepositoryPath> repositoryRoots;
+
+    @Setup
+    public void setUp()
+    {
+        List<MutableRoutingRule> rules = new ArrayList<>();
+        for (int i = 0; i < numberOfRules; i++)
+        {
+            String pattern = i == numberOfRules - 1 ? ".*(com|org)/carlspring/strongbox.*" :
+                             ".*(com|org)/example" + i + "/.*";
+            RoutingRuleTypeEnum type = i % 2 == 0 ? RoutingRuleTypeEnum.DENY : RoutingRuleTypeEnum.ACCEPT;
+            List<MutableRoutingRuleRepository> repositories = Collections.singletonList(
+                    new MutableRoutingRuleRepository(STORAGE_ID, getRepositoryId(i % REPOSITORY_COUNT)));
+
+            rules.add(MutableRoutingRule.create(STORAGE_ID, GROUP_REPOSITORY_ID, repositories, pattern, type));
+        }
+
+        MutableRoutingRules routingRules = new MutableRoutingRules();
+        routingRules.setRules(rules);
+
+        Configuration configuration = BenchmarkRepositories.createConfiguration(
+                Paths.get(System.getProperty("java.io.tmpdir"), "strongbox-benchmarks"),
+                REPOSITORY_COUNT,
+                routingRules);
+
+        ConfigurationManager configurationManager = new ConfigurationManager()
+        {
+
+            @Override
+            public Configuration getConfiguration()
+            {
+                return configuration;
+            }
+
+        };
+
+        artifactRoutingRulesChecker = new ArtifactRoutingRulesChecker();
+
+        Field field = ReflectionUtils.findField(ArtifactRoutingRulesChecker.class, "configurationManager");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, artifactRoutingRulesChecker, configurationManager);
+
+        Storage storage = configuration.getStorage(STORAGE_ID);
+        groupRepository = storage.getRepository(GROUP_REPOSITORY_ID);
+
+        repositoryRoots = new ArrayList<>();
+        for (int i = 0; i < REPOSITORY_COUNT; i++)
+        {
+            Repository repository = storage.getRepository(getRepositoryId(i));
+            repositoryRoots.add(BenchmarkRepositories.createFileSystem(repository).getRootDirectory());
+        }
+    }
+
+    @Benchmark
+    public int isDenied()
+            throws IOException
+    {
+        int denied = 0;
+        for (RootRepositoryPath repositoryRoot : repositoryRoots)
+        {
+            // The group repository resolves a new path for each of its members.
+            if (artifactRoutingRulesChecker.isDenied(groupRepository, repositoryRoot.resolve(ARTIFACT_PATH)))
+            {
+                denied++;
+            }
+        }
+
+        return denied;
+    }
+
+}
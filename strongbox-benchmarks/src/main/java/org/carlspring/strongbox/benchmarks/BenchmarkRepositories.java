@@ -0,0 +1,133 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.AbstractLayoutProvider;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.storage.StorageDto;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRules;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+
+/**
+ * Builds the configuration and the file systems of the benchmarked repositories without a Spring context, so that
+ * the benchmarks measure the code under test rather than the wiring around it.
+ */
+final class BenchmarkRepositories
+{
+
+    static final String STORAGE_ID = "storage0";
+
+    static final String GROUP_REPOSITORY_ID = "group-releases";
+
+    static final Set<String> DIGEST_ALGORITHMS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(MessageDigestAlgorithms.MD5, MessageDigestAlgorithms.SHA_1)));
+
+    private BenchmarkRepositories()
+    {
+    }
+
+    static String getRepositoryId(int index)
+    {
+        return "releases-" + index;
+    }
+
+    /**
+     * @return a configuration with a storage of hosted repositories, and a group repository of all of them
+     */
+    static Configuration createConfiguration(Path basedir,
+                                             int repositoryCount,
+                                             MutableRoutingRules routingRules)
+    {
+        StorageDto storage = new StorageDto(STORAGE_ID);
+        storage.setBasedir(basedir.resolve(STORAGE_ID).toString());
+
+        RepositoryDto groupRepository = createRepository(storage, GROUP_REPOSITORY_ID);
+        groupRepository.setType(RepositoryTypeEnum.GROUP.getType());
+
+        for (int i = 0; i < repositoryCount; i++)
+        {
+            RepositoryDto repository = createRepository(storage, getRepositoryId(i));
+            repository.setType(RepositoryTypeEnum.HOSTED.getType());
+
+            groupRepository.getGroupRepositories().add(repository.getId());
+        }
+
+        MutableConfiguration configuration = new MutableConfiguration();
+        configuration.addStorage(storage);
+        configuration.setRoutingRules(routingRules);
+
+        return new Configuration(configuration);
+    }
+
+    private static RepositoryDto createRepository(StorageDto storage,
+                                                  String repositoryId)
+    {
+        RepositoryDto repository = new RepositoryDto(repositoryId);
+        repository.setBasedir(storage.getBasedir() + "/" + repositoryId);
+        repository.setStorage(storage);
+
+        storage.addRepository(repository);
+
+        return repository;
+    }
+
+    /**
+     * @return a file system of the repository backed by the default file system, which treats none of its paths as
+     * trash, temporary, checksum or metadata paths
+     */
+    static LayoutFileSystem createFileSystem(Repository repository)
+    {
+        LayoutFileSystemProvider provider = new LayoutFileSystemProvider(FileSystems.getDefault().provider())
+        {
+
+            @Override
+            protected AbstractLayoutProvider getLayoutProvider()
+            {
+                return null;
+            }
+
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+                for (RepositoryFileAttributeType attributeType : attributeTypes)
+                {
+                    result.put(attributeType, Boolean.FALSE);
+                }
+
+                return result;
+            }
+
+        };
+
+        return new LayoutFileSystem(new PropertiesBooter(), repository, FileSystems.getDefault(), provider)
+        {
+
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                return DIGEST_ALGORITHMS;
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.storage.metadata.MavenMetadataCache;
+import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Measures parsing the {@code maven-metadata.xml}, reading it through the {@link MavenMetadataCache} and merging
+ * the metadata of the artifact versions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenMetadataManagerBenchmark
+{
+
+    @Param({ "10", "500" })
+    private int numberOfVersions;
+
+    private MavenMetadataManager mavenMetadataManager;
+
+    private byte[] metadataContent;
+
+    private Metadata metadata;
+
+    private Metadata mergeMetadata;
+
+    private Path artifactBasePath;
+
+    @Setup
+    public void setUp()
+            throws IOException
+    {
+        mavenMetadataManager = new MavenMetadataManager();
+
+        Field field = ReflectionUtils.findField(MavenMetadataManager.class, "metadataCache");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, mavenMetadataManager, new MavenMetadataCache(100, 100, 100));
+
+        metadata = createMetadata(0, numberOfVersions);
+        mergeMetadata = createMetadata(numberOfVersions / 2, numberOfVersions);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        writeMetadata(metadata, os);
+        metadataContent = os.toByteArray();
+
+        artifactBasePath = Files.createTempDirectory("strongbox-benchmarks");
+        try (OutputStream fos = Files.newOutputStream(artifactBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML)))
+        {
+            fos.write(metadataContent);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+            throws IOException
+    {
+        FileSystemUtils.deleteRecursively(artifactBasePath);
+    }
+
+    @Benchmark
+    public Metadata readMetadata()
+            throws IOException,
+                   XmlPullParserException
+    {
+        return mavenMetadataManager.readMetadata(new ByteArrayInputStream(metadataContent));
+    }
+
+    @Benchmark
+    public Metadata readCachedMetadata()
+            throws IOException,
+                   XmlPullParserException
+    {
+        return mavenMetadataManager.readMetadata(artifactBasePath);
+    }
+
+    @Benchmark
+    public Metadata merge()
+    {
+        // The metadata is merged in place, so each invocation merges into a copy.
+        return mavenMetadataManager.merge(metadata.clone(), mergeMetadata);
+    }
+
+    private static Metadata createMetadata(int firstVersion,
+                                           int numberOfVersions)
+    {
+        Versioning versioning = new Versioning();
+        for (int i = firstVersion; i < firstVersion + numberOfVersions; i++)
+        {
+            versioning.addVersion("1." + i + ".0");
+        }
+        versioning.setLatest("1." + (firstVersion + numberOfVersions - 1) + ".0");
+        versioning.setRelease(versioning.getLatest());
+        versioning.setLastUpdated("20190101120000");
+
+        Metadata metadata = new Metadata();
+        metadata.setGroupId("org.carlspring.strongbox");
+        metadata.setArtifactId("strongbox-commons");
+        metadata.setVersioning(versioning);
+
+        return metadata;
+    }
+
+    private static void writeMetadata(Metadata metadata,
+                                      OutputStream os)
+            throws IOException
+    {
+        new MetadataXpp3Writer().write(os, metadata);
+    }
+
+}
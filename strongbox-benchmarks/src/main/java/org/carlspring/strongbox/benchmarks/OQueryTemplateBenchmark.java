@@ -0,0 +1,70 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering the {@link Selector}-s of the {@link ArtifactEntry} lookups into the OrientDB SQL queries and
+ * their parameters. The queries are not executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OQueryTemplateBenchmark
+{
+
+    private OQueryTemplate<Object, ArtifactEntry> queryTemplate;
+
+    private Selector<ArtifactEntry> selector;
+
+    @Setup
+    public void setUp()
+    {
+        queryTemplate = new OQueryTemplate<>();
+
+        selector = new Selector<>(ArtifactEntry.class);
+        selector.where(Predicate.of(ExpOperator.EQ.of("storageId", BenchmarkRepositories.STORAGE_ID)))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", BenchmarkRepositories.getRepositoryId(0))))
+                .and(Predicate.of(ExpOperator.LIKE.of("artifactPath", "org/carlspring/strongbox/%")));
+
+        Paginator paginator = new Paginator();
+        paginator.setSkip(100);
+        paginator.setLimit(50);
+        paginator.setProperty("artifactPath");
+        selector.with(paginator);
+    }
+
+    @Benchmark
+    public String calculateQueryString()
+    {
+        return queryTemplate.calculateQueryString(selector);
+    }
+
+    @Benchmark
+    public Map<String, Object> exposeParameterMap()
+    {
+        return queryTemplate.exposeParameterMap(selector.getPredicate());
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRules;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import static org.carlspring.strongbox.benchmarks.BenchmarkRepositories.STORAGE_ID;
+import static org.carlspring.strongbox.benchmarks.BenchmarkRepositories.getRepositoryId;
+
+/**
+ * Measures the {@link RepositoryPath} operations that each request goes through before reaching the storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryPathBenchmark
+{
+
+    private String artifactPath = "org/carlspring/strongbox/strongbox-commons/1.0/strongbox-commons-1.0.jar";
+
+    private RootRepositoryPath repositoryRoot;
+
+    private RepositoryPath repositoryPath;
+
+    @Setup
+    public void setUp()
+    {
+        Configuration configuration = BenchmarkRepositories.createConfiguration(
+                Paths.get(System.getProperty("java.io.tmpdir"), "strongbox-benchmarks"),
+                1,
+                new MutableRoutingRules());
+
+        Repository repository = configuration.getStorage(STORAGE_ID).getRepository(getRepositoryId(0));
+
+        repositoryRoot = BenchmarkRepositories.createFileSystem(repository).getRootDirectory();
+        repositoryPath = repositoryRoot.resolve(artifactPath);
+    }
+
+    @Benchmark
+    public RepositoryPath resolve()
+    {
+        return repositoryRoot.resolve(artifactPath);
+    }
+
+    @Benchmark
+    public RepositoryPath normalize()
+    {
+        return repositoryPath.normalize();
+    }
+
+    @Benchmark
+    public RepositoryPath relativize()
+    {
+        return repositoryPath.relativize();
+    }
+
+    @Benchmark
+    public String relativizePath()
+            throws IOException
+    {
+        // The relative path is kept by the path instance, so a new path is resolved for each invocation.
+        return RepositoryFiles.relativizePath(repositoryRoot.resolve(artifactPath));
+    }
+
+    @Benchmark
+    public RepositoryPath getParent()
+    {
+        return repositoryPath.getParent();
+    }
+
+    @Benchmark
+    public RepositoryPath resolveSibling()
+    {
+        return repositoryPath.resolveSibling("strongbox-commons-1.0.jar.sha1");
+    }
+
+}
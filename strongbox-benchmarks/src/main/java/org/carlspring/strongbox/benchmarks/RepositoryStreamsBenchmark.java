@@ -0,0 +1,128 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.commons.http.range.ByteRange;
+import org.carlspring.commons.http.range.ByteRangeHeaderParser;
+import org.carlspring.commons.http.range.validation.ByteRangeValidationException;
+import org.carlspring.strongbox.io.ByteRangeInputStream;
+import org.carlspring.strongbox.io.LayoutInputStream;
+import org.carlspring.strongbox.io.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading an artifact through the stream chain of the repository file system: a
+ * {@link ByteRangeInputStream} wrapped into a {@link LayoutInputStream}, which calculates the checksums on the fly.
+ * <p>
+ * The content is kept in memory, so that only the streams themselves are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryStreamsBenchmark
+{
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Param({ "65536", "4194304" })
+    private int size;
+
+    @Param({ "none", "md5,sha1" })
+    private String digests;
+
+    private byte[] content;
+
+    private Set<String> digestAlgorithms;
+
+    private ByteRange byteRange;
+
+    @Setup
+    public void setUp()
+            throws ByteRangeValidationException
+    {
+        content = new byte[size];
+        new Random(size).nextBytes(content);
+
+        digestAlgorithms = "none".equals(digests) ?
+                           Collections.emptySet() :
+                           new LinkedHashSet<>(Arrays.asList(MessageDigestAlgorithms.MD5,
+                                                             MessageDigestAlgorithms.SHA_1));
+
+        byteRange = new ByteRangeHeaderParser("bytes=" + size / 2 + "-").getRanges().get(0);
+    }
+
+    @Benchmark
+    public Map<String, String> read()
+            throws IOException,
+                   NoSuchAlgorithmException
+    {
+        try (LayoutInputStream is = new LayoutInputStream(newByteRangeInputStream(), digestAlgorithms))
+        {
+            return digest(is);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> readRange()
+            throws IOException,
+                   NoSuchAlgorithmException
+    {
+        ByteRangeInputStream bris = newByteRangeInputStream();
+        StreamUtils.setCurrentByteRange(bris, byteRange);
+
+        try (LayoutInputStream is = new LayoutInputStream(bris, digestAlgorithms))
+        {
+            return digest(is);
+        }
+    }
+
+    private ByteRangeInputStream newByteRangeInputStream()
+    {
+        ByteRangeInputStream bris = new ByteRangeInputStream(new ByteArrayInputStream(content));
+        bris.setLength(content.length);
+
+        return bris;
+    }
+
+    private Map<String, String> digest(LayoutInputStream is)
+            throws IOException
+    {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (is.read(buffer) != -1)
+        {
+            // The bytes are only read for the checksums.
+        }
+
+        for (String algorithm : digestAlgorithms)
+        {
+            is.getMessageDigestAsHexadecimalString(algorithm);
+        }
+
+        return is.getHexDigests();
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing and the ordering of the {@link SemanticVersion}-s used by the npm and NuGet layouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemanticVersionBenchmark
+{
+
+    @Param({ "1.2.3", "1.2.3-alpha.1+build.5" })
+    private String version;
+
+    private SemanticVersion parsedVersion;
+
+    private SemanticVersion otherVersion;
+
+    @Setup
+    public void setUp()
+    {
+        parsedVersion = SemanticVersion.parse(version);
+        otherVersion = SemanticVersion.parse("1.2.3-alpha.2");
+    }
+
+    @Benchmark
+    public SemanticVersion parse()
+    {
+        return SemanticVersion.parse(version);
+    }
+
+    @Benchmark
+    public int compareTo()
+    {
+        return parsedVersion.compareTo(otherVersion);
+    }
+
+}
@@ -6,6 +6,8 @@ import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Feature;
 import javax.ws.rs.core.Response;
 import java.io.Closeable;
+import java.util.Collections;
+import java.util.Map;
 
 import org.apache.http.client.config.RequestConfig;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
@@ -70,6 +72,22 @@ public class RestArtifactResolver
 
     public CloseableRestResponse get(String path,
                                      long offset)
+    {
+        return get(path, offset > 0 ? "bytes=" + offset + "-" : null);
+    }
+
+    /**
+     * Gets the bytes from {@code offset} to {@code end} (both inclusive) of the resource.
+     */
+    public CloseableRestResponse get(String path,
+                                     long offset,
+                                     long end)
+    {
+        return get(path, "bytes=" + offset + "-" + end);
+    }
+
+    private CloseableRestResponse get(String path,
+                                      String range)
     {
         String url = escapeUrl(path);
 
@@ -82,9 +100,9 @@ public class RestArtifactResolver
         Invocation.Builder request = resource.request();
         Response response;
 
-        if (offset > 0)
+        if (range != null)
         {
-            response = request.header("Range", "bytes=" + offset + "-").get();
+            response = request.header("Range", range).get();
         }
         else
         {
@@ -95,6 +113,15 @@ public class RestArtifactResolver
     }
 
     public CloseableRestResponse head(String path)
+    {
+        return head(path, Collections.emptyMap());
+    }
+
+    /**
+     * @param headers the additional request headers, e.g. the conditional ones
+     */
+    public CloseableRestResponse head(String path,
+                                      Map<String, String> headers)
     {
         String url = escapeUrl(path);
 
@@ -105,7 +132,10 @@ public class RestArtifactResolver
                                      .customRequestConfig()
                                      .build();
 
-        return new CloseableRestResponse(resource.request().head());
+        Invocation.Builder request = resource.request();
+        headers.forEach(request::header);
+
+        return new CloseableRestResponse(request.head());
     }
 
     private String escapeUrl(String path)
@@ -0,0 +1,97 @@
+package org.carlspring.strongbox.service;
+
+import org.apache.http.pool.PoolStats;
+
+/**
+ * The usage of the connections to a remote repository: the {@link PoolStats} of its route together with the time
+ * the requests have waited to lease a connection.
+ */
+public class ConnectionPoolMetrics
+{
+
+    private final PoolStats poolStats;
+
+    private final long leaseCount;
+
+    private final long totalLeaseWaitMillis;
+
+    private final long maxLeaseWaitMillis;
+
+    private final boolean adaptive;
+
+
+    public ConnectionPoolMetrics(PoolStats poolStats,
+                                 long leaseCount,
+                                 long totalLeaseWaitMillis,
+                                 long maxLeaseWaitMillis,
+                                 boolean adaptive)
+    {
+        this.poolStats = poolStats;
+        this.leaseCount = leaseCount;
+        this.totalLeaseWaitMillis = totalLeaseWaitMillis;
+        this.maxLeaseWaitMillis = maxLeaseWaitMillis;
+        this.adaptive = adaptive;
+    }
+
+    public PoolStats getPoolStats()
+    {
+        return poolStats;
+    }
+
+    public int getLeased()
+    {
+        return poolStats.getLeased();
+    }
+
+    public int getPending()
+    {
+        return poolStats.getPending();
+    }
+
+    public int getMax()
+    {
+        return poolStats.getMax();
+    }
+
+    public long getLeaseCount()
+    {
+        return leaseCount;
+    }
+
+    public long getTotalLeaseWaitMillis()
+    {
+        return totalLeaseWaitMillis;
+    }
+
+    public long getMaxLeaseWaitMillis()
+    {
+        return maxLeaseWaitMillis;
+    }
+
+    public double getAverageLeaseWaitMillis()
+    {
+        return leaseCount == 0 ? 0 : (double) totalLeaseWaitMillis / leaseCount;
+    }
+
+    /**
+     * @return {@code true} if the maximum of connections is sized by the demand, {@code false} if it has been
+     * configured for the remote repository
+     */
+    public boolean isAdaptive()
+    {
+        return adaptive;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConnectionPoolMetrics{" +
+               "poolStats=" + poolStats +
+               ", leaseCount=" + leaseCount +
+               ", totalLeaseWaitMillis=" + totalLeaseWaitMillis +
+               ", maxLeaseWaitMillis=" + maxLeaseWaitMillis +
+               ", adaptive=" + adaptive +
+               '}';
+    }
+
+}
@@ -27,5 +27,10 @@ public interface ProxyRepositoryConnectionPoolConfigurationService
 
     PoolStats getPoolStats(String repository);
 
+    /**
+     * @return the pool statistics and the lease wait times of the connections to the remote repository
+     */
+    ConnectionPoolMetrics getPoolMetrics(String repository);
+
     void shutdown();
 }
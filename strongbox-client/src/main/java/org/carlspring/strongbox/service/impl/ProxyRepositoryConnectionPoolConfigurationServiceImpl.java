@@ -2,20 +2,32 @@ package org.carlspring.strongbox.service.impl;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 
+import org.apache.http.HttpClientConnection;
 import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
 import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.pool.PoolStats;
 
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
@@ -29,6 +41,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
+ * Manages the pool of the connections to the remote repositories.
+ * <p>
+ * Unless a maximum of connections has been configured for a remote repository, its maximum is sized by the
+ * demand: it grows (up to {@code pool.adaptive.maxConnectionsPerRoute}) while requests are waiting to lease a
+ * connection, and shrinks back towards the default when the connections are not used. The resizing and the eviction
+ * of the idle connections are done by a single maintenance task.
+ *
  * @author korest
  */
 @Component
@@ -40,7 +59,13 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
             ProxyRepositoryConnectionPoolConfigurationServiceImpl.class);
 
     private PoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
-    private IdleConnectionMonitorThread idleConnectionMonitorThread;
+    private ScheduledExecutorService maintenanceExecutor;
+
+    private final Map<HttpRoute, RouteStatistics> routeStatistics = new ConcurrentHashMap<>();
+    /**
+     * The routes with a configured maximum of connections, which are not resized.
+     */
+    private final Set<HttpRoute> fixedRoutes = ConcurrentHashMap.newKeySet();
 
     @Value("${pool.maxConnections:200}")
     private int maxTotal;
@@ -48,19 +73,39 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
     private int defaultMaxPerRoute;
     @Value("${pool.idleConnectionsTimeoutInSeconds:60}")
     private int idleConnectionsTimeoutInSeconds;
+    @Value("${pool.maintenanceIntervalInSeconds:5}")
+    private int maintenanceIntervalInSeconds;
+    @Value("${pool.adaptive.enabled:true}")
+    private boolean adaptive;
+    @Value("${pool.adaptive.maxConnectionsPerRoute:50}")
+    private int adaptiveMaxPerRoute;
+    /**
+     * The average time to lease a connection above which the route is considered to be short of connections.
+     */
+    @Value("${pool.adaptive.leaseWaitThresholdInMillis:50}")
+    private long leaseWaitThresholdInMillis;
+    /**
+     * Logging the request and response payloads buffers the entities, so it is only meant for troubleshooting.
+     */
+    @Value("${strongbox.restClient.payloadLogging:false}")
+    private boolean payloadLogging;
 
     @PostConstruct
     public void init()
     {
-        poolingHttpClientConnectionManager = new PoolingHttpClientConnectionManager();
+        poolingHttpClientConnectionManager = new MeasuredConnectionManager();
         poolingHttpClientConnectionManager.setMaxTotal(maxTotal); //TODO value that depends on number of threads?
         poolingHttpClientConnectionManager.setDefaultMaxPerRoute(defaultMaxPerRoute);
 
-        // thread for monitoring unused connections
-        idleConnectionMonitorThread =
-                new IdleConnectionMonitorThread(poolingHttpClientConnectionManager, idleConnectionsTimeoutInSeconds);
-        idleConnectionMonitorThread.setDaemon(true);
-        idleConnectionMonitorThread.start();
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-maintenance");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        int interval = Math.max(1, maintenanceIntervalInSeconds);
+        maintenanceExecutor.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.SECONDS);
     }
 
     @PreDestroy
@@ -78,17 +123,20 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         // property to prevent closing connection manager when client is closed
         config.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true);
 
-        java.util.logging.Logger logger = java.util.logging.Logger.getLogger("org.carlspring.strongbox.RestClient");
-
         // TODO set basic authentication here instead of setting it always in client?
         /* CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
         credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(username, password));
         config.property(ApacheClientProperties.CREDENTIALS_PROVIDER, credentialsProvider); */
 
-        return ClientBuilder.newBuilder()
-                            .register(new LoggingFeature(logger, Verbosity.PAYLOAD_TEXT))
-                            .withConfig(config)
-                            .build();
+        ClientBuilder clientBuilder = ClientBuilder.newBuilder().withConfig(config);
+        if (payloadLogging)
+        {
+            java.util.logging.Logger logger = java.util.logging.Logger.getLogger("org.carlspring.strongbox.RestClient");
+
+            clientBuilder.register(new LoggingFeature(logger, Verbosity.PAYLOAD_TEXT));
+        }
+
+        return clientBuilder.build();
     }
 
     @Override
@@ -116,6 +164,15 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
     public void setDefaultMaxPerRepository(int defaultMax)
     {
         poolingHttpClientConnectionManager.setDefaultMaxPerRoute(defaultMax);
+
+        // The resized routes have a maximum of their own, so they are brought back to the new default.
+        for (HttpRoute route : routeStatistics.keySet())
+        {
+            if (!fixedRoutes.contains(route))
+            {
+                poolingHttpClientConnectionManager.setMaxPerRoute(route, defaultMax);
+            }
+        }
     }
 
     @Override
@@ -125,6 +182,7 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         if (max > 0)
         {
             HttpRoute httpRoute = getHttpRouteFromRepository(repository);
+            fixedRoutes.add(httpRoute);
             poolingHttpClientConnectionManager.setMaxPerRoute(httpRoute, max);
         }
         else
@@ -146,13 +204,94 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         return poolingHttpClientConnectionManager.getStats(httpRoute);
     }
 
+    @Override
+    public ConnectionPoolMetrics getPoolMetrics(String repository)
+    {
+        HttpRoute httpRoute = getHttpRouteFromRepository(repository);
+        PoolStats poolStats = poolingHttpClientConnectionManager.getStats(httpRoute);
+
+        RouteStatistics statistics = routeStatistics.get(httpRoute);
+        if (statistics == null)
+        {
+            return new ConnectionPoolMetrics(poolStats, 0, 0, 0, isAdaptive(httpRoute));
+        }
+
+        return new ConnectionPoolMetrics(poolStats,
+                                         statistics.leaseCount.sum(),
+                                         TimeUnit.NANOSECONDS.toMillis(statistics.leaseWaitNanos.sum()),
+                                         TimeUnit.NANOSECONDS.toMillis(statistics.maxLeaseWaitNanos.get()),
+                                         isAdaptive(httpRoute));
+    }
+
     @Override
     public void shutdown()
     {
-        idleConnectionMonitorThread.shutdown();
+        if (maintenanceExecutor != null)
+        {
+            maintenanceExecutor.shutdownNow();
+        }
         poolingHttpClientConnectionManager.shutdown();
     }
 
+    private boolean isAdaptive(HttpRoute route)
+    {
+        return adaptive && !fixedRoutes.contains(route);
+    }
+
+    private void maintain()
+    {
+        try
+        {
+            poolingHttpClientConnectionManager.closeExpiredConnections();
+            poolingHttpClientConnectionManager.closeIdleConnections(idleConnectionsTimeoutInSeconds, TimeUnit.SECONDS);
+
+            if (adaptive)
+            {
+                routeStatistics.forEach(this::resize);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // An exception would cancel the next runs of the task.
+            logger.error("Failed to maintain the connection pool.", e);
+        }
+    }
+
+    private void resize(HttpRoute route,
+                        RouteStatistics statistics)
+    {
+        long averageLeaseWaitNanos = statistics.sampleAverageLeaseWaitNanos();
+        if (fixedRoutes.contains(route))
+        {
+            return;
+        }
+
+        PoolStats stats = poolingHttpClientConnectionManager.getStats(route);
+        int max = stats.getMax();
+        int lowerBound = poolingHttpClientConnectionManager.getDefaultMaxPerRoute();
+        int upperBound = Math.max(lowerBound, adaptiveMaxPerRoute);
+
+        int target = max;
+        if (stats.getPending() > 0 ||
+            averageLeaseWaitNanos > TimeUnit.MILLISECONDS.toNanos(leaseWaitThresholdInMillis))
+        {
+            target = Math.min(upperBound, max + Math.max(1, max / 2));
+        }
+        else if (stats.getLeased() < max / 2)
+        {
+            // Shrink gradually, so that a short lull doesn't undo the growth.
+            target = Math.max(lowerBound, Math.max(stats.getLeased() * 2, max - Math.max(1, max / 4)));
+        }
+
+        if (target != max)
+        {
+            logger.debug("Resizing the connections of [{}] from [{}] to [{}] (leased: {}, pending: {}).",
+                         route.getTargetHost(), max, target, stats.getLeased(), stats.getPending());
+
+            poolingHttpClientConnectionManager.setMaxPerRoute(route, target);
+        }
+    }
+
     // code to create HttpRoute the same as in apache library
     private HttpRoute getHttpRouteFromRepository(String repository)
     {
@@ -191,54 +330,90 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         return new HttpRoute(HttpHost.create(repository));
     }
 
-    private static final class IdleConnectionMonitorThread
-            extends Thread
+    /**
+     * Measures the time the requests wait to lease a connection.
+     */
+    private final class MeasuredConnectionManager
+            extends PoolingHttpClientConnectionManager
     {
 
-        private PoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
-
-        private volatile boolean shutdown;
-
-        private int idleConnectionsTimeout;
-
-        IdleConnectionMonitorThread(PoolingHttpClientConnectionManager poolingHttpClientConnectionManager,
-                                    int idleConnectionsTimeout)
-        {
-            super();
-            this.poolingHttpClientConnectionManager = poolingHttpClientConnectionManager;
-            this.idleConnectionsTimeout = idleConnectionsTimeout;
-        }
-
         @Override
-        public void run()
+        public ConnectionRequest requestConnection(HttpRoute route,
+                                                   Object state)
         {
-            try
+            ConnectionRequest connectionRequest = super.requestConnection(route, state);
+            RouteStatistics statistics = routeStatistics.computeIfAbsent(route, r -> new RouteStatistics());
+
+            return new ConnectionRequest()
             {
-                while (!shutdown)
+
+                @Override
+                public HttpClientConnection get(long timeout,
+                                                TimeUnit tunit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException
                 {
-                    synchronized (this)
+                    long start = System.nanoTime();
+                    try
                     {
-                        wait(5000);
-                        poolingHttpClientConnectionManager.closeExpiredConnections();
-                        poolingHttpClientConnectionManager.closeIdleConnections(idleConnectionsTimeout,
-                                                                                TimeUnit.SECONDS);
+                        return connectionRequest.get(timeout, tunit);
+                    }
+                    finally
+                    {
+                        statistics.record(System.nanoTime() - start);
                     }
                 }
-            }
-            catch (InterruptedException e)
-            {
-                shutdown();
-            }
+
+                @Override
+                public boolean cancel()
+                {
+                    return connectionRequest.cancel();
+                }
+
+            };
+        }
+
+    }
+
+    private static final class RouteStatistics
+    {
+
+        private final LongAdder leaseCount = new LongAdder();
+
+        private final LongAdder leaseWaitNanos = new LongAdder();
+
+        private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+
+        /**
+         * The totals at the previous sample, only accessed by the maintenance task.
+         */
+        private long sampledLeaseCount;
+
+        private long sampledLeaseWaitNanos;
+
+        void record(long waitNanos)
+        {
+            leaseCount.increment();
+            leaseWaitNanos.add(waitNanos);
+            maxLeaseWaitNanos.accumulateAndGet(waitNanos, Math::max);
         }
 
-        public void shutdown()
+        /**
+         * @return the average lease wait since the previous sample
+         */
+        long sampleAverageLeaseWaitNanos()
         {
-            shutdown = true;
-            synchronized (this)
-            {
-                notifyAll();
-            }
+            long count = leaseCount.sum();
+            long waitNanos = leaseWaitNanos.sum();
+
+            long leases = count - sampledLeaseCount;
+            long average = leases > 0 ? (waitNanos - sampledLeaseWaitNanos) / leases : 0;
+
+            sampledLeaseCount = count;
+            sampledLeaseWaitNanos = waitNanos;
+
+            return average;
         }
 
     }
+
 }
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.service.impl;
 
 import org.carlspring.strongbox.config.ClientConfig;
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 
 import javax.inject.Inject;
@@ -55,6 +56,21 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImplIT
         assertThat(proxyRepositoryConnectionPoolConfigurationService.getPoolStats(repositoryUrl).getMax()).isEqualTo(3);
     }
 
+    @Test
+    public void configuredRepositoryIsNotResized()
+    {
+        String configuredRepositoryUrl = "http://repo.spring.io/release";
+        proxyRepositoryConnectionPoolConfigurationService.setMaxPerRepository(configuredRepositoryUrl, 4);
+
+        ConnectionPoolMetrics metrics = proxyRepositoryConnectionPoolConfigurationService.getPoolMetrics(
+                configuredRepositoryUrl);
+        assertThat(metrics.isAdaptive()).isFalse();
+        assertThat(metrics.getMax()).isEqualTo(4);
+
+        assertThat(proxyRepositoryConnectionPoolConfigurationService.getPoolMetrics("http://repo.spring.io/milestone")
+                                                                    .isAdaptive()).isTrue();
+    }
+
     // integration test, external call to repo
     @Test
     public void connectionsReleasedTest()
@@ -11,6 +11,8 @@ import java.util.Set;
 import java.util.UUID;
 
 import com.google.common.collect.ImmutableSet;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.quartz.DisallowConcurrentExecution;
 import org.quartz.InterruptableJob;
 import org.quartz.JobExecutionContext;
@@ -80,15 +82,26 @@ public abstract class AbstractCronJob
         setStatus(CronJobStatusEnum.EXECUTING.getStatus());
         cronTaskEventListenerRegistry.dispatchCronTaskExecutingEvent(configuration.getUuid());
 
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String outcome = "failure";
         try
         {
             executeTask(configuration);
+            outcome = "success";
             logger.info("Cron job task [{}] execution completed.", configuration.getName());
         }
         catch (Throwable e)
         {
             logger.error("Failed to execute cron job task [{}].", configuration.getName(), e);
         }
+        finally
+        {
+            sample.stop(Timer.builder("strongbox.cron.job")
+                             .description("Time to execute the cron jobs")
+                             .tag("job", getClass().getSimpleName())
+                             .tag("outcome", outcome)
+                             .register(Metrics.globalRegistry));
+        }
         manager.addExecutedJob(configuration.getUuid().toString(), true);
 
         cronTaskEventListenerRegistry.dispatchCronTaskExecutedEvent(configuration.getUuid());
@@ -20,11 +20,15 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
 
     private static final String PROPERTY_MIN_SIZE_IN_BYTES = "minSizeInBytes";
 
+    private static final String PROPERTY_MAX_REPOSITORY_SIZE_IN_BYTES = "maxRepositorySizeInBytes";
+
     private static final Set<CronJobField> FIELDS = ImmutableSet.of(
             new CronJobIntegerTypeField(
                     new CronJobRequiredField(new CronJobNamedField(PROPERTY_LAST_ACCESSED_TIME_IN_DAYS))),
-            new CronJobIntegerTypeField(
-                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))));
+            new CronJobLongTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))),
+            new CronJobLongTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MAX_REPOSITORY_SIZE_IN_BYTES))));
 
     @Inject
     private LocalStorageProxyRepositoryExpiredArtifactsCleaner proxyRepositoryObsoleteArtifactsCleaner;
@@ -35,6 +39,7 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
     {
         final String lastAccessedTimeInDaysText = config.getRequiredProperty(PROPERTY_LAST_ACCESSED_TIME_IN_DAYS);
         final String minSizeInBytesText = config.getProperty(PROPERTY_MIN_SIZE_IN_BYTES);
+        final String maxRepositorySizeInBytesText = config.getProperty(PROPERTY_MAX_REPOSITORY_SIZE_IN_BYTES);
 
         final Integer lastAccessedTimeInDays;
         try
@@ -63,7 +68,24 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
             }
         }
 
-        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays, minSizeInBytes);
+        Long maxRepositorySizeInBytes = null;
+        if (maxRepositorySizeInBytesText != null)
+        {
+            try
+            {
+                maxRepositorySizeInBytes = Long.valueOf(maxRepositorySizeInBytesText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid long value [{}] of 'maxRepositorySizeInBytes' property. Cron job won't be fired.",
+                             maxRepositorySizeInBytesText, ex);
+                return;
+            }
+        }
+
+        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays,
+                                                        minSizeInBytes,
+                                                        maxRepositorySizeInBytes);
     }
 
     @Override
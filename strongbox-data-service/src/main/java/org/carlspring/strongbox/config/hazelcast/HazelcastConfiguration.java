@@ -6,6 +6,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.inject.Inject;
+
 import com.hazelcast.config.*;
 import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
 import com.hazelcast.core.Hazelcast;
@@ -13,6 +15,7 @@ import com.hazelcast.core.HazelcastInstance;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 /**
  * @author Przemyslaw Fusik
@@ -21,6 +24,11 @@ import org.springframework.context.annotation.Configuration;
 public class HazelcastConfiguration
 {
 
+    private static final String CACHE_PROPERTY_PREFIX = "cacheManagerConfiguration.caches.";
+
+    @Inject
+    private Environment environment;
+
     @Value("${cacheManagerConfiguration.caches.authentications.timeToLiveSeconds:10}")
     public int authenticationsCacheInvalidateInterval;
 
@@ -63,6 +71,52 @@ public class HazelcastConfiguration
     @Value("${cacheManagerConfiguration.caches.tags.evictionPolicy:LFU}")
     public EvictionPolicy tagsEvictionPolicy;
 
+    /**
+     * The caches which are near-cached on each member, besides the {@code authentications} one. The near-cache of a
+     * cache is tuned by its {@code cacheManagerConfiguration.caches.<name>.nearCache.*} properties.
+     */
+    @Value("#{'${cacheManagerConfiguration.nearCaches:tags,remoteRepositoryAliveness}'.split(',')}")
+    public String[] nearCacheNames;
+
+    public NearCacheConfig nearCacheConfig(String name)
+    {
+        String prefix = CACHE_PROPERTY_PREFIX + name + ".nearCache.";
+
+        EvictionConfig evictionConfig = new EvictionConfig().setEvictionPolicy(getProperty(prefix + "evictionPolicy",
+                                                                                           EvictionPolicy.class,
+                                                                                           EvictionPolicy.LFU))
+                                                            .setMaximumSizePolicy(getProperty(prefix + "maxSizePolicy",
+                                                                                              MaxSizePolicy.class,
+                                                                                              MaxSizePolicy.ENTRY_COUNT))
+                                                            .setSize(getProperty(prefix + "maxSize",
+                                                                                 Integer.class,
+                                                                                 10000));
+
+        return new NearCacheConfig(name).setInMemoryFormat(getProperty(prefix + "inMemoryFormat",
+                                                                       InMemoryFormat.class,
+                                                                       InMemoryFormat.BINARY))
+                                        .setInvalidateOnChange(getProperty(prefix + "invalidateOnChange",
+                                                                           Boolean.class,
+                                                                           true))
+                                        .setCacheLocalEntries(getProperty(prefix + "cacheLocalEntries",
+                                                                          Boolean.class,
+                                                                          true))
+                                        .setTimeToLiveSeconds(getProperty(prefix + "timeToLiveSeconds",
+                                                                          Integer.class,
+                                                                          NearCacheConfig.DEFAULT_TTL_SECONDS))
+                                        .setMaxIdleSeconds(getProperty(prefix + "maxIdleSeconds",
+                                                                       Integer.class,
+                                                                       NearCacheConfig.DEFAULT_MAX_IDLE_SECONDS))
+                                        .setEvictionConfig(evictionConfig);
+    }
+
+    private <T> T getProperty(String key,
+                              Class<T> targetType,
+                              T defaultValue)
+    {
+        return environment.getProperty(key, targetType, defaultValue);
+    }
+
     public static MapConfig newDefaultMapConfig(String name,
                                                 int maxSize,
                                                 MaxSizeConfig.MaxSizePolicy maxSizePolicy,
@@ -128,6 +182,8 @@ public class HazelcastConfiguration
                                                                             tagsMaxSizePolicy,
                                                                             tagsEvictionPolicy))
                                           .addMapConfig(authenticationCacheConfig(CacheName.User.AUTHENTICATIONS));
+        addNearCacheConfigs(config);
+
         config.setGroupConfig(new GroupConfig(groupConfigName, groupConfigPassword));
         config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(enableMulticastConfig);
 
@@ -148,4 +204,25 @@ public class HazelcastConfiguration
         return config;
     }
 
+    private void addNearCacheConfigs(Config config)
+    {
+        Arrays.stream(nearCacheNames)
+              .map(String::trim)
+              .filter(name -> !name.isEmpty())
+              .forEach(name -> {
+                  MapConfig mapConfig = config.getMapConfigs().get(name);
+                  if (mapConfig == null)
+                  {
+                      mapConfig = new MapConfig(name);
+                      config.addMapConfig(mapConfig);
+                  }
+
+                  // The near-caches which are configured explicitly, like the authentications one, are kept.
+                  if (mapConfig.getNearCacheConfig() == null)
+                  {
+                      mapConfig.setNearCacheConfig(nearCacheConfig(name));
+                  }
+              });
+    }
+
 }
@@ -0,0 +1,39 @@
+package org.carlspring.strongbox.data;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the statistics of the Hazelcast maps behind the caches (hits, misses, evictions, near-cache hits) to the
+ * {@code cache.*} meters.
+ * <p>
+ * Spring Boot only binds the caches which exist at startup, while ours are created on first use, so each configured
+ * map is bound here, with the same tags as Spring Boot would use.
+ */
+@Component
+public class CacheMetricsBinder
+{
+
+    @Inject
+    private HazelcastInstance hazelcastInstance;
+
+    @PostConstruct
+    public void bindCaches()
+    {
+        hazelcastInstance.getConfig()
+                         .getMapConfigs()
+                         .keySet()
+                         .stream()
+                         .filter(name -> !name.contains("*") && !"default".equals(name))
+                         .forEach(name -> HazelcastCacheMetrics.monitor(Metrics.globalRegistry,
+                                                                        hazelcastInstance.getMap(name),
+                                                                        Tags.of("cacheManager", "cacheManager")));
+    }
+
+}
@@ -50,14 +50,16 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
         Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
 
-        logger.debug("Executing SQL query:\n" +
+        // The SQL is only logged, as it's too varied to tag the timer of the query with.
+        logger.debug("Executing SQL query [{}]:\n" +
                      "\t[{}]\n" +
                      "With parameters:\n" +
                      "\t[{}]",
-                     sQuery, parameterMap);
+                     s.getName(), sQuery, parameterMap);
 
-        Object result = getEmDelegate().command(oQuery)
-                                       .execute(parameterMap);
+        Object result = QueryMetrics.time(s.getTargetClass(),
+                                          s.getName(),
+                                          () -> getEmDelegate().command(oQuery).execute(parameterMap));
         if (result instanceof Collection && !((Collection) result).isEmpty()
                 && ((Collection) result).iterator().next() instanceof ODocument)
         {
@@ -0,0 +1,34 @@
+package org.carlspring.strongbox.data.criteria;
+
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times the OrientDB queries by their entity class and name.
+ * <p>
+ * The names are given in the code (rather than taken from the SQL), so that the number of timers stays bounded.
+ */
+public final class QueryMetrics
+{
+
+    public static final String QUERY_TIMER = "strongbox.db.query";
+
+    private QueryMetrics()
+    {
+    }
+
+    public static <R> R time(Class<?> entityClass,
+                             String queryName,
+                             Supplier<R> query)
+    {
+        return Timer.builder(QUERY_TIMER)
+                    .description("Time to execute the OrientDB queries")
+                    .tag("entity", entityClass.getSimpleName())
+                    .tag("query", queryName)
+                    .register(Metrics.globalRegistry)
+                    .record(query);
+    }
+
+}
@@ -24,6 +24,11 @@ public class Selector<T extends GenericEntity>
     
     private Paginator paginator = new Paginator();
 
+    /**
+     * The name which the query is timed under (see {@link QueryMetrics}).
+     */
+    private String name = "select";
+
     public Selector(Class<T> targetClass)
     {
         super();
@@ -83,4 +88,15 @@ public class Selector<T extends GenericEntity>
         return this;
     }
 
+    public String getName()
+    {
+        return name;
+    }
+
+    public Selector<T> named(String name)
+    {
+        this.name = name;
+        return this;
+    }
+
 }
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.data.service;
 
+import org.carlspring.strongbox.data.criteria.QueryMetrics;
 import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.carlspring.strongbox.data.service.impl.EntityServiceRegistry;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
@@ -15,7 +16,12 @@ import javax.persistence.OneToOne;
 import javax.persistence.PersistenceContext;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.orientechnologies.orient.core.id.ORecordId;
@@ -35,6 +41,8 @@ public abstract class CommonCrudService<T extends GenericEntity>
 
     private static final Logger logger = LoggerFactory.getLogger(CommonCrudService.class);
 
+    private static final ConcurrentMap<Class<?>, List<CascadeField>> CASCADE_FIELDS = new ConcurrentHashMap<>();
+
     @PersistenceContext
     protected EntityManager entityManager;
 
@@ -47,37 +55,28 @@ public abstract class CommonCrudService<T extends GenericEntity>
         entityServiceRegistry.register(this.getEntityClass(), this);
     }
 
+    /**
+     * Executes a query, timing it under the given name (see {@link QueryMetrics}).
+     */
+    protected <R> R timeQuery(String queryName,
+                              Supplier<R> query)
+    {
+        return QueryMetrics.time(getEntityClass(), queryName, query);
+    }
+
     protected <S extends T> S cascadeEntitySave(T entity)
     {
         identifyEntity(entity);
-        
-        ReflectionUtils.doWithFields(getEntityClass(), (field) -> {
-            ReflectionUtils.makeAccessible(field);
-
-            Set<CascadeType> cascadeTypeSet = Arrays.stream(field.getAnnotations())
-                                                    .map(a -> exposeCascadeType(a))
-                                                    .reduce((c1,
-                                                             c2) -> {
-                                                        c1.addAll(c2);
-                                                        return c1;
-                                                    })
-                                                    .orElse(Collections.emptySet());
-            
-            if (!cascadeTypeSet.stream().anyMatch(c -> CascadeType.ALL.equals(c) || CascadeType.MERGE.equals(c)
-                    || CascadeType.PERSIST.equals(c)))
-            {
-                return;
-            }
-            
-            Class<?> fieldType = field.getType();
-            Object fieldValue = ReflectionUtils.getField(field, entity);
 
+        for (CascadeField cascadeField : getCascadeFields(getEntityClass()))
+        {
+            Object fieldValue = cascadeField.get(entity);
             if (fieldValue == null)
             {
-                return;
+                continue;
             }
 
-            if (Collection.class.isAssignableFrom(fieldType))
+            if (cascadeField.collection)
             {
                 Collection<Object> collection = (Collection<Object>) fieldValue;
                 List<Object> replaceCollection = new LinkedList<>();
@@ -97,16 +96,48 @@ public abstract class CommonCrudService<T extends GenericEntity>
                 Object newFieldValue = tryToCascadeEntitySave(fieldValue);
                 if (newFieldValue != fieldValue)
                 {
-                    ReflectionUtils.setField(field, entity, newFieldValue);
+                    cascadeField.set(entity, newFieldValue);
                 }
             }
-
-        });
+        }
 
         return getDelegate().save(entity);
     }
 
-    private Set<CascadeType> exposeCascadeType(Annotation a)
+    /**
+     * The fields to cascade the saves of an entity class to, resolved once per class.
+     */
+    private static List<CascadeField> getCascadeFields(Class<?> entityClass)
+    {
+        return CASCADE_FIELDS.computeIfAbsent(entityClass, CommonCrudService::resolveCascadeFields);
+    }
+
+    private static List<CascadeField> resolveCascadeFields(Class<?> entityClass)
+    {
+        List<CascadeField> result = new ArrayList<>();
+        ReflectionUtils.doWithFields(entityClass, (field) -> {
+            Set<CascadeType> cascadeTypeSet = Arrays.stream(field.getAnnotations())
+                                                    .map(a -> exposeCascadeType(a))
+                                                    .reduce((c1,
+                                                             c2) -> {
+                                                        c1.addAll(c2);
+                                                        return c1;
+                                                    })
+                                                    .orElse(Collections.emptySet());
+
+            if (!cascadeTypeSet.stream().anyMatch(c -> CascadeType.ALL.equals(c) || CascadeType.MERGE.equals(c)
+                    || CascadeType.PERSIST.equals(c)))
+            {
+                return;
+            }
+
+            result.add(new CascadeField(field));
+        }, (field) -> !Modifier.isStatic(field.getModifiers()));
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Set<CascadeType> exposeCascadeType(Annotation a)
     {
         Set<CascadeType> result = new HashSet<>();
         if (a instanceof OneToMany)
@@ -362,4 +393,35 @@ public abstract class CommonCrudService<T extends GenericEntity>
         return getDelegate().detachAll(entity, true);
     }
 
+    /**
+     * A field which the saves of its entity are cascaded to, made accessible once.
+     */
+    private static class CascadeField
+    {
+
+        private final Field field;
+
+        private final boolean collection;
+
+        CascadeField(Field field)
+        {
+            ReflectionUtils.makeAccessible(field);
+
+            this.field = field;
+            this.collection = Collection.class.isAssignableFrom(field.getType());
+        }
+
+        Object get(Object entity)
+        {
+            return ReflectionUtils.getField(field, entity);
+        }
+
+        void set(Object entity,
+                 Object value)
+        {
+            ReflectionUtils.setField(field, entity, value);
+        }
+
+    }
+
 }
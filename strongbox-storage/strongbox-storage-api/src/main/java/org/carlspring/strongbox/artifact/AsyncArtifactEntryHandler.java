@@ -10,8 +10,10 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 
 import com.orientechnologies.common.concur.ONeedRetryException;
@@ -37,6 +39,10 @@ public abstract class AsyncArtifactEntryHandler
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    @Named("artifactEntryHandlerExecutor")
+    private ExecutorService artifactEntryHandlerExecutor;
+
     private final ArtifactEventTypeEnum eventType;
 
     public AsyncArtifactEntryHandler(ArtifactEventTypeEnum eventType)
@@ -47,8 +53,6 @@ public abstract class AsyncArtifactEntryHandler
 
     @AsyncEventListener
     public void handleEvent(final ArtifactEvent<RepositoryPath> event)
-        throws IOException,
-        InterruptedException
     {
         if (eventType.getType() != event.getType())
         {
@@ -64,21 +68,29 @@ public abstract class AsyncArtifactEntryHandler
         // TODO: this is needed just as workadound to have new transaction
         // within this async event (expected to be replaced with
         // just Propagation.REQUIRES_NEW after SB-1200)
-        Thread threadWithNewTransactionContext = new Thread(() -> {
+        // The handler runs on a bounded pool, so that a burst of events doesn't start a thread per event, and the
+        // event thread doesn't wait for it.
+        artifactEntryHandlerExecutor.execute(() -> {
             try
             {
                 handleLocked(repositoryPath);
             }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                logger.warn("Interrupted while handling async event [{}] for path [{}]",
+                            AsyncArtifactEntryHandler.this.getClass().getSimpleName(),
+                            repositoryPath);
+            }
             catch (Exception e)
             {
-                logger.error("Failed to handle async event [{}]",
+                logger.error("Failed to handle async event [{}] for path [{}]",
                              AsyncArtifactEntryHandler.this.getClass().getSimpleName(),
+                             repositoryPath,
                              e);
             }
         });
-
-        threadWithNewTransactionContext.start();
-        threadWithNewTransactionContext.join();
     }
 
     private void handleLocked(RepositoryPath repositoryPath)
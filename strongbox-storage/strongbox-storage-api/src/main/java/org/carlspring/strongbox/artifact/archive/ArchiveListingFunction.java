@@ -3,11 +3,14 @@ package org.carlspring.strongbox.artifact.archive;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 import java.io.IOException;
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 
 /**
  * @author Przemyslaw Fusik
@@ -31,6 +34,17 @@ public interface ArchiveListingFunction
         return result;
     }
 
+    default Set<String> getEntryNames(final ZipFile zipFile)
+    {
+        final Set<String> result = new HashSet<>();
+        final Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+        while (entries.hasMoreElements())
+        {
+            result.add(entries.nextElement().getName());
+        }
+        return result;
+    }
+
     default boolean supports(RepositoryPath path)
     {
         return true;
@@ -2,17 +2,21 @@ package org.carlspring.strongbox.artifact.archive;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Set;
 
-import org.apache.commons.compress.archivers.ArchiveInputStream;
-import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 
 /**
+ * Lists the entries of zip based archives (zip, jar, war etc).
+ * <p>
+ * Only the central directory at the end of the archive is read, through a {@link java.nio.channels.SeekableByteChannel},
+ * so the cost of the listing doesn't depend on the size of the entries.
+ *
  * @author Przemyslaw Fusik
  */
 public enum ZipArchiveListingFunction
@@ -25,11 +29,12 @@ public enum ZipArchiveListingFunction
     public Set<String> listFilenames(final RepositoryPath path)
             throws IOException
     {
-        try (InputStream is = Files.newInputStream(path);
-             BufferedInputStream bis = new BufferedInputStream(is);
-             ArchiveInputStream ais = new ZipArchiveInputStream(bis))
+        try (ZipFile zipFile = new ZipFile(Files.newByteChannel(path, StandardOpenOption.READ),
+                                           path.toString(),
+                                           StandardCharsets.UTF_8.name(),
+                                           true))
         {
-            return getEntryNames(ais);
+            return getEntryNames(zipFile);
         }
     }
 
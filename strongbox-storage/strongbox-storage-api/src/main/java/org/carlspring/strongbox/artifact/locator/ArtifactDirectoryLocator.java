@@ -4,14 +4,32 @@ import org.carlspring.strongbox.artifact.locator.handlers.ArtifactDirectoryOpera
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Walks the directory tree of a repository and executes the {@link ArtifactDirectoryOperation} for every
+ * directory, in pre-order. Once all the sub-directories of a directory have been processed, the
+ * operation is notified with {@link ArtifactDirectoryOperation#postExecute(RepositoryPath)}.
+ * <p>
+ * The tree is traversed as a stream, without collecting (or sorting) the directories up front. With a
+ * {@link #setParallelism(int) parallelism} greater than one, every sub-tree is processed by a separate
+ * task of a bounded {@link ForkJoinPool}, which requires the operation to be thread safe. The
+ * sub-directories are forked in batches, so that wide directories don't flood the pool with tasks.
+ *
  * @author mtodorov
  */
 public class ArtifactDirectoryLocator
@@ -19,6 +37,8 @@ public class ArtifactDirectoryLocator
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactDirectoryLocator.class);
 
+    private static final int TASKS_PER_THREAD = 4;
+
     private ArtifactDirectoryOperation operation;
 
     /**
@@ -27,6 +47,12 @@ public class ArtifactDirectoryLocator
      */
     private RepositoryPath basedir;
 
+    /**
+     * The number of threads used to process the directories; {@code 1} means the tree is walked in the
+     * calling thread.
+     */
+    private int parallelism = 1;
+
     public void locateArtifactDirectories()
         throws IOException
     {
@@ -34,20 +60,31 @@ public class ArtifactDirectoryLocator
 
         RepositoryPath startingPath = getStartingPath();
 
-        try (Stream<Path> pathStream = Files.walk(startingPath))
+        if (parallelism > 1)
+        {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try
+            {
+                pool.invoke(new DirectoryTask(startingPath, parallelism * TASKS_PER_THREAD));
+            }
+            catch (UncheckedIOException e)
+            {
+                throw e.getCause();
+            }
+            finally
+            {
+                pool.shutdown();
+            }
+        }
+        else
         {
-            pathStream.filter(Files::isDirectory)
-                      // Skip directories which start with a dot (like, for example: .index)
-                      .filter(path -> !path.getFileName().toString().startsWith("."))
-                      // Note: Sorting can be expensive:
-                      .sorted()
-                      .forEach(this::execute);
+            Files.walkFileTree(startingPath, new DirectoryVisitor());
         }
 
         long endTime = System.currentTimeMillis();
 
-        logger.debug("Executed (cache: {}) visits in {} ms.",
-                     -operation.getVisitedRootPaths().size(), (endTime - startTime));
+        logger.debug("Executed [{}] visits in {} ms (parallelism: {}).",
+                     operation.getClass().getSimpleName(), (endTime - startTime), parallelism);
 
         getOperation().getVisitedRootPaths().clear();
     }
@@ -88,6 +125,16 @@ public class ArtifactDirectoryLocator
         this.basedir = basedir;
     }
 
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
     void execute(Path path)
     {
         try
@@ -99,5 +146,108 @@ public class ArtifactDirectoryLocator
             logger.error("Failed to execute operation [{}]", operation.getClass().getSimpleName(), e);
         }
     }
-    
+
+    void postExecute(Path path)
+    {
+        operation.postExecute((RepositoryPath) path);
+    }
+
+    /**
+     * Skip directories which start with a dot (like, for example: .index), together with their contents.
+     */
+    static boolean isHidden(Path directory)
+    {
+        Path fileName = directory.getFileName();
+
+        return fileName != null && fileName.toString().startsWith(".");
+    }
+
+    private class DirectoryVisitor
+            extends SimpleFileVisitor<Path>
+    {
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir,
+                                                 BasicFileAttributes attrs)
+        {
+            if (isHidden(dir))
+            {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            execute(dir);
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir,
+                                                  IOException e)
+                throws IOException
+        {
+            if (e != null)
+            {
+                throw e;
+            }
+
+            postExecute(dir);
+
+            return FileVisitResult.CONTINUE;
+        }
+
+    }
+
+    private class DirectoryTask
+            extends RecursiveAction
+    {
+
+        private final Path directory;
+
+        private final int batchSize;
+
+        DirectoryTask(Path directory,
+                      int batchSize)
+        {
+            this.directory = directory;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (isHidden(directory))
+            {
+                return;
+            }
+
+            execute(directory);
+
+            List<DirectoryTask> batch = new ArrayList<>(batchSize);
+            // The links are not followed (as by the serial walk), so that a link loop can't be recursed into.
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(directory,
+                                                                   p -> Files.isDirectory(p,
+                                                                                          LinkOption.NOFOLLOW_LINKS)))
+            {
+                for (Path child : ds)
+                {
+                    batch.add(new DirectoryTask(child, batchSize));
+                    if (batch.size() == batchSize)
+                    {
+                        invokeAll(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            invokeAll(batch);
+
+            postExecute(directory);
+        }
+
+    }
+
 }
@@ -1,8 +1,8 @@
 package org.carlspring.strongbox.artifact.locator.handlers;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
@@ -21,7 +21,18 @@ public interface ArtifactDirectoryOperation
      */
     void execute(RepositoryPath directoryPath) throws IOException;
 
-    LinkedHashMap<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths();
+    /**
+     * Called once all the sub-directories of the provided directory have been processed.
+     *
+     * @param directoryPath
+     */
+    void postExecute(RepositoryPath directoryPath);
+
+    /**
+     * Operations may be executed concurrently for different directories, so the implementations need to
+     * use this map in an atomic way (e.g. with {@link Map#putIfAbsent(Object, Object)}).
+     */
+    Map<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths();
 
     RepositoryPath getBasePath();
     
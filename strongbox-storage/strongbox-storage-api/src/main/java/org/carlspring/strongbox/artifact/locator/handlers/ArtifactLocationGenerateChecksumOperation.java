@@ -3,11 +3,13 @@ package org.carlspring.strongbox.artifact.locator.handlers;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegenerationCheckpoint;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -22,10 +24,12 @@ public class ArtifactLocationGenerateChecksumOperation
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactLocationGenerateChecksumOperation.class);
 
-    private Path previousPath;
-
     private boolean forceRegeneration = false;
 
+    private ChecksumRegenerationCheckpoint checkpoint;
+
+    private final AtomicBoolean failed = new AtomicBoolean();
+
     public void execute(RepositoryPath path)
             throws IOException
     {
@@ -50,41 +54,53 @@ public class ArtifactLocationGenerateChecksumOperation
             }
         }
 
-        RepositoryPath parentPath = path;
-
-        // Don't enter visited paths (i.e. version directories such as 1.2, 1.3, 1.4...)
-        if (!getVisitedRootPaths().isEmpty() && getVisitedRootPaths().containsKey(parentPath))
+        // Don't enter visited paths (i.e. version directories such as 1.2, 1.3, 1.4...), as the checksums of
+        // the whole sub-tree are generated together with the parent
+        if (isAncestorVisited(path) || getVisitedRootPaths().putIfAbsent(path, Collections.singletonList(path)) != null)
         {
-            List<RepositoryPath> visitedVersionPaths = getVisitedRootPaths().get(parentPath);
+            return;
+        }
 
-            if (visitedVersionPaths.contains(path))
-            {
-                return;
-            }
+        if (checkpoint != null && checkpoint.isCompleted(path))
+        {
+            logger.debug("Checksums for [{}] have already been regenerated, skipping.", path);
+            return;
         }
 
         if (logger.isDebugEnabled())
         {
             // We're using System.out.println() here for clarity and due to the length of the lines
-            System.out.println(parentPath);
+            System.out.println(path);
         }
 
-        // The current directory is out of the tree
-        if (previousPath != null && !parentPath.startsWith(previousPath))
+        RepositoryPath basePath = path;
+        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) basePath.getFileSystem()
+                                                                                                   .provider();
+        if (!provider.storeChecksum(basePath, forceRegeneration))
         {
-            getVisitedRootPaths().remove(previousPath);
-            previousPath = parentPath;
+            // Not marked as completed, so that a resumed run tries it again
+            logger.warn("Failed to regenerate some of the checksums for [{}].", path);
+            failed.set(true);
         }
+        else if (checkpoint != null)
+        {
+            checkpoint.markCompleted(path);
+        }
+    }
 
-        if (previousPath == null)
+    private boolean isAncestorVisited(RepositoryPath path)
+    {
+        RepositoryPath root = path.getFileSystem().getRootDirectory();
+        for (RepositoryPath parent = path; !parent.equals(root); )
         {
-            previousPath = parentPath;
+            parent = parent.getParent();
+            if (getVisitedRootPaths().containsKey(parent))
+            {
+                return true;
+            }
         }
 
-        RepositoryPath basePath = parentPath;
-        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) basePath.getFileSystem()
-                                                                                                   .provider();
-        provider.storeChecksum(basePath, forceRegeneration);
+        return false;
     }
 
     public boolean getForceRegeneration()
@@ -96,4 +112,26 @@ public class ArtifactLocationGenerateChecksumOperation
     {
         this.forceRegeneration = forceRegeneration;
     }
+
+    /**
+     * @return {@code true} if the checksums of some of the directories could not be regenerated
+     */
+    public boolean hasFailures()
+    {
+        return failed.get();
+    }
+
+    public ChecksumRegenerationCheckpoint getCheckpoint()
+    {
+        return checkpoint;
+    }
+
+    /**
+     * @param checkpoint used to skip the directories completed by a previous (interrupted) run, and to record
+     *                   the ones completed by this run; optional
+     */
+    public void setCheckpoint(ChecksumRegenerationCheckpoint checkpoint)
+    {
+        this.checkpoint = checkpoint;
+    }
 }
@@ -5,8 +5,9 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +22,6 @@ public class ArtifactLocationReportOperation
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactLocationReportOperation.class);
 
-    private RepositoryPath previousPath;
-
 
     public ArtifactLocationReportOperation()
     {
@@ -35,17 +34,19 @@ public class ArtifactLocationReportOperation
 
     public void execute(RepositoryPath path) throws IOException
     {
-        List<Path> filePathList = Files.walk(path)
-                                       .filter(p -> !p.getFileName().startsWith(".pom"))
-                                                                    .sorted()
-                                                                    .collect(Collectors.toList());
+        boolean containsFiles;
+        try (Stream<Path> pathStream = Files.walk(path))
+        {
+            containsFiles = pathStream.anyMatch(p -> !p.getFileName().startsWith(".pom"));
+        }
 
-        if (filePathList.isEmpty())
+        if (!containsFiles)
         {
             return;
         }
+
         // Don't enter visited paths (i.e. version directories such as 1.2, 1.3, 1.4...)
-        if (getVisitedRootPaths().containsKey(path) && getVisitedRootPaths().get(path).contains(path))
+        if (getVisitedRootPaths().putIfAbsent(path, Collections.emptyList()) != null)
         {
             return;
         }
@@ -56,18 +57,6 @@ public class ArtifactLocationReportOperation
             System.out.println(path);
         }
 
-        // The current directory is out of the tree
-        if (previousPath != null && !path.startsWith(previousPath))
-        {
-            getVisitedRootPaths().remove(previousPath);
-            previousPath = path;
-        }
-
-        if (previousPath == null)
-        {
-            previousPath = path;
-        }
-
         List<RepositoryPath> versionDirectories = getVersionDirectories(path);
         if (versionDirectories != null)
         {
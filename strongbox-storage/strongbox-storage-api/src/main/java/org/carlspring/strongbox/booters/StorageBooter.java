@@ -18,12 +18,24 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import org.carlspring.strongbox.util.ThrowingConsumer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 /**
+ * Initializes the configured storages and repositories on startup.
+ * <p>
+ * The repositories are initialized concurrently, on a bounded pool of
+ * {@code strongbox.storageBooter.parallelism} threads. A group repository is only initialized once all of its
+ * members have been initialized.
+ *
  * @author mtodorov
  */
 public class StorageBooter
@@ -49,6 +61,9 @@ public class StorageBooter
     @Inject
     private HazelcastInstance hazelcastInstance;
 
+    @Value("${strongbox.storageBooter.parallelism:4}")
+    private int parallelism;
+
     public StorageBooter()
     {
     }
@@ -72,9 +87,9 @@ public class StorageBooter
                 if (!repositories.isEmpty())
                 {
                     logger.info(" -> Initializing repositories...");
-                }
 
-                repositories.forEach(ThrowingConsumer.unchecked(this::initializeRepository));
+                    initializeRepositories(repositories);
+                }
             }
             finally
             {
@@ -107,6 +122,86 @@ public class StorageBooter
         logger.info("  * Initializing {}...", storage.getId());
     }
 
+    /**
+     * @param repositories the repositories to initialize, with the members of every group repository preceding it
+     */
+    private void initializeRepositories(final Collection<Repository> repositories)
+            throws IOException, RepositoryManagementStrategyException
+    {
+        final long startTime = System.currentTimeMillis();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(
+                Math.max(1, parallelism),
+                new ThreadFactoryBuilder().setNameFormat("storage-booter-%d").setDaemon(true).build());
+        try
+        {
+            final Map<String, CompletableFuture<Void>> initializations = new LinkedHashMap<>();
+            for (final Repository repository : repositories)
+            {
+                CompletableFuture<?>[] members = new CompletableFuture<?>[0];
+                if (repository.isGroupRepository())
+                {
+                    // The direct members only, as the initialization of a nested group waits for its own members.
+                    members = groupRepositorySetCollector.collect(repository, false)
+                                                         .stream()
+                                                         .map(r -> initializations.get(r.getStorageIdAndRepositoryId()))
+                                                         .filter(Objects::nonNull)
+                                                         .toArray(CompletableFuture<?>[]::new);
+                }
+
+                initializations.put(repository.getStorageIdAndRepositoryId(),
+                                    CompletableFuture.allOf(members)
+                                                     .thenRunAsync(() -> initializeRepositoryTimed(repository),
+                                                                   executorService));
+            }
+
+            CompletableFuture.allOf(initializations.values().toArray(new CompletableFuture<?>[0])).join();
+        }
+        catch (CompletionException e)
+        {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RepositoryInitializationException)
+            {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RepositoryManagementStrategyException)
+            {
+                throw (RepositoryManagementStrategyException) cause;
+            }
+
+            throw e;
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+
+        logger.info(" -> Initialized [{}] repositories in {} ms (parallelism: {}).",
+                    repositories.size(), System.currentTimeMillis() - startTime, parallelism);
+    }
+
+    private void initializeRepositoryTimed(final Repository repository)
+    {
+        final long startTime = System.currentTimeMillis();
+        try
+        {
+            initializeRepository(repository);
+        }
+        catch (IOException | RepositoryManagementStrategyException e)
+        {
+            logger.error("Failed to initialize {}.", repository.getStorageIdAndRepositoryId(), e);
+
+            throw new RepositoryInitializationException(e);
+        }
+
+        logger.info("  * Initialized {} in {} ms.",
+                    repository.getStorageIdAndRepositoryId(), System.currentTimeMillis() - startTime);
+    }
+
     private void initializeRepository(Repository repository)
             throws IOException, RepositoryManagementStrategyException
     {
@@ -147,15 +242,29 @@ public class StorageBooter
     {
         if (!repository.isGroupRepository())
         {
-            repositoriesHierarchy.putIfAbsent(repository.getId(), repository);
+            repositoriesHierarchy.putIfAbsent(repository.getStorageIdAndRepositoryId(), repository);
 
             return;
         }
 
-        groupRepositorySetCollector.collect(repository, true)
+        groupRepositorySetCollector.collect(repository, false)
                                    .stream().forEach(r -> addRepositoriesByChildrenFirst(repositoriesHierarchy, r));
 
-        repositoriesHierarchy.putIfAbsent(repository.getId(), repository);
+        repositoriesHierarchy.putIfAbsent(repository.getStorageIdAndRepositoryId(), repository);
+    }
+
+    /**
+     * Carries the checked exception of a repository initialization out of the pool.
+     */
+    private static class RepositoryInitializationException
+            extends RuntimeException
+    {
+
+        RepositoryInitializationException(Exception cause)
+        {
+            super(cause);
+        }
+
     }
 
     public RepositoryManagementService getRepositoryManagementService()
@@ -7,7 +7,16 @@ import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 import javax.inject.Inject;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -33,16 +42,78 @@ public class StorageApiConfig
     @Inject
     private List<ArtifactCoordinatesValidator> versionValidators;
 
-    @Bean
-    ChecksumCacheManager checksumCacheManager()
+    @Bean(destroyMethod = "stopMonitor")
+    ChecksumCacheManager checksumCacheManager(@Value("${strongbox.checksumCache.maxSize:100000}") long maxSize)
     {
         ChecksumCacheManager checksumCacheManager = new ChecksumCacheManager();
         checksumCacheManager.setCachedChecksumExpiredCheckInterval(300000);
         checksumCacheManager.setCachedChecksumLifetime(60000);
+        checksumCacheManager.setMaxSize(maxSize);
+        checksumCacheManager.bindMetrics(Metrics.globalRegistry);
+        checksumCacheManager.startMonitor();
 
         return checksumCacheManager;
     }
 
+    /**
+     * Runs the {@link org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler}-s (archive listing, last used
+     * time updates etc). Once the queue is full, the threads which publish the events wait for it, so that the events
+     * are neither dropped nor handled outside of the pool (the handlers need a new transaction context).
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService artifactEntryHandlerExecutor(@Value("${strongbox.artifactEntryHandler.threads:4}") int threads,
+                                                 @Value("${strongbox.artifactEntryHandler.queueSize:10000}") int queueSize)
+    {
+        return new ThreadPoolExecutor(threads,
+                                      threads,
+                                      0L,
+                                      TimeUnit.MILLISECONDS,
+                                      new LinkedBlockingQueue<>(queueSize),
+                                      new ThreadFactoryBuilder().setNameFormat("artifact-entry-handler-%d")
+                                                                .setDaemon(true)
+                                                                .build(),
+                                      (task, executor) -> {
+                                          if (executor.isShutdown())
+                                          {
+                                              throw new RejectedExecutionException("The executor has been shut down.");
+                                          }
+                                          try
+                                          {
+                                              executor.getQueue().put(task);
+                                          }
+                                          catch (InterruptedException e)
+                                          {
+                                              Thread.currentThread().interrupt();
+
+                                              throw new RejectedExecutionException(e);
+                                          }
+                                      });
+    }
+
+    /**
+     * Fetches the remote checksums of the artifacts which are being downloaded by the proxy repositories.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService remoteChecksumFetchExecutor(@Value("${strongbox.proxyRepository.checksumValidation.threads:8}") int threads)
+    {
+        return Executors.newFixedThreadPool(threads,
+                                            new ThreadFactoryBuilder().setNameFormat("remote-checksum-fetch-%d")
+                                                                      .setDaemon(true)
+                                                                      .build());
+    }
+
+    /**
+     * Downloads the byte ranges of the large artifacts which are being fetched by the proxy repositories.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService remoteRangedDownloadExecutor(@Value("${strongbox.proxyRepository.rangedDownload.threads:16}") int threads)
+    {
+        return Executors.newFixedThreadPool(threads,
+                                            new ThreadFactoryBuilder().setNameFormat("remote-ranged-download-%d")
+                                                                      .setDaemon(true)
+                                                                      .build());
+    }
+
     @Bean
     LinkedHashSet<ArtifactCoordinatesValidator> versionValidators()
     {
@@ -0,0 +1,43 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributesCache;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import javax.inject.Inject;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the {@link RepositoryFileAttributesCache} entries of the paths which have been written, deleted or moved.
+ */
+@Component
+public class RepositoryFileAttributesCacheEventListener
+{
+
+    @Inject
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        int type = event.getType();
+        if (type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+            type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+        {
+            repositoryFileAttributesCache.invalidate(event.getPath());
+        }
+        else if (type == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType() ||
+                 type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED.getType())
+        {
+            // A whole directory could have been deleted or moved.
+            repositoryFileAttributesCache.invalidateTree(event.getPath());
+        }
+
+        if (event.getTargetPath() != null)
+        {
+            repositoryFileAttributesCache.invalidateTree(event.getTargetPath());
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
@@ -114,4 +115,13 @@ public abstract class LayoutFileSystem
 
     public abstract Set<String> getDigestAlgorithmSet();
 
+    /**
+     * @return the digest algorithms of the checksum files which the remote repositories of the layout publish
+     * next to the artifacts; the artifacts fetched from a proxy repository are validated against them
+     */
+    public Set<String> getRemoteChecksumAlgorithmSet()
+    {
+        return Collections.emptySet();
+    }
+
 }
@@ -2,6 +2,8 @@ package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
@@ -10,6 +12,12 @@ import java.util.Map;
 
 import static org.carlspring.strongbox.providers.io.RepositoryFileAttributeType.*;
 
+/**
+ * The basic file attributes together with the strongbox specific ones.
+ * <p>
+ * When created with an {@link AttributeResolver}, the strongbox attributes are only resolved once they're
+ * requested, as some of them are expensive to calculate (coordinates, resource URL etc).
+ */
 public class RepositoryFileAttributes
         implements BasicFileAttributes
 {
@@ -18,6 +26,8 @@ public class RepositoryFileAttributes
 
     private Map<RepositoryFileAttributeType, Object> attributes = new HashMap<>();
 
+    private AttributeResolver attributeResolver;
+
     public RepositoryFileAttributes(BasicFileAttributes basicAttributes)
     {
         super();
@@ -32,6 +42,35 @@ public class RepositoryFileAttributes
         this.attributes = attributes;
     }
 
+    public RepositoryFileAttributes(BasicFileAttributes basicAttributes,
+                                    AttributeResolver attributeResolver)
+    {
+        super();
+        this.basicAttributes = basicAttributes;
+        this.attributeResolver = attributeResolver;
+    }
+
+    private Object get(RepositoryFileAttributeType attributeType)
+    {
+        if (attributes.containsKey(attributeType) || attributeResolver == null)
+        {
+            return attributes.get(attributeType);
+        }
+
+        Object value;
+        try
+        {
+            value = attributeResolver.resolve(attributeType);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        attributes.put(attributeType, value);
+
+        return value;
+    }
+
     public FileTime lastModifiedTime()
     {
         return basicAttributes.lastModifiedTime();
@@ -79,7 +118,7 @@ public class RepositoryFileAttributes
 
     public ArtifactCoordinates getCoordinates()
     {
-        return (ArtifactCoordinates) attributes.get(COORDINATES);
+        return (ArtifactCoordinates) get(COORDINATES);
     }
 
     protected void setCoordinates(ArtifactCoordinates coordinates)
@@ -89,7 +128,7 @@ public class RepositoryFileAttributes
 
     public boolean isMetadata()
     {
-        return Boolean.TRUE.equals(attributes.get(METADATA));
+        return Boolean.TRUE.equals(get(METADATA));
     }
 
     protected void setMetadata(boolean isMetadata)
@@ -99,7 +138,7 @@ public class RepositoryFileAttributes
 
     public boolean isChecksum()
     {
-        return Boolean.TRUE.equals(attributes.get(CHECKSUM));
+        return Boolean.TRUE.equals(get(CHECKSUM));
     }
 
     protected void setChecksum(boolean isChecksum)
@@ -109,7 +148,7 @@ public class RepositoryFileAttributes
 
     public boolean isTrash()
     {
-        return Boolean.TRUE.equals(attributes.get(TRASH));
+        return Boolean.TRUE.equals(get(TRASH));
     }
 
     protected void setTrash(boolean isTrash)
@@ -119,7 +158,7 @@ public class RepositoryFileAttributes
 
     public boolean isTemp()
     {
-        return Boolean.TRUE.equals(attributes.get(TEMP));
+        return Boolean.TRUE.equals(get(TEMP));
     }
 
     protected void setTemp(boolean isTemp)
@@ -129,7 +168,7 @@ public class RepositoryFileAttributes
 
     public boolean isArtifact()
     {
-        return Boolean.TRUE.equals(attributes.get(ARTIFACT));
+        return Boolean.TRUE.equals(get(ARTIFACT));
     }
 
     protected void setArtifact(boolean isArtifact)
@@ -139,12 +178,12 @@ public class RepositoryFileAttributes
 
     public boolean hasExpired()
     {
-        return Boolean.TRUE.equals(attributes.get(EXPIRED));
+        return Boolean.TRUE.equals(get(EXPIRED));
     }
 
     public boolean getResourceUrl()
     {
-        return Boolean.TRUE.equals(attributes.get(RESOURCE_URL));
+        return Boolean.TRUE.equals(get(RESOURCE_URL));
     }
 
     protected void setResourceUrl(URL url)
@@ -154,7 +193,7 @@ public class RepositoryFileAttributes
 
     public boolean getArtifactPath()
     {
-        return Boolean.TRUE.equals(attributes.get(ARTIFACT_PATH));
+        return Boolean.TRUE.equals(get(ARTIFACT_PATH));
     }
 
     protected void setArtifactPath(String path)
@@ -164,7 +203,7 @@ public class RepositoryFileAttributes
 
     public String getStorageId()
     {
-        return (String) attributes.get(STORAGE_ID);
+        return (String) get(STORAGE_ID);
     }
 
     protected void setStorageId(String id)
@@ -174,7 +213,7 @@ public class RepositoryFileAttributes
 
     public String getRepositoryId()
     {
-        return (String) attributes.get(REPOSITORY_ID);
+        return (String) get(REPOSITORY_ID);
     }
 
     public void setRepositoryId(String id)
@@ -182,4 +221,13 @@ public class RepositoryFileAttributes
         attributes.put(REPOSITORY_ID, id);
     }
 
+    @FunctionalInterface
+    public interface AttributeResolver
+    {
+
+        Object resolve(RepositoryFileAttributeType attributeType)
+                throws IOException;
+
+    }
+
 }
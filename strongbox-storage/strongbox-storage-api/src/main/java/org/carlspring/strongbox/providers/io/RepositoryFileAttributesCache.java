@@ -0,0 +1,180 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of the resolved {@link RepositoryFileAttributeType} values, shared between all the
+ * {@link RepositoryPath} instances which point to the same file.
+ * <p>
+ * Only the attributes which are derived from the path itself (and from whether it's a directory) are
+ * cached. {@link RepositoryFileAttributeType#EXPIRED} depends on the time of the check and
+ * {@link RepositoryFileAttributeType#RESOURCE_URL} depends on the configured base URL, so these are always
+ * resolved. The {@link RepositoryFileAttributeType#COORDINATES} are mutable, so a copy of them is cached and
+ * every caller gets its own copy.
+ * <p>
+ * The entries are invalidated by the artifact events (see
+ * {@link org.carlspring.strongbox.event.artifact.RepositoryFileAttributesCacheEventListener}). The cached paths
+ * are also kept sorted, so that a directory tree is invalidated without going over all the entries.
+ */
+@Component
+public class RepositoryFileAttributesCache
+{
+
+    private static final Set<RepositoryFileAttributeType> CACHEABLE_ATTRIBUTES = Collections.unmodifiableSet(
+            EnumSet.complementOf(EnumSet.of(RepositoryFileAttributeType.EXPIRED,
+                                            RepositoryFileAttributeType.RESOURCE_URL)));
+
+    private final Cache<String, Map<RepositoryFileAttributeType, Object>> cache;
+
+    /**
+     * The keys of the cache, in order, so that the keys below a directory form a range.
+     */
+    private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+
+
+    public RepositoryFileAttributesCache(@Value("${strongbox.repositoryFileAttributesCache.maxSize:50000}") long maxSize)
+    {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).removalListener(this::onRemoval).build();
+    }
+
+    public static boolean isCacheable(RepositoryFileAttributeType attributeType)
+    {
+        return CACHEABLE_ATTRIBUTES.contains(attributeType);
+    }
+
+    /**
+     * @return the cached attributes of the path, or an empty map if none of them are cached
+     */
+    public Map<RepositoryFileAttributeType, Object> get(RepositoryPath path)
+    {
+        if (!path.isAbsolute())
+        {
+            return Collections.emptyMap();
+        }
+
+        Map<RepositoryFileAttributeType, Object> attributes = cache.getIfPresent(toKey(path));
+        if (attributes == null)
+        {
+            return Collections.emptyMap();
+        }
+        if (!attributes.containsKey(RepositoryFileAttributeType.COORDINATES))
+        {
+            return attributes;
+        }
+
+        Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(attributes);
+        result.put(RepositoryFileAttributeType.COORDINATES,
+                   copy((ArtifactCoordinates) attributes.get(RepositoryFileAttributeType.COORDINATES)));
+
+        return result;
+    }
+
+    /**
+     * Caches the {@link #isCacheable(RepositoryFileAttributeType) cacheable} attributes of the path, in
+     * addition to the ones which are already cached.
+     */
+    public void put(RepositoryPath path,
+                    Map<RepositoryFileAttributeType, Object> attributes)
+    {
+        if (!path.isAbsolute())
+        {
+            return;
+        }
+
+        Map<RepositoryFileAttributeType, Object> cacheable = new EnumMap<>(RepositoryFileAttributeType.class);
+        attributes.entrySet()
+                  .stream()
+                  .filter(e -> isCacheable(e.getKey()) && e.getValue() != null)
+                  .forEach(e -> cacheable.put(e.getKey(), e.getValue()));
+
+        if (cacheable.isEmpty())
+        {
+            return;
+        }
+
+        // The caller keeps the coordinates which it has been given.
+        cacheable.computeIfPresent(RepositoryFileAttributeType.COORDINATES,
+                                   (t, coordinates) -> copy((ArtifactCoordinates) coordinates));
+
+        // The cached maps are never modified, so that they can be read without locking.
+        String key = toKey(path);
+        cache.asMap().merge(key, Collections.unmodifiableMap(cacheable), (previous, added) -> {
+            Map<RepositoryFileAttributeType, Object> merged = new EnumMap<>(previous);
+            merged.putAll(added);
+
+            return Collections.unmodifiableMap(merged);
+        });
+        // Added after the entry, so that a concurrent removal of the same key can't leave the entry out of the keys.
+        keys.add(key);
+    }
+
+    public void invalidate(RepositoryPath path)
+    {
+        cache.invalidate(toKey(path.toAbsolutePath()));
+    }
+
+    /**
+     * Invalidates the path together with everything below it.
+     */
+    public void invalidateTree(RepositoryPath path)
+    {
+        String key = toKey(path.toAbsolutePath());
+        String separator = path.getFileSystem().getSeparator();
+        String prefix = key.endsWith(separator) ? key : key + separator;
+
+        cache.invalidate(key);
+        for (String k : keys.subSet(prefix, true, prefix + Character.MAX_VALUE, false))
+        {
+            cache.invalidate(k);
+        }
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+        keys.clear();
+    }
+
+    private void onRemoval(RemovalNotification<String, Map<RepositoryFileAttributeType, Object>> notification)
+    {
+        if (notification.getCause() == RemovalCause.REPLACED)
+        {
+            return;
+        }
+
+        String key = notification.getKey();
+        keys.remove(key);
+        // The entry may have been put again in the meantime.
+        if (cache.asMap().containsKey(key))
+        {
+            keys.add(key);
+        }
+    }
+
+    private static ArtifactCoordinates copy(ArtifactCoordinates coordinates)
+    {
+        return SerializationUtils.clone(coordinates);
+    }
+
+    private static String toKey(RepositoryPath path)
+    {
+        return path.normalize().toString();
+    }
+
+}
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.util.Arrays;
@@ -146,6 +147,19 @@ public abstract class RepositoryFiles
         return TempRepositoryPath.of(p);
     }
     
+    /**
+     * @return a file next to the {@link #temporary(RepositoryPath) temporary path} of the path, which is written
+     * directly rather than through the layout (e.g. the parts of a download)
+     */
+    public static Path temporaryFile(RepositoryPath p,
+                                     String suffix)
+        throws IOException
+    {
+        TempRepositoryPath temp = temporary(p);
+
+        return temp.getTarget().resolveSibling(temp.getTarget().getFileName().toString() + suffix);
+    }
+
     public static RepositoryPath trash(RepositoryPath p)
         throws IOException
     {
@@ -202,6 +216,12 @@ public abstract class RepositoryFiles
         repositoryPath.getFileSystem().provider().deleteTrash(repositoryPath);
     }
     
+    public static void deleteFromTrash(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        repositoryPath.getFileSystem().provider().deleteFromTrash(repositoryPath);
+    }
+
     public static void undeleteTrash(RepositoryPath repositoryPath)
         throws IOException
     {
@@ -50,7 +50,7 @@ public class RepositoryPathLock
                                   .orElseGet(() -> lock.toString());
         logger.debug("Get lock for [{}]", lock);
         
-        return lockService.getReentrantReadWriteLock(lockName);
+        return new TimedReadWriteLock(lockService.getReentrantReadWriteLock(lockName));
     }
 
     private URI getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
@@ -5,6 +5,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -23,7 +24,14 @@ import org.carlspring.strongbox.io.StreamUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
 /**
+ * The opening of a stream includes waiting for the lock of its path, so the {@code strongbox.storage.stream.open}
+ * timer shows the contention on the paths, and the {@code strongbox.storage.stream.close} timer the time spent on
+ * committing the written artifacts.
+ *
  * @author sbespalov
  *
  */
@@ -32,6 +40,14 @@ public class RepositoryStreamSupport
     
     private static final Logger logger = LoggerFactory.getLogger(RepositoryStreamSupport.class);
 
+    private static final Timer READ_OPEN_TIMER = streamTimer("open", "read");
+
+    private static final Timer READ_CLOSE_TIMER = streamTimer("close", "read");
+
+    private static final Timer WRITE_OPEN_TIMER = streamTimer("open", "write");
+
+    private static final Timer WRITE_CLOSE_TIMER = streamTimer("close", "write");
+
     private RepositoryStreamContext ctx = new RepositoryStreamContext();
 
     protected final ReadWriteLock lockSource;
@@ -104,6 +120,15 @@ public class RepositoryStreamSupport
         callback.commit((RepositoryStreamWriteContext) getContext());
     }
 
+    private static Timer streamTimer(String operation,
+                                     String type)
+    {
+        return Timer.builder("strongbox.storage.stream." + operation)
+                    .description("Time to " + operation + " the repository streams")
+                    .tag("type", type)
+                    .register(Metrics.globalRegistry);
+    }
+
     public class RepositoryOutputStream extends ProxyOutputStream
     {
         protected RepositoryOutputStream(Path path,
@@ -116,6 +141,7 @@ public class RepositoryStreamSupport
             ctx.setPath(path);
             initContext(ctx);
             
+            long start = System.nanoTime();
             try
             {
                 open();
@@ -128,6 +154,7 @@ public class RepositoryStreamSupport
                 close();
                 throw new IOException(e);
             }
+            WRITE_OPEN_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
         
         @Override
@@ -159,6 +186,7 @@ public class RepositoryStreamSupport
         public void close()
             throws IOException
         {
+            long start = System.nanoTime();
             try
             {
                 super.close();
@@ -176,6 +204,7 @@ public class RepositoryStreamSupport
             finally
             {
                 RepositoryStreamSupport.this.close();
+                WRITE_CLOSE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
         }
 
@@ -195,6 +224,7 @@ public class RepositoryStreamSupport
             ctx.setStream(this);
             initContext(ctx);
             
+            long start = System.nanoTime();
             try
             {
                 open();
@@ -215,6 +245,15 @@ public class RepositoryStreamSupport
                 close();
                 throw new IOException(e);
             }
+            READ_OPEN_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return the path which is read, while the stream (and so the read lock) is open
+         */
+        public RepositoryPath getPath()
+        {
+            return (RepositoryPath) getContext().getPath();
         }
 
         @Override
@@ -231,6 +270,7 @@ public class RepositoryStreamSupport
         public void close()
             throws IOException
         {
+            long start = System.nanoTime();
             try
             {
                 super.close();
@@ -242,6 +282,7 @@ public class RepositoryStreamSupport
             finally
             {
                 RepositoryStreamSupport.this.close();
+                READ_CLOSE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
         }
 
@@ -401,6 +401,27 @@ public abstract class StorageFileSystemProvider
         }
     }
 
+    /**
+     * Removes the copy of a file (along with its checksums) which has been moved to the trash, so that it can't be
+     * restored.
+     */
+    public void deleteFromTrash(RepositoryPath path)
+        throws IOException
+    {
+        Repository repository = path.getFileSystem().getRepository();
+        if (!repository.isTrashEnabled())
+        {
+            return;
+        }
+
+        RepositoryPath trashPath = getTrashPath(path);
+        Files.deleteIfExists(trashPath.getTarget());
+        for (RepositoryPath checksumPath : resolveChecksumPathMap(trashPath).values())
+        {
+            Files.deleteIfExists(checksumPath.getTarget());
+        }
+    }
+
     protected RepositoryPath getTrashPath(RepositoryPath path)
         throws IOException
     {
@@ -459,6 +480,33 @@ public abstract class StorageFileSystemProvider
         getTarget().copy(unwrap(source), unwrap(target), options);
     }
 
+    /**
+     * Copies the file within the storage through its {@link FileSystemProvider}, which may share the content of the
+     * copies rather than duplicate it. Like a written file, the copy is made in the temporary directory first.
+     */
+    public void copyFile(RepositoryPath source,
+                         RepositoryPath target)
+        throws IOException
+    {
+        TempRepositoryPath temp = RepositoryFiles.temporary(target);
+        if (!unwrap(source).getFileSystem().equals(unwrap(temp).getFileSystem()))
+        {
+            Files.copy(source, target);
+
+            return;
+        }
+
+        try
+        {
+            getTarget().copy(unwrap(source), unwrap(temp), StandardCopyOption.REPLACE_EXISTING);
+            moveFromTemporaryDirectory(temp);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp.getTarget());
+        }
+    }
+
     public void move(Path source,
                      Path target,
                      CopyOption... options)
@@ -518,10 +566,11 @@ public abstract class StorageFileSystemProvider
             return (A) targetAttributes;
         }
 
+        // The strongbox attributes are resolved on demand, each one at most once for this attributes instance, as most
+        // callers need only a few of them
+        RepositoryPath repositoryPath = (RepositoryPath) path;
         RepositoryFileAttributes repositoryFileAttributes = new RepositoryFileAttributes(targetAttributes,
-                getRepositoryFileAttributes((RepositoryPath) path,
-                                            RepositoryFiles.parseAttributes("*")
-                                                           .toArray(new RepositoryFileAttributeType[] {})));
+                t -> readAttributes(repositoryPath, RepositoryFiles.formatAttributes(t)).get(t.getName()));
 
         return (A) repositoryFileAttributes;
     }
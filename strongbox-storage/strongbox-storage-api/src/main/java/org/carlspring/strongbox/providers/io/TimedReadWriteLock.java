@@ -0,0 +1,167 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records how long the {@link RepositoryPathLock}-s are waited for and held.
+ * <p>
+ * A new instance wraps the lock for each {@link RepositoryPathLock#lock(RepositoryPath, String)} call, so the hold
+ * time is tracked per instance: from the first acquisition of the lock to its last release.
+ */
+class TimedReadWriteLock
+        implements ReadWriteLock
+{
+
+    private static final Timer READ_WAIT_TIMER = lockTimer("wait", "read");
+
+    private static final Timer READ_HOLD_TIMER = lockTimer("hold", "read");
+
+    private static final Timer WRITE_WAIT_TIMER = lockTimer("wait", "write");
+
+    private static final Timer WRITE_HOLD_TIMER = lockTimer("hold", "write");
+
+    private final Lock readLock;
+
+    private final Lock writeLock;
+
+    TimedReadWriteLock(ReadWriteLock delegate)
+    {
+        this.readLock = new TimedLock(delegate.readLock(), READ_WAIT_TIMER, READ_HOLD_TIMER);
+        this.writeLock = new TimedLock(delegate.writeLock(), WRITE_WAIT_TIMER, WRITE_HOLD_TIMER);
+    }
+
+    @Override
+    public Lock readLock()
+    {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock()
+    {
+        return writeLock;
+    }
+
+    private static Timer lockTimer(String operation,
+                                   String mode)
+    {
+        return Timer.builder("strongbox.storage.lock." + operation)
+                    .description("Time the repository path locks are " + (operation.equals("wait") ? "waited for" :
+                                                                           "held"))
+                    .tag("mode", mode)
+                    .register(Metrics.globalRegistry);
+    }
+
+    private static class TimedLock
+            implements Lock
+    {
+
+        private final Lock delegate;
+
+        private final Timer waitTimer;
+
+        private final Timer holdTimer;
+
+        private int holdCount;
+
+        private long heldSince;
+
+        TimedLock(Lock delegate,
+                  Timer waitTimer,
+                  Timer holdTimer)
+        {
+            this.delegate = delegate;
+            this.waitTimer = waitTimer;
+            this.holdTimer = holdTimer;
+        }
+
+        @Override
+        public void lock()
+        {
+            long start = System.nanoTime();
+            delegate.lock();
+            acquired(start);
+        }
+
+        @Override
+        public void lockInterruptibly()
+                throws InterruptedException
+        {
+            long start = System.nanoTime();
+            delegate.lockInterruptibly();
+            acquired(start);
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            long start = System.nanoTime();
+            if (!delegate.tryLock())
+            {
+                return false;
+            }
+
+            acquired(start);
+
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+                throws InterruptedException
+        {
+            long start = System.nanoTime();
+            if (!delegate.tryLock(time, unit))
+            {
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+                return false;
+            }
+
+            acquired(start);
+
+            return true;
+        }
+
+        private synchronized void acquired(long start)
+        {
+            long now = System.nanoTime();
+            waitTimer.record(now - start, TimeUnit.NANOSECONDS);
+
+            if (holdCount++ == 0)
+            {
+                heldSince = now;
+            }
+        }
+
+        @Override
+        public void unlock()
+        {
+            delegate.unlock();
+            released();
+        }
+
+        private synchronized void released()
+        {
+            if (holdCount > 0 && --holdCount == 0)
+            {
+                holdTimer.record(System.nanoTime() - heldSince, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            return delegate.newCondition();
+        }
+
+    }
+
+}
@@ -8,8 +8,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
@@ -37,6 +35,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
@@ -57,6 +56,22 @@ public abstract class AbstractLayoutProvider<T extends ArtifactCoordinates>
             )
     );
 
+    private static final Set<String> DIGEST_ALGORITHM_SET = ImmutableSet.of(MessageDigestAlgorithms.MD5,
+                                                                            MessageDigestAlgorithms.SHA_1);
+
+    /**
+     * The checksum file extensions (like {@code .sha1}) by digest algorithm.
+     */
+    private static final Map<String, String> CHECKSUM_EXTENSIONS = Maps.toMap(
+            ImmutableSet.of(MessageDigestAlgorithms.MD2,
+                            MessageDigestAlgorithms.MD5,
+                            MessageDigestAlgorithms.SHA_1,
+                            MessageDigestAlgorithms.SHA_224,
+                            MessageDigestAlgorithms.SHA_256,
+                            MessageDigestAlgorithms.SHA_384,
+                            MessageDigestAlgorithms.SHA_512),
+            AbstractLayoutProvider::toChecksumExtension);
+
     @Inject
     private ConfigurationManager configurationManager;
 
@@ -74,8 +89,7 @@ public abstract class AbstractLayoutProvider<T extends ArtifactCoordinates>
 
     protected Set<String> getDigestAlgorithmSet()
     {
-        return Stream.of(MessageDigestAlgorithms.MD5, MessageDigestAlgorithms.SHA_1)
-                     .collect(Collectors.toSet());
+        return DIGEST_ALGORITHM_SET;
     }
 
     public boolean isChecksum(RepositoryPath repositoryPath)
@@ -87,7 +101,8 @@ public abstract class AbstractLayoutProvider<T extends ArtifactCoordinates>
     {
         for (String e : getDigestAlgorithmSet())
         {
-            if (fileName.toString().endsWith("." + e.replaceAll("-", "").toLowerCase()))
+            String extension = CHECKSUM_EXTENSIONS.get(e);
+            if (fileName.endsWith(extension != null ? extension : toChecksumExtension(e)))
             {
                 return true;
             }
@@ -96,6 +111,11 @@ public abstract class AbstractLayoutProvider<T extends ArtifactCoordinates>
         return false;
     }
 
+    private static String toChecksumExtension(String algorithm)
+    {
+        return "." + algorithm.replace("-", "").toLowerCase();
+    }
+
 
     protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryPath,
                                                                                    RepositoryFileAttributeType... attributeTypes)
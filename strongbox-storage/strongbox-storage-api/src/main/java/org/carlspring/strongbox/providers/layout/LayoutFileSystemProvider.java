@@ -13,6 +13,7 @@ import org.carlspring.strongbox.io.LazyOutputStream;
 import org.carlspring.strongbox.io.LazyOutputStream.OutputStreamSupplier;
 import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributesCache;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
@@ -30,10 +31,16 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +58,8 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutFileSystemProvider.class);
 
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
     @Inject
     private ArtifactEventListenerRegistry artifactEventListenerRegistry;
     
@@ -60,6 +69,9 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
 
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -174,33 +186,45 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         return result;
     }
     
-    public void storeChecksum(RepositoryPath basePath,
-                              boolean forceRegeneration)
+    /**
+     * Writes the checksums of all the files under the given path.
+     *
+     * @return {@code false} if the checksums of some of the files could not be written
+     */
+    public boolean storeChecksum(RepositoryPath basePath,
+                                 boolean forceRegeneration)
             throws IOException
     {
-        Files.walk(basePath)
-             .filter(p -> !Files.isDirectory(p))
-             .filter(p -> {
-                 try
-                 {
-                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error("Failed to read attributes for [{}]", p, e);
-                 }
-                 return false;
-             })
-             .forEach(p -> {
-                 try
-                 {
-                     writeChecksum((RepositoryPath) p, forceRegeneration);
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error("Failed to write checksum for [{}]", p, e);
-                 }
-             });
+        AtomicBoolean succeeded = new AtomicBoolean(true);
+        try (Stream<Path> pathStream = Files.walk(basePath))
+        {
+            pathStream.filter(p -> !Files.isDirectory(p))
+                      .filter(p -> {
+                          try
+                          {
+                              return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
+                          }
+                          catch (IOException e)
+                          {
+                              logger.error("Failed to read attributes for [{}]", p, e);
+                              succeeded.set(false);
+                          }
+                          return false;
+                      })
+                      .forEach(p -> {
+                          try
+                          {
+                              writeChecksum((RepositoryPath) p, forceRegeneration);
+                          }
+                          catch (IOException e)
+                          {
+                              logger.error("Failed to write checksum for [{}]", p, e);
+                              succeeded.set(false);
+                          }
+                      });
+        }
+
+        return succeeded.get();
     }
 
     
@@ -208,14 +232,20 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                  boolean force)
             throws IOException
     {
+        Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
+        if (!force && digestAlgorithmSet.stream().allMatch(p -> Files.exists(getChecksumPath(path, p))))
+        {
+            // Nothing to write, so there is no need to read the file either
+            return;
+        }
+
         try (InputStream is = newInputStream(path))
         {
-            byte[] buffer = new byte[1024];
-            while (is.read(buffer) > 0)
+            byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+            while (is.read(buffer) != -1)
             {
                 //calculate checksum while reading the stream
             }
-            Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
             digestAlgorithmSet.stream()
                               .forEach(p ->
                                        {
@@ -345,7 +375,47 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                                                                    RepositoryFileAttributeType... attributeTypes)
             throws IOException
     {
-        return getLayoutProvider().getRepositoryFileAttributes(repositoryRelativePath, attributeTypes);
+        if (attributeTypes == null || attributeTypes.length == 0)
+        {
+            return Collections.emptyMap();
+        }
+
+        Map<RepositoryFileAttributeType, Object> cached = repositoryFileAttributesCache.get(repositoryRelativePath);
+
+        Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+        List<RepositoryFileAttributeType> missing = new ArrayList<>();
+        for (RepositoryFileAttributeType attributeType : attributeTypes)
+        {
+            Object value = cached.get(attributeType);
+            if (value != null)
+            {
+                result.put(attributeType, value);
+            }
+            else
+            {
+                missing.add(attributeType);
+            }
+        }
+
+        if (missing.isEmpty())
+        {
+            return result;
+        }
+
+        Map<RepositoryFileAttributeType, Object> resolved = getLayoutProvider().getRepositoryFileAttributes(
+                repositoryRelativePath, missing.toArray(new RepositoryFileAttributeType[0]));
+        result.putAll(resolved);
+
+        // Whether a path is an artifact also depends on it being a directory, which is only known once it exists.
+        if (resolved.containsKey(RepositoryFileAttributeType.ARTIFACT) && !Files.exists(repositoryRelativePath))
+        {
+            resolved = new HashMap<>(resolved);
+            resolved.remove(RepositoryFileAttributeType.ARTIFACT);
+            resolved.remove(RepositoryFileAttributeType.COORDINATES);
+        }
+        repositoryFileAttributesCache.put(repositoryRelativePath, resolved);
+
+        return result;
     }
     
     protected void deleteMetadata(RepositoryPath repositoryPath)
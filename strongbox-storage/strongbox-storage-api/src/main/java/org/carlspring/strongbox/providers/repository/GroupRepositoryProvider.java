@@ -304,7 +304,7 @@ public class GroupRepositoryProvider
                                    .forEach(r -> p.or(createPredicate(r.getStorage().getId(), r.getId(), predicate)));
 
         Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
-        selector.select("count(distinct(artifactCoordinates))").where(p);
+        selector.select("count(distinct(artifactCoordinates))").named("countGroup").where(p);
 
         QueryTemplate<Long, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
 
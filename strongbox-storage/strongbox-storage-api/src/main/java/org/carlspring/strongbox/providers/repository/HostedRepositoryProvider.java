@@ -93,7 +93,9 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
         Storage storage = configurationManager.getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
         
-        Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).with(paginator).fetch();
+        Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).with(paginator)
+                                                                                            .named("searchHosted")
+                                                                                            .fetch();
         
         QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(entityManager);
         
@@ -122,7 +124,8 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
                       String repositoryId,
                       Predicate predicate)
     {
-        Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).select("count(*)");
+        Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).select("count(*)")
+                                                                                            .named("countHosted");
 
         QueryTemplate<Long, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
 
@@ -2,6 +2,7 @@ package org.carlspring.strongbox.providers.repository.proxied;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -15,17 +16,33 @@ import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteReposi
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
+ * Removes the locally cached artifacts of proxy repositories.
+ * <p>
+ * The candidates are read repository by repository, in keyset-paged chunks, each chunk in a short read-only
+ * transaction; the artifacts of a chunk are then deleted in parallel, every deletion in its own transaction.
+ * Besides the expired artifacts, the least recently used artifacts of a repository can be evicted until the
+ * repository fits within a size quota.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -49,74 +66,282 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
     @Inject
     private ArtifactManagementService artifactManagementService;
 
-    @Transactional(rollbackFor = Exception.class)
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.proxyRepositoryCleanup.chunkSize:500}")
+    private int chunkSize;
+
+    @Value("${strongbox.proxyRepositoryCleanup.parallelism:4}")
+    private int parallelism;
+
     public void cleanup(final Integer lastAccessedTimeInDays,
                         final Long minSizeInBytes)
             throws IOException
     {
-        final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
-                                                                   .withLastAccessedTimeInDays(lastAccessedTimeInDays)
-                                                                   .withMinSizeInBytes(minSizeInBytes)
-                                                                   .build();
-
-        final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
-                                                                                      PagingCriteria.ALL);
-        filterAccessibleProxiedArtifacts(artifactEntries);
+        cleanup(lastAccessedTimeInDays, minSizeInBytes, null);
+    }
 
-        if (CollectionUtils.isEmpty(artifactEntries))
+    /**
+     * @param lastAccessedTimeInDays   the artifacts which haven't been used for this many days are removed
+     * @param minSizeInBytes           only the artifacts of at least this size are considered expired
+     * @param maxRepositorySizeInBytes if set, the least recently used artifacts of every proxy repository are
+     *                                 removed until the repository doesn't exceed this size
+     */
+    public void cleanup(final Integer lastAccessedTimeInDays,
+                        final Long minSizeInBytes,
+                        final Long maxRepositorySizeInBytes)
+            throws IOException
+    {
+        final List<Repository> repositories = getCleanableRepositories();
+        if (repositories.isEmpty())
         {
             return;
         }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromStorage(artifactEntries);
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try
+        {
+            for (final Repository repository : repositories)
+            {
+                cleanupExpired(executorService, repository, lastAccessedTimeInDays, minSizeInBytes);
+
+                if (maxRepositorySizeInBytes != null && maxRepositorySizeInBytes >= 0)
+                {
+                    cleanupExceedingQuota(executorService, repository, maxRepositorySizeInBytes);
+                }
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+    }
+
+    private void cleanupExpired(final ExecutorService executorService,
+                                final Repository repository,
+                                final Integer lastAccessedTimeInDays,
+                                final Long minSizeInBytes)
+            throws IOException
+    {
+        final PagingCriteria pagingCriteria = new PagingCriteria(0, chunkSize, Sort.byUuid());
+
+        String afterUuid = null;
+        List<Candidate> chunk;
+        do
+        {
+            final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                       .withLastAccessedTimeInDays(lastAccessedTimeInDays)
+                                                                       .withMinSizeInBytes(minSizeInBytes)
+                                                                       .withStorageId(repository.getStorage().getId())
+                                                                       .withRepositoryId(repository.getId())
+                                                                       .withAfterUuid(afterUuid)
+                                                                       .build();
+
+            chunk = findCandidates(searchCriteria, pagingCriteria);
+            if (chunk.isEmpty())
+            {
+                break;
+            }
+
+            logger.debug("Cleaning [{}] expired artifacts of [{}].", chunk.size(), repository.getId());
+            deleteFromStorage(executorService, repository, chunk);
+
+            afterUuid = chunk.get(chunk.size() - 1).uuid;
+        }
+        while (chunk.size() == chunkSize);
     }
 
-    private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
+    private void cleanupExceedingQuota(final ExecutorService executorService,
+                                       final Repository repository,
+                                       final long maxRepositorySizeInBytes)
+            throws IOException
     {
-        if (CollectionUtils.isEmpty(artifactEntries))
+        final String storageId = repository.getStorage().getId();
+
+        long excessInBytes = inTransaction(() -> artifactEntryService.sumSizeInBytes(storageId, repository.getId())) -
+                             maxRepositorySizeInBytes;
+        if (excessInBytes <= 0)
         {
             return;
         }
-        for (final Iterator<ArtifactEntry> it = artifactEntries.iterator(); it.hasNext(); )
+
+        logger.info("Proxy repository [{}:{}] exceeds its size quota by [{}] bytes.",
+                    storageId, repository.getId(), excessInBytes);
+
+        final PagingCriteria pagingCriteria = new PagingCriteria(0,
+                                                                 chunkSize,
+                                                                 Sort.by(Sort.Order.asc("lastUsed"),
+                                                                         Sort.Order.asc("uuid")));
+
+        // Starting after the epoch also leaves out the entries which have never been used.
+        Date afterLastUsed = new Date(0);
+        String afterUuid = "";
+        List<Candidate> chunk;
+        List<Candidate> evicted;
+        do
         {
-            final ArtifactEntry artifactEntry = it.next();
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            if (!repository.isProxyRepository())
-            {
-                it.remove();
-                continue;
-            }
-            final RemoteRepository remoteRepository = repository.getRemoteRepository();
-            if (remoteRepository == null)
+            final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                       .withStorageId(storageId)
+                                                                       .withRepositoryId(repository.getId())
+                                                                       .withAfterLastUsed(afterLastUsed)
+                                                                       .withAfterUuid(afterUuid)
+                                                                       .build();
+
+            chunk = findCandidates(searchCriteria, pagingCriteria);
+            if (chunk.isEmpty())
             {
-                logger.warn("Repository {} is not associated with remote repository", repository.getId());
-                it.remove();
-                continue;
+                break;
             }
-            if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+
+            // Only evict as much as is needed to fit within the quota.
+            evicted = new ArrayList<>();
+            long evictedSizeInBytes = 0;
+            for (final Candidate candidate : chunk)
             {
-                logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
-                it.remove();
-                continue;
+                if (evictedSizeInBytes >= excessInBytes)
+                {
+                    break;
+                }
+
+                evicted.add(candidate);
+                evictedSizeInBytes += candidate.sizeInBytes;
             }
+
+            logger.debug("Evicting [{}] least recently used artifacts of [{}].", evicted.size(), repository.getId());
+            excessInBytes -= deleteFromStorage(executorService, repository, evicted);
+
+            // The next chunk starts after the last evicted candidate, so that the candidates which have been left
+            // out are reconsidered if some of the deletions have failed.
+            afterLastUsed = evicted.get(evicted.size() - 1).lastUsed;
+            afterUuid = evicted.get(evicted.size() - 1).uuid;
         }
+        while (excessInBytes > 0 && (evicted.size() < chunk.size() || chunk.size() == chunkSize));
+    }
 
+    private List<Candidate> findCandidates(final ArtifactEntrySearchCriteria searchCriteria,
+                                           final PagingCriteria pagingCriteria)
+    {
+        return inTransaction(() -> artifactEntryService.findMatching(searchCriteria, pagingCriteria)
+                                                       .stream()
+                                                       .map(Candidate::new)
+                                                       .collect(Collectors.toList()));
     }
 
-    private void deleteFromStorage(final List<ArtifactEntry> artifactEntries)
+    /**
+     * @return the total size of the artifacts which have been deleted
+     */
+    private long deleteFromStorage(final ExecutorService executorService,
+                                   final Repository repository,
+                                   final List<Candidate> candidates)
             throws IOException
     {
-        for (final ArtifactEntry artifactEntry : artifactEntries)
+        final List<Callable<Long>> tasks = candidates.stream()
+                                                     .map(c -> (Callable<Long>) () -> delete(repository, c))
+                                                     .collect(Collectors.toList());
+
+        long deletedSizeInBytes = 0;
+        try
+        {
+            for (final Future<Long> result : executorService.invokeAll(tasks))
+            {
+                deletedSizeInBytes += result.get();
+            }
+        }
+        catch (InterruptedException e)
         {
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Interrupted while cleaning up repository " + repository.getId(), e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException(e.getCause());
+        }
+
+        return deletedSizeInBytes;
+    }
 
+    private long delete(final Repository repository,
+                        final Candidate candidate)
+    {
+        final RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, candidate.artifactPath);
+        try
+        {
             artifactManagementService.delete(repositoryPath, true);
         }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error("Failed to delete [{}].", repositoryPath, e);
+
+            return 0;
+        }
+
+        return candidate.sizeInBytes;
+    }
+
+    private List<Repository> getCleanableRepositories()
+    {
+        final List<Repository> result = new ArrayList<>();
+        for (final Storage storage : configurationManager.getConfiguration().getStorages().values())
+        {
+            for (final Repository repository : storage.getRepositories().values())
+            {
+                if (!repository.isProxyRepository())
+                {
+                    continue;
+                }
+                final RemoteRepository remoteRepository = repository.getRemoteRepository();
+                if (remoteRepository == null)
+                {
+                    logger.warn("Repository {} is not associated with remote repository", repository.getId());
+                    continue;
+                }
+                if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+                {
+                    logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.",
+                                remoteRepository.getUrl());
+                    continue;
+                }
+
+                result.add(repository);
+            }
+        }
+
+        return result;
+    }
+
+    private <T> T inTransaction(final Supplier<T> supplier)
+    {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return transactionTemplate.execute(t -> supplier.get());
+    }
+
+    /**
+     * The details of an {@link ArtifactEntry} which are needed to delete it, so that no entity is held outside
+     * of the transaction it has been read in.
+     */
+    private static class Candidate
+    {
+
+        private final String uuid;
+
+        private final String artifactPath;
+
+        private final long sizeInBytes;
+
+        private final Date lastUsed;
+
+        Candidate(final ArtifactEntry artifactEntry)
+        {
+            this.uuid = artifactEntry.getUuid();
+            this.artifactPath = artifactEntry.getArtifactPath();
+            this.sizeInBytes = artifactEntry.getSizeInBytes() != null ? artifactEntry.getSizeInBytes() : 0;
+            this.lastUsed = artifactEntry.getLastUsed();
+        }
+
     }
 
 }
@@ -3,26 +3,69 @@ package org.carlspring.strongbox.providers.repository.proxied;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.CountingInputStream;
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.CloseableRestResponse;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
+import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteArtifactRangedDownloader.RangedDownloadInputStream;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
 /**
+ * Fetches the resources of the proxy repositories from their remote repositories.
+ * <p>
+ * The artifacts are validated, while they are being downloaded, against the checksum files which the remote
+ * repository publishes for them (see {@link org.carlspring.strongbox.providers.io.LayoutFileSystem#getRemoteChecksumAlgorithmSet()}).
+ * An artifact with a mismatching checksum is moved out of the way and downloaded again.
+ * <p>
+ * The large artifacts are downloaded as several concurrent byte ranges (see {@link RemoteArtifactRangedDownloader}),
+ * when the remote repository supports it.
+ * <p>
+ * The expired resources can be revalidated with conditional requests (see {@link #refreshIfNotModified(RepositoryPath)}),
+ * so that the unchanged ones are not downloaded again.
+ * <p>
+ * The fetches are timed per proxy repository ({@code strongbox.proxy.fetch}), along with the number of bytes
+ * downloaded ({@code strongbox.proxy.fetch.bytes}).
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -30,6 +73,8 @@ public class ProxyRepositoryArtifactResolver
 {
     private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryArtifactResolver.class);
 
+    private static final int MAX_CHECKSUM_FILE_SIZE = 1024;
+
     @Inject
     private RemoteRepositoryAlivenessService remoteRepositoryAlivenessCacheManager;
 
@@ -45,6 +90,48 @@ public class ProxyRepositoryArtifactResolver
     @Inject
     private ArtifactManagementService artifactManagementService;
 
+    @Inject
+    @Named("remoteChecksumFetchExecutor")
+    private ExecutorService remoteChecksumFetchExecutor;
+
+    @Value("${strongbox.proxyRepository.checksumValidation.enabled:true}")
+    private boolean checksumValidationEnabled;
+
+    /**
+     * How many times an artifact is downloaded before a checksum mismatch is reported.
+     */
+    @Value("${strongbox.proxyRepository.checksumValidation.maxAttempts:2}")
+    private int checksumValidationMaxAttempts;
+
+    @Value("${strongbox.proxyRepository.checksumValidation.timeoutMillis:10000}")
+    private long remoteChecksumTimeoutMillis;
+
+    @Inject
+    private RemoteResourceValidatorCache remoteResourceValidatorCache;
+
+    /**
+     * Whether the expired resources are revalidated with conditional requests before they are fetched again.
+     */
+    @Value("${strongbox.proxyRepository.revalidation.enabled:true}")
+    private boolean revalidationEnabled;
+
+    @Inject
+    @Named("remoteRangedDownloadExecutor")
+    private ExecutorService remoteRangedDownloadExecutor;
+
+    @Value("${strongbox.proxyRepository.rangedDownload.enabled:true}")
+    private boolean rangedDownloadEnabled;
+
+    /**
+     * The artifacts of at least this size are downloaded as several concurrent byte ranges. The artifacts are first
+     * requested as a range of the size of such a part, so that the smaller ones are still fetched with one request.
+     */
+    @Value("${strongbox.proxyRepository.rangedDownload.minSizeInBytes:67108864}")
+    private long rangedDownloadMinSizeInBytes;
+
+    @Value("${strongbox.proxyRepository.rangedDownload.parts:4}")
+    private int rangedDownloadParts;
+
     /**
      * This method has been developed to force fetch resource from remote.
      *
@@ -70,13 +157,213 @@ public class ProxyRepositoryArtifactResolver
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String outcome = "failure";
+        try
         {
-            return doFetch(repositoryPath, is);
+            for (int attempt = 1; ; attempt++)
+            {
+                try (CountingInputStream is = new CountingInputStream(openRemoteStream(client, repositoryPath)))
+                {
+                    RepositoryPath result = doFetch(repositoryPath, is);
+
+                    DistributionSummary.builder("strongbox.proxy.fetch.bytes")
+                                       .description("Bytes downloaded from the remote repositories")
+                                       .baseUnit("bytes")
+                                       .tag("storage", repository.getStorage().getId())
+                                       .tag("repository", repository.getId())
+                                       .register(Metrics.globalRegistry)
+                                       .record(is.getByteCount());
+                    outcome = "success";
+
+                    return result;
+                }
+                catch (ArtifactChecksumMismatchException e)
+                {
+                    quarantine(repositoryPath);
+
+                    if (attempt >= checksumValidationMaxAttempts)
+                    {
+                        throw e;
+                    }
+
+                    logger.warn("{} Retrying [{}/{}]...", e.getMessage(), attempt + 1, checksumValidationMaxAttempts);
+                }
+            }
         }
         finally
         {
+            sample.stop(Timer.builder("strongbox.proxy.fetch")
+                             .description("Time to fetch the resources from the remote repositories")
+                             .tag("storage", repository.getStorage().getId())
+                             .tag("repository", repository.getId())
+                             .tag("outcome", outcome)
+                             .register(Metrics.globalRegistry));
+
             lock.unlock();
+            client.close();
+        }
+    }
+
+    private InputStream openRemoteStream(RestArtifactResolver client,
+                                         RepositoryPath repositoryPath)
+        throws IOException
+    {
+        InputStream is = downloadInRanges(client, repositoryPath);
+        if (is == null)
+        {
+            is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath));
+        }
+
+        String algorithm = getRemoteChecksumAlgorithm(repositoryPath);
+        if (algorithm == null)
+        {
+            return is;
+        }
+
+        MessageDigest messageDigest;
+        try
+        {
+            messageDigest = MessageDigest.getInstance(algorithm);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            logger.error("Digest algorithm not supported: alg-[{}]", algorithm, e);
+
+            return is;
+        }
+
+        RepositoryPath checksumPath = ((LayoutFileSystemProvider) repositoryPath.getFileSystem()
+                                                                                .provider()).getChecksumPath(repositoryPath,
+                                                                                                             algorithm);
+        String checksumResource = RepositoryFiles.resolveResource(checksumPath).toString();
+
+        // The checksum is downloaded while the artifact is being read.
+        CompletableFuture<String> remoteChecksum = CompletableFuture.supplyAsync(() -> fetchRemoteChecksum(client,
+                                                                                                           checksumResource),
+                                                                                 remoteChecksumFetchExecutor);
+
+        return new RemoteChecksumValidatingInputStream(is,
+                                                       repositoryPath,
+                                                       algorithm,
+                                                       messageDigest,
+                                                       remoteChecksum,
+                                                       remoteChecksumTimeoutMillis);
+    }
+
+    /**
+     * @return a stream of the artifact, downloaded in ranges into a temporary file if it's large, or {@code null} if
+     * it should be streamed from the remote repository with a new request instead
+     */
+    private InputStream downloadInRanges(RestArtifactResolver client,
+                                         RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (!rangedDownloadEnabled || rangedDownloadParts < 2 ||
+            !Boolean.TRUE.equals(RepositoryFiles.isArtifact(repositoryPath)) ||
+            Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)) ||
+            Boolean.TRUE.equals(RepositoryFiles.isMetadata(repositoryPath)))
+        {
+            return null;
+        }
+
+        RemoteArtifactRangedDownloader downloader = new RemoteArtifactRangedDownloader(client,
+                                                                                       remoteRangedDownloadExecutor);
+        try
+        {
+            return downloader.download(repositoryPath, rangedDownloadMinSizeInBytes, rangedDownloadParts);
+        }
+        catch (ArtifactNotFoundException e)
+        {
+            throw e;
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to download [{}] in ranges, falling back to a single stream: [{}]",
+                        repositoryPath, e.toString());
+
+            return null;
+        }
+    }
+
+    /**
+     * @return the digest algorithm to validate the artifact with, or {@code null} if it should not be validated
+     */
+    private String getRemoteChecksumAlgorithm(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (!checksumValidationEnabled ||
+            !Boolean.TRUE.equals(RepositoryFiles.isArtifact(repositoryPath)) ||
+            Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)) ||
+            Boolean.TRUE.equals(RepositoryFiles.isMetadata(repositoryPath)))
+        {
+            return null;
+        }
+
+        Set<String> algorithms = repositoryPath.getFileSystem().getRemoteChecksumAlgorithmSet();
+        if (algorithms.isEmpty())
+        {
+            return null;
+        }
+
+        // One checksum is enough to detect a corrupted download; SHA-1 is the one most widely published.
+        return algorithms.contains(MessageDigestAlgorithms.SHA_1) ? MessageDigestAlgorithms.SHA_1
+                                                                   : algorithms.iterator().next();
+    }
+
+    /**
+     * @return the checksum of the remote checksum file, or {@code null} if there's no valid one
+     */
+    private String fetchRemoteChecksum(RestArtifactResolver client,
+                                       String checksumResource)
+    {
+        try (CloseableRestResponse closeableRestResponse = client.get(checksumResource))
+        {
+            Response response = closeableRestResponse != null ? closeableRestResponse.getResponse() : null;
+            if (response == null || response.getStatus() != 200)
+            {
+                return null;
+            }
+
+            InputStream is = response.readEntity(InputStream.class);
+            if (is == null)
+            {
+                return null;
+            }
+
+            // The checksum files may contain the name of the file after the checksum.
+            String content = new String(IOUtils.toByteArray(new BoundedInputStream(is, MAX_CHECKSUM_FILE_SIZE)), StandardCharsets.UTF_8);
+            String checksum = content.trim().split("\\s+", 2)[0];
+
+            return checksum.matches("[0-9a-fA-F]{32,128}") ? checksum : null;
+        }
+        catch (Exception e)
+        {
+            logger.debug("Failed to fetch [{}]: [{}]", checksumResource, e.toString());
+
+            return null;
+        }
+    }
+
+    /**
+     * Removes the stored artifact with a mismatching checksum for good: it's also removed from the trash, so that
+     * the corrupted content can't be restored.
+     */
+    private void quarantine(RepositoryPath repositoryPath)
+    {
+        try
+        {
+            if (!Files.exists(repositoryPath))
+            {
+                return;
+            }
+
+            RepositoryFiles.delete(repositoryPath, true);
+            RepositoryFiles.deleteFromTrash(repositoryPath);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error("Failed to quarantine [{}].", repositoryPath, e);
         }
     }
 
@@ -90,7 +377,8 @@ public class ProxyRepositoryArtifactResolver
         
         
         RepositoryPath result = onSuccessfulProxyRepositoryResponse(is, repositoryPath);
-        
+        rememberValidators(repositoryPath, is);
+
         RepositoryFileAttributes artifactFileAttributes = Files.readAttributes(repositoryPath,
                                                                                RepositoryFileAttributes.class);
         if (artifactFileAttributes.isArtifact())
@@ -101,16 +389,116 @@ public class ProxyRepositoryArtifactResolver
         return result;
     }
 
+    private void rememberValidators(RepositoryPath repositoryPath,
+                                    InputStream is)
+    {
+        if (!revalidationEnabled)
+        {
+            return;
+        }
+
+        try
+        {
+            ProxyRepositoryInputStream remoteStream = StreamUtils.findSource(ProxyRepositoryInputStream.class, is);
+            if (remoteStream != null)
+            {
+                remoteResourceValidatorCache.put(repositoryPath,
+                                                 remoteStream.getRemoteHeader(HttpHeaders.ETAG),
+                                                 remoteStream.getRemoteHeader(HttpHeaders.LAST_MODIFIED));
+
+                return;
+            }
+
+            RangedDownloadInputStream rangedStream = StreamUtils.findSource(RangedDownloadInputStream.class, is);
+            if (rangedStream != null)
+            {
+                remoteResourceValidatorCache.put(repositoryPath,
+                                                 rangedStream.getRemoteHeader(HttpHeaders.ETAG),
+                                                 rangedStream.getRemoteHeader(HttpHeaders.LAST_MODIFIED));
+
+                return;
+            }
+
+            remoteResourceValidatorCache.invalidate(repositoryPath);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.debug("Failed to read the validators of [{}]: [{}]", repositoryPath, e.toString());
+
+            remoteResourceValidatorCache.invalidate(repositoryPath);
+        }
+    }
+
+    /**
+     * Revalidates an expired resource with a conditional request, based on the {@code ETag} and
+     * {@code Last-Modified} of the remote resource it has been fetched from.
+     *
+     * @return {@code true} if the remote repository has confirmed that the resource has not been modified, in which
+     * case its expiry is refreshed; {@code false} if it has to be fetched again
+     */
+    public boolean refreshIfNotModified(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Map<String, String> conditionalHeaders = remoteResourceValidatorCache.getConditionalHeaders(repositoryPath);
+        if (!revalidationEnabled || conditionalHeaders.isEmpty() || !Files.exists(repositoryPath))
+        {
+            return false;
+        }
+
+        Repository repository = repositoryPath.getFileSystem().getRepository();
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            return false;
+        }
+
+        String resource = RepositoryFiles.resolveResource(repositoryPath).toString();
+
+        int status;
+        try (RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+             CloseableRestResponse closeableRestResponse = client.head(resource, conditionalHeaders))
+        {
+            Response response = closeableRestResponse != null ? closeableRestResponse.getResponse() : null;
+            status = response != null ? response.getStatus() : -1;
+        }
+        catch (RuntimeException e)
+        {
+            logger.debug("Failed to revalidate [{}]: [{}]", repositoryPath, e.toString());
+
+            return false;
+        }
+
+        if (status != Response.Status.NOT_MODIFIED.getStatusCode())
+        {
+            logger.debug("Remote resource [{}] may have been modified (status [{}]).", repositoryPath, status);
+
+            return false;
+        }
+
+        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
+        Lock lock = lockSource.writeLock();
+        lock.lock();
+        try
+        {
+            Files.setLastModifiedTime(repositoryPath, FileTime.from(Instant.now()));
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        logger.debug("Remote resource [{}] has not been modified.", repositoryPath);
+
+        return true;
+    }
+
     protected RepositoryPath onSuccessfulProxyRepositoryResponse(InputStream is,
                                                                  RepositoryPath repositoryPath)
             throws IOException
     {
+         // The remote checksum is validated by the stream, so a corrupted artifact fails the store.
          artifactManagementService.store(repositoryPath, is);
-         
-        // TODO: Add a policy for validating the checksums of downloaded artifacts
-        // TODO: Validate the local checksum against the remote's checksums
-        // sbespalov: we have checksum validation within ArtifactManagementService.store() method, but it's not strict for now (see SB-949)
-        
+
         // Serve the downloaded artifact
         return repositoryPath;
     }
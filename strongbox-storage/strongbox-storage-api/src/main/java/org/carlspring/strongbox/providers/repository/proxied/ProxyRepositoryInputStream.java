@@ -3,10 +3,14 @@ package org.carlspring.strongbox.providers.repository.proxied;
 import java.io.Closeable;
 import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.CloseableRestResponse;
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -36,7 +40,26 @@ public class ProxyRepositoryInputStream extends FilterInputStream
                                       RepositoryPath path)
         throws IOException
     {
-        super(new RemoteArtifactStreamFetcher(proxyTargetClient).getInputStream(0, path));
+        this(proxyTargetClient, path, new RemoteArtifactStreamFetcher(proxyTargetClient).getInputStream(0, path));
+    }
+
+    /**
+     * @param connection the response which has already been received for the whole artifact
+     */
+    public ProxyRepositoryInputStream(RestArtifactResolver proxyTargetClient,
+                                      RepositoryPath path,
+                                      CloseableRestResponse connection)
+        throws IOException
+    {
+        this(proxyTargetClient, path, new RemoteArtifactStreamFetcher(proxyTargetClient).getInputStream(path,
+                                                                                                        connection));
+    }
+
+    private ProxyRepositoryInputStream(RestArtifactResolver proxyTargetClient,
+                                       RepositoryPath path,
+                                       InputStream in)
+    {
+        super(in);
 
         this.repositoryPath = path;
         this.client = proxyTargetClient;
@@ -82,6 +105,23 @@ public class ProxyRepositoryInputStream extends FilterInputStream
         return readTemplate.doRead(() -> super.skip(n));
     }
 
+    /**
+     * @return the value of the header of the current remote response, or {@code null} if there's none
+     */
+    public String getRemoteHeader(String name)
+        throws IOException
+    {
+        if (!(in instanceof RemoteArtifactStreamFetcher.RemoteArtifactInputStream))
+        {
+            return null;
+        }
+
+        Response response = ((RemoteArtifactStreamFetcher.RemoteArtifactInputStream) in).getConnection()
+                                                                                      .getResponse();
+
+        return response.getHeaderString(name);
+    }
+
     @Override
     public int available()
         throws IOException
@@ -314,24 +354,14 @@ public class ProxyRepositoryInputStream extends FilterInputStream
             this.rangeRequestSupported = rangeRequestSupported;
         }
 
+        /**
+         * The {@link RestArtifactResolver} is closed by its owner, as it may be reused after this stream (for
+         * example to retry the download).
+         */
         @Override
         public void close()
-            throws IOException
         {
-            try
-            {
-                try
-                {
-                    client.close();
-                }
-                catch (Exception e)
-                {
-                    throw new IOException(e);
-                }
-            } finally
-            {
-                artifactCopyContext.remove();
-            }
+            artifactCopyContext.remove();
         }
 
     }
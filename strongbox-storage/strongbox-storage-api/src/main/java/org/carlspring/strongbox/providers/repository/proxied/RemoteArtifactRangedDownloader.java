@@ -0,0 +1,424 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.lang.StringUtils;
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.CloseableRestResponse;
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads a remote artifact as several concurrent byte ranges, which are written directly into a preallocated
+ * temporary file with positional writes.
+ * <p>
+ * The artifact is first requested as a range of its first part, so that the response tells whether the remote
+ * repository supports range requests and how large the artifact is, without probing it beforehand. The rest of the
+ * artifact is then downloaded in ranges, while the first part is being read. The artifacts which fit into the first
+ * part, or whose remote repository ignores the range (and sends the whole artifact), are streamed from the response
+ * over a single connection.
+ * <p>
+ * The {@code ETag} and {@code Last-Modified} validators of the remote artifact are handed out with the downloaded
+ * stream (see {@link RangedDownloadInputStream#getRemoteHeader(String)}), so that it can be revalidated later on just
+ * like the artifacts which have been streamed.
+ */
+public class RemoteArtifactRangedDownloader
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteArtifactRangedDownloader.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RestArtifactResolver client;
+
+    private final ExecutorService executorService;
+
+    private final Map<String, String> remoteHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public RemoteArtifactRangedDownloader(RestArtifactResolver client,
+                                          ExecutorService executorService)
+    {
+        this.client = client;
+        this.executorService = executorService;
+    }
+
+    /**
+     * @param minContentLength the size from which the artifact is downloaded in {@code parts} ranges; the first part
+     *                         is a part of an artifact of this size
+     * @return a stream of the artifact, which removes the temporary file when it's closed, or {@code null} if it
+     * should be streamed from the remote repository with a new request instead
+     */
+    public InputStream download(RepositoryPath repositoryPath,
+                                long minContentLength,
+                                int parts)
+        throws IOException
+    {
+        return download(RepositoryFiles.resolveResource(repositoryPath),
+                        RepositoryFiles.temporaryFile(repositoryPath, ".part"),
+                        minContentLength,
+                        parts,
+                        response -> new BufferedInputStream(new ProxyRepositoryInputStream(client,
+                                                                                           repositoryPath,
+                                                                                           response)));
+    }
+
+    InputStream download(URI resource,
+                         Path file,
+                         long minContentLength,
+                         int parts,
+                         SingleStreamFactory singleStreamFactory)
+        throws IOException
+    {
+        long firstPartSize = Math.max(1, (minContentLength + parts - 1) / parts);
+
+        CloseableRestResponse firstPart;
+        try
+        {
+            firstPart = client.get(resource.toString(), 0, firstPartSize - 1);
+        }
+        catch (RuntimeException e)
+        {
+            logger.debug("Failed to get the first part of [{}]: [{}]", resource, e.toString());
+
+            return null;
+        }
+
+        Response response = firstPart != null ? firstPart.getResponse() : null;
+        if (response == null)
+        {
+            return null;
+        }
+
+        int status = response.getStatus();
+        if (status == 200)
+        {
+            // The range has been ignored, so the whole artifact is on its way.
+            return singleStreamFactory.newInputStream(firstPart);
+        }
+        if (status == 404)
+        {
+            closeQuietly(firstPart);
+
+            throw new ArtifactNotFoundException(resource);
+        }
+
+        long contentLength = status == 206 ? getContentLength(response.getHeaderString("Content-Range")) : -1;
+        if (contentLength < 0)
+        {
+            closeQuietly(firstPart);
+
+            return null;
+        }
+        if (contentLength <= firstPartSize)
+        {
+            return singleStreamFactory.newInputStream(firstPart);
+        }
+
+        for (String name : new String[]{ HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED })
+        {
+            String value = response.getHeaderString(name);
+            if (value != null)
+            {
+                remoteHeaders.put(name, value);
+            }
+        }
+
+        // The artifacts below the size are split in two, as the first part has already been requested anyway.
+        return download(resource,
+                        file,
+                        contentLength,
+                        firstPart,
+                        firstPartSize,
+                        contentLength >= minContentLength ? parts - 1 : 1);
+    }
+
+    /**
+     * @return the complete length from a {@code Content-Range} header (e.g. {@code bytes 0-99/1000}), or {@code -1}
+     * if it's unknown
+     */
+    private static long getContentLength(String contentRange)
+    {
+        String completeLength = StringUtils.substringAfterLast(contentRange, "/");
+
+        return StringUtils.isNumeric(completeLength) && !completeLength.isEmpty() ? Long.parseLong(completeLength) : -1;
+    }
+
+    /**
+     * @param firstPart the response to the range request of the first {@code firstPartSize} bytes, which are written
+     *                  along with the remaining {@code parts}
+     */
+    private RangedDownloadInputStream download(URI resource,
+                                               Path file,
+                                               long contentLength,
+                                               CloseableRestResponse firstPart,
+                                               long firstPartSize,
+                                               int parts)
+        throws IOException
+    {
+        long partSize = (contentLength - firstPartSize + parts - 1) / parts;
+
+        logger.debug("Downloading [{}] bytes of [{}] in [{}] parts.", contentLength, resource, parts + 1);
+
+        boolean downloaded = false;
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE))
+        {
+            // Preallocate the file, so that the parts can be written at their positions in any order.
+            channel.write(ByteBuffer.allocate(1), contentLength - 1);
+
+            List<Future<?>> results = new ArrayList<>();
+            results.add(executorService.submit(() -> {
+                downloadPart(resource, channel, firstPart, 0, firstPartSize - 1);
+
+                return null;
+            }));
+            for (long start = firstPartSize; start < contentLength; start += partSize)
+            {
+                long from = start;
+                long to = Math.min(contentLength, start + partSize) - 1;
+
+                results.add(executorService.submit(() -> {
+                    downloadPart(resource, channel, null, from, to);
+
+                    return null;
+                }));
+            }
+
+            awaitParts(resource, results);
+
+            channel.force(false);
+            downloaded = true;
+        }
+        finally
+        {
+            if (!downloaded)
+            {
+                // The first part may not have been started at all.
+                closeQuietly(firstPart);
+                Files.deleteIfExists(file);
+            }
+        }
+
+        return new RangedDownloadInputStream(Files.newInputStream(file,
+                                                                  StandardOpenOption.READ,
+                                                                  StandardOpenOption.DELETE_ON_CLOSE),
+                                             remoteHeaders);
+    }
+
+    private void awaitParts(URI resource,
+                            List<Future<?>> results)
+        throws IOException
+    {
+        try
+        {
+            for (Future<?> result : results)
+            {
+                result.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IOException(String.format("Interrupted while downloading [%s].", resource), e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+        finally
+        {
+            results.forEach(r -> r.cancel(true));
+        }
+    }
+
+    /**
+     * @param response the response to the range request of the part, or {@code null} if it's yet to be requested
+     */
+    private void downloadPart(URI resource,
+                              FileChannel channel,
+                              CloseableRestResponse response,
+                              long start,
+                              long end)
+        throws IOException
+    {
+        int maxAttempts = Math.max(1, client.getConfiguration().getMaxNumberOfAttempts());
+
+        Range range = new Range(start, end);
+        for (int attempt = 1; range.position <= range.end; attempt++)
+        {
+            try
+            {
+                copyRange(resource, channel, range, attempt == 1 ? response : null);
+            }
+            catch (RangeNotSupportedException e)
+            {
+                throw e;
+            }
+            catch (IOException e)
+            {
+                if (attempt >= maxAttempts || Thread.currentThread().isInterrupted())
+                {
+                    throw e;
+                }
+
+                // The bytes which have already been written are kept.
+                logger.debug("Resuming the download of [{}] at [{}] because of [{}].", resource, range.position,
+                             e.toString());
+            }
+        }
+    }
+
+    private void copyRange(URI resource,
+                           FileChannel channel,
+                           Range range,
+                           CloseableRestResponse response)
+        throws IOException
+    {
+        try (CloseableRestResponse closeableRestResponse = response != null ? response :
+                                                           client.get(resource.toString(), range.position, range.end))
+        {
+            Response rangeResponse = closeableRestResponse != null ? closeableRestResponse.getResponse() : null;
+            if (rangeResponse == null || rangeResponse.getStatus() != 206)
+            {
+                throw new RangeNotSupportedException(resource, rangeResponse == null ? -1 : rangeResponse.getStatus());
+            }
+
+            try (InputStream is = rangeResponse.readEntity(InputStream.class))
+            {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (range.position <= range.end)
+                {
+                    int read = is.read(buffer, 0, (int) Math.min(buffer.length, range.end - range.position + 1));
+                    if (read == -1)
+                    {
+                        throw new EOFException(String.format("Unexpected end of [%s] at [%s].",
+                                                             resource, range.position));
+                    }
+
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining())
+                    {
+                        range.position += channel.write(byteBuffer, range.position);
+                    }
+                }
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // The connection failures are reported by Jersey as ProcessingException-s.
+            throw new IOException(e);
+        }
+    }
+
+    private static void closeQuietly(CloseableRestResponse response)
+    {
+        try
+        {
+            response.close();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.debug("Failed to close the response: [{}]", e.toString());
+        }
+    }
+
+    /**
+     * Streams an artifact from a response which carries all of it.
+     */
+    @FunctionalInterface
+    interface SingleStreamFactory
+    {
+
+        InputStream newInputStream(CloseableRestResponse response)
+            throws IOException;
+
+    }
+
+    /**
+     * The stream of an artifact which has been downloaded in ranges.
+     */
+    public static class RangedDownloadInputStream
+            extends FilterInputStream
+    {
+
+        private final Map<String, String> remoteHeaders;
+
+        RangedDownloadInputStream(InputStream in,
+                                  Map<String, String> remoteHeaders)
+        {
+            super(in);
+
+            Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(remoteHeaders);
+            this.remoteHeaders = Collections.unmodifiableMap(headers);
+        }
+
+        /**
+         * @return the value of the header which the remote repository has sent with the first part of the artifact,
+         * or {@code null} if there's none
+         */
+        public String getRemoteHeader(String name)
+        {
+            return remoteHeaders.get(name);
+        }
+
+    }
+
+    private static class Range
+    {
+
+        private long position;
+
+        private final long end;
+
+        Range(long start,
+              long end)
+        {
+            this.position = start;
+            this.end = end;
+        }
+
+    }
+
+    private static class RangeNotSupportedException
+            extends IOException
+    {
+
+        RangeNotSupportedException(URI resource,
+                                   int status)
+        {
+            super(String.format("Unexpected response status [%s] to a range request for [%s].", status, resource));
+        }
+
+    }
+
+}
@@ -29,7 +29,19 @@ public class RemoteArtifactStreamFetcher
     {
         URI resource = getRestClientResourcePath(artifactPath);
 
-        return new RemoteArtifactInputStream(resource, offset);
+        return new RemoteArtifactInputStream(resource, offset, null);
+    }
+
+    /**
+     * @param connection the response which has already been received for the whole artifact
+     */
+    public InputStream getInputStream(RepositoryPath artifactPath,
+                                      CloseableRestResponse connection)
+        throws IOException
+    {
+        URI resource = getRestClientResourcePath(artifactPath);
+
+        return new RemoteArtifactInputStream(resource, 0, connection);
     }
 
     public String getHead(RepositoryPath repositoryPath)
@@ -101,10 +113,12 @@ public class RemoteArtifactStreamFetcher
         private InputStream target;
 
         public RemoteArtifactInputStream(URI resource,
-                                         long offset)
+                                         long offset,
+                                         CloseableRestResponse connection)
         {
             this.resource = resource;
             this.offset = offset;
+            this.connection = connection;
         }
 
         public CloseableRestResponse getConnection()
@@ -0,0 +1,197 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the digest of a remote artifact while it's being read, and compares it with the checksum published by
+ * the remote repository, which is fetched concurrently.
+ * <p>
+ * The comparison is done when the end of the stream is reached, so a mismatch fails the read before the artifact
+ * is considered to be stored. If the remote checksum can't be obtained, the artifact is not validated.
+ */
+public class RemoteChecksumValidatingInputStream extends FilterInputStream
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteChecksumValidatingInputStream.class);
+
+    private final RepositoryPath repositoryPath;
+
+    private final String algorithm;
+
+    private final MessageDigest messageDigest;
+
+    private final CompletableFuture<String> remoteChecksum;
+
+    private final long remoteChecksumTimeoutMillis;
+
+    private boolean validated;
+
+    public RemoteChecksumValidatingInputStream(InputStream in,
+                                               RepositoryPath repositoryPath,
+                                               String algorithm,
+                                               MessageDigest messageDigest,
+                                               CompletableFuture<String> remoteChecksum,
+                                               long remoteChecksumTimeoutMillis)
+    {
+        super(in);
+
+        this.repositoryPath = repositoryPath;
+        this.algorithm = algorithm;
+        this.messageDigest = messageDigest;
+        this.remoteChecksum = remoteChecksum;
+        this.remoteChecksumTimeoutMillis = remoteChecksumTimeoutMillis;
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        int result = super.read();
+        if (result == -1)
+        {
+            validate();
+        }
+        else
+        {
+            messageDigest.update((byte) result);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b,
+                    int off,
+                    int len)
+        throws IOException
+    {
+        int result = super.read(b, off, len);
+        if (result == -1)
+        {
+            validate();
+        }
+        else if (result > 0)
+        {
+            messageDigest.update(b, off, result);
+        }
+
+        return result;
+    }
+
+    @Override
+    public long skip(long n)
+        throws IOException
+    {
+        // The skipped bytes still need to be digested.
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n)
+        {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1)
+            {
+                break;
+            }
+            skipped += read;
+        }
+
+        return skipped;
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            remoteChecksum.cancel(true);
+        }
+    }
+
+    @Override
+    public synchronized void mark(int readlimit)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized void reset()
+        throws IOException
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+    private void validate()
+        throws IOException
+    {
+        if (validated)
+        {
+            return;
+        }
+        validated = true;
+
+        String expected = getRemoteChecksum();
+        if (expected == null)
+        {
+            logger.debug("No remote [{}] checksum for [{}], skipping the validation.", algorithm, repositoryPath);
+
+            return;
+        }
+
+        String actual = MessageDigestUtils.convertToHexadecimalString(messageDigest);
+        if (!expected.equalsIgnoreCase(actual))
+        {
+            throw new ArtifactChecksumMismatchException(String.valueOf(repositoryPath), algorithm, expected, actual);
+        }
+
+        logger.debug("Validated the [{}] checksum of [{}].", algorithm, repositoryPath);
+    }
+
+    private String getRemoteChecksum()
+        throws IOException
+    {
+        try
+        {
+            return remoteChecksum.get(remoteChecksumTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IOException(String.format("Interrupted while waiting for the checksum of [%s].",
+                                                repositoryPath),
+                                  e);
+        }
+        catch (ExecutionException | TimeoutException e)
+        {
+            logger.warn("Failed to get the remote [{}] checksum of [{}]: [{}]", algorithm, repositoryPath,
+                        e.toString());
+
+            return null;
+        }
+    }
+
+}
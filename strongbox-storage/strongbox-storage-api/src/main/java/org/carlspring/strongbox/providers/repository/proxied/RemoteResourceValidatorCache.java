@@ -0,0 +1,78 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@code ETag} and {@code Last-Modified} validators which the remote repositories have sent with the
+ * resources fetched by the proxy repositories, so that an expired resource can be revalidated with a conditional
+ * request instead of being downloaded again.
+ * <p>
+ * The validators are kept in memory only; after a restart, a resource is downloaded once more before it can be
+ * revalidated.
+ */
+@Component
+public class RemoteResourceValidatorCache
+{
+
+    private final Cache<String, Map<String, String>> cache;
+
+
+    public RemoteResourceValidatorCache(@Value("${strongbox.proxyRepository.revalidation.cacheSize:100000}") long maxSize)
+    {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * @return the conditional request headers for the resource, or an empty map if it can't be revalidated
+     */
+    public Map<String, String> getConditionalHeaders(RepositoryPath repositoryPath)
+    {
+        Map<String, String> validators = cache.getIfPresent(toKey(repositoryPath));
+
+        return validators == null ? Collections.emptyMap() : validators;
+    }
+
+    public void put(RepositoryPath repositoryPath,
+                    String eTag,
+                    String lastModified)
+    {
+        Map<String, String> conditionalHeaders = new LinkedHashMap<>();
+        if (eTag != null)
+        {
+            conditionalHeaders.put("If-None-Match", eTag);
+        }
+        if (lastModified != null)
+        {
+            conditionalHeaders.put("If-Modified-Since", lastModified);
+        }
+
+        if (conditionalHeaders.isEmpty())
+        {
+            invalidate(repositoryPath);
+
+            return;
+        }
+
+        cache.put(toKey(repositoryPath), Collections.unmodifiableMap(conditionalHeaders));
+    }
+
+    public void invalidate(RepositoryPath repositoryPath)
+    {
+        cache.invalidate(toKey(repositoryPath));
+    }
+
+    private static String toKey(RepositoryPath repositoryPath)
+    {
+        return repositoryPath.toAbsolutePath().normalize().toString();
+    }
+
+}
@@ -1,60 +1,264 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.ws.rs.client.Client;
 
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
+ * Creates the {@link RestArtifactResolver}-s for the remote repositories.
+ * <p>
+ * The Jersey {@link Client}-s are expensive to build, so there is one long-lived client per remote repository,
+ * backed by the shared connection pool. A client is only re-created when the settings of its remote repository
+ * (URL or credentials) change, and the clients of the remote repositories which are no longer configured are
+ * dropped. Every resolver holds a lease on its client until it's closed, so that a replaced client is only closed
+ * once the downloads which are still using it have finished.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
 public class RestArtifactResolverFactory
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(RestArtifactResolverFactory.class);
+
     @Inject
     private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
-    
+
     @Inject
     private ConfigurationManager configurationManager;
-    
+
     @Inject
     private RemoteRepositoryAlivenessService remoteRepositoryAlivenessCacheManager;
 
+    private final ConcurrentMap<String, RemoteRepositoryClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * @return a resolver, which has to be closed once it's no longer used
+     */
     public RestArtifactResolver newInstance(RemoteRepository repository)
     {
         Objects.requireNonNull(repository);
-        
+
         RemoteRepositoryRetryArtifactDownloadConfiguration configuration = configurationManager.getConfiguration()
                                                                                                .getRemoteRepositoriesConfiguration()
                                                                                                .getRemoteRepositoryRetryArtifactDownloadConfiguration();
-        
-        String username = repository.getUsername();
-        String password = repository.getPassword();
+
         String url = repository.getUrl();
-        
-        final HttpAuthenticationFeature authenticationFeature = (username != null && password != null) ? HttpAuthenticationFeature.basic(username, password) : null;
-                
-        return new RestArtifactResolver(proxyRepositoryConnectionPoolConfigurationService.getRestClient(), url,
-                                        configuration,
-                                        authenticationFeature)
+        RemoteRepositoryClient client = acquireClient(repository);
+
+        return new RestArtifactResolver(client.client, url, configuration)
                                 {
-                        
+
+                                    private final AtomicBoolean closed = new AtomicBoolean();
+
                                     @Override
                                     public boolean isAlive()
                                     {
                                         return remoteRepositoryAlivenessCacheManager.isAlive(repository);
                                     }
-                        
+
+                                    @Override
+                                    public void close()
+                                    {
+                                        // The client is shared between the resolvers of the remote repository.
+                                        if (closed.compareAndSet(false, true))
+                                        {
+                                            client.release();
+                                        }
+                                    }
+
                                 };
     }
 
+    private RemoteRepositoryClient acquireClient(RemoteRepository repository)
+    {
+        AtomicBoolean created = new AtomicBoolean();
+        RemoteRepositoryClient client = clients.compute(repository.getUrl(), (url, current) -> {
+            RemoteRepositoryClient result = current;
+            if (current == null || !current.matches(repository))
+            {
+                if (current != null)
+                {
+                    logger.debug("Settings of remote repository [{}] have changed, re-creating its client.", url);
+
+                    current.retire();
+                }
+
+                result = new RemoteRepositoryClient(repository, createClient(repository));
+                created.set(true);
+            }
+
+            // Acquired within the computation, so that the client can't be retired in between.
+            result.acquire();
+
+            return result;
+        });
+
+        if (created.get())
+        {
+            evictRemovedRepositories(null, null, repository.getUrl());
+        }
+
+        return client;
+    }
+
+    private Client createClient(RemoteRepository repository)
+    {
+        Client client = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
+
+        String username = repository.getUsername();
+        String password = repository.getPassword();
+        if (username != null && password != null)
+        {
+            client.register(HttpAuthenticationFeature.basic(username, password));
+        }
+
+        return client;
+    }
+
+    @EventListener
+    public void handle(RepositoryEvent event)
+    {
+        if (event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType())
+        {
+            return;
+        }
+
+        // The event is dispatched before the repository is removed from the configuration.
+        evictRemovedRepositories(event.getStorageId(), event.getRepositoryId(), null);
+    }
+
+    /**
+     * Drops the clients of the remote repositories which are no longer configured.
+     *
+     * @param removedStorageId    the storage of a repository which is being removed, if any
+     * @param removedRepositoryId the repository which is being removed, if any
+     * @param usedUrl             the URL of a remote repository which is being used, if any
+     */
+    private void evictRemovedRepositories(String removedStorageId,
+                                          String removedRepositoryId,
+                                          String usedUrl)
+    {
+        Set<String> urls = new HashSet<>();
+        if (usedUrl != null)
+        {
+            urls.add(usedUrl);
+        }
+        for (Storage storage : configurationManager.getConfiguration().getStorages().values())
+        {
+            for (Repository repository : storage.getRepositories().values())
+            {
+                boolean removed = storage.getId().equals(removedStorageId) &&
+                                  repository.getId().equals(removedRepositoryId);
+                if (!removed && repository.getRemoteRepository() != null)
+                {
+                    urls.add(repository.getRemoteRepository().getUrl());
+                }
+            }
+        }
+
+        for (String url : clients.keySet())
+        {
+            if (urls.contains(url))
+            {
+                continue;
+            }
+
+            clients.computeIfPresent(url, (u, client) -> {
+                logger.debug("Remote repository [{}] is no longer configured, dropping its client.", u);
+
+                client.retire();
+
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        clients.values().forEach(c -> c.client.close());
+        clients.clear();
+    }
+
+    private static class RemoteRepositoryClient
+    {
+
+        private final String username;
+
+        private final String password;
+
+        private final Client client;
+
+        private int leases;
+
+        private boolean retired;
+
+        RemoteRepositoryClient(RemoteRepository repository,
+                               Client client)
+        {
+            this.username = repository.getUsername();
+            this.password = repository.getPassword();
+            this.client = client;
+        }
+
+        boolean matches(RemoteRepository repository)
+        {
+            return Objects.equals(username, repository.getUsername()) &&
+                   Objects.equals(password, repository.getPassword());
+        }
+
+        synchronized void acquire()
+        {
+            leases++;
+        }
+
+        synchronized void release()
+        {
+            leases--;
+            closeIfUnused();
+        }
+
+        /**
+         * No more leases are given on a retired client, which is closed as soon as the last one is released.
+         */
+        synchronized void retire()
+        {
+            retired = true;
+            closeIfUnused();
+        }
+
+        private void closeIfUnused()
+        {
+            if (retired && leases == 0)
+            {
+                client.close();
+            }
+        }
+
+    }
+
 }
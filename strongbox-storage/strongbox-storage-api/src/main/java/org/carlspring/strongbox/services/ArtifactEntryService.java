@@ -56,6 +56,12 @@ public interface ArtifactEntryService
     List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                      PagingCriteria pagingCriteria);
 
+    /**
+     * @return the total size of the artifacts stored in the given repository, in bytes
+     */
+    Long sumSizeInBytes(String storageId,
+                        String repositoryId);
+
     Long countCoordinates(Collection<Pair<String, String>> storageRepositoryPairList,
                           Map<String, String> coordinates,
                           boolean strict);
@@ -6,7 +6,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -43,7 +47,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.FileSystemUtils;
 
 /**
  * @author mtodorov
@@ -358,11 +361,34 @@ public class ArtifactManagementService
 
         if (Files.isDirectory(srcPath))
         {
-            FileSystemUtils.copyRecursively(srcPath, destPath);
+            // The files are copied one by one through the storage, so that they can be linked instead of streamed.
+            Files.walkFileTree(srcPath, new SimpleFileVisitor<Path>()
+            {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir,
+                                                         BasicFileAttributes attrs)
+                    throws IOException
+                {
+                    Files.createDirectories(destPath.resolve(srcPath.relativize(dir).toString()));
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file,
+                                                 BasicFileAttributes attrs)
+                    throws IOException
+                {
+                    RepositoryPath destFile = destPath.resolve(srcPath.relativize(file).toString());
+                    destFile.getFileSystem().provider().copyFile((RepositoryPath) file, destFile);
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
         }
         else
         {
-            Files.copy(srcPath, destPath);
+            destPath.getFileSystem().provider().copyFile(srcPath, destPath);
         }
     }
 
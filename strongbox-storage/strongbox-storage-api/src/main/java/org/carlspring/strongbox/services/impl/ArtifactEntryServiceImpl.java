@@ -100,7 +100,8 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
         tagMap.entrySet().stream().forEach(e -> parameterMap.put(e.getKey(), e.getValue().getName()));
 
-        List<ArtifactEntry> entries = getDelegate().command(oQuery).execute(parameterMap);
+        List<ArtifactEntry> entries = timeQuery("findArtifactList",
+                                                () -> getDelegate().command(oQuery).execute(parameterMap));
 
         return entries;
     }
@@ -111,32 +112,12 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT FROM ").append(getEntityClass().getSimpleName());
-        Map<String, Object> parameterMap = Collections.emptyMap();
+        Map<String, Object> parameterMap = new HashMap<>();
 
-
-        if (!searchCriteria.isEmpty())
+        String criteriaQueryClause = buildCriteriaQueryClause(searchCriteria, parameterMap);
+        if (!criteriaQueryClause.isEmpty())
         {
-            StringBuilder criteriaQueryClasuse = new StringBuilder();
-            sb.append(" WHERE ");
-            parameterMap = new HashMap<>();
-
-            if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
-            {
-                criteriaQueryClasuse.append(" sizeInBytes >= :minSizeInBytes ");
-                parameterMap.put("minSizeInBytes", searchCriteria.getMinSizeInBytes());
-            }
-            if (searchCriteria.getLastAccessedTimeInDays() != null && searchCriteria.getLastAccessedTimeInDays() > 0)
-            {
-                if (criteriaQueryClasuse.length() > 0)
-                {
-                    criteriaQueryClasuse.append(" AND ");
-                }
-                Date lastUsed = DateUtils.addDays(new Date(), -searchCriteria.getLastAccessedTimeInDays());
-                criteriaQueryClasuse.append(" lastUsed < :lastUsed ");
-                parameterMap.put("lastUsed", lastUsed);
-            }
-
-            sb.append(criteriaQueryClasuse);
+            sb.append(" WHERE ").append(criteriaQueryClause);
         }
 
         appendPagingCriteria(sb, pagingCriteria);
@@ -145,7 +126,73 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
 
-        return getDelegate().command(oQuery).execute(parameterMap);
+        return timeQuery("findMatching", () -> getDelegate().command(oQuery).execute(parameterMap));
+    }
+
+    @Override
+    public Long sumSizeInBytes(String storageId,
+                               String repositoryId)
+    {
+        String sQuery = String.format("SELECT sum(sizeInBytes) AS size FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId",
+                                      getEntityClass().getSimpleName());
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+
+        List<ODocument> result = timeQuery("sumSizeInBytes",
+                                           () -> getDelegate().command(oQuery).execute(parameterMap));
+        Number size = result.isEmpty() ? null : result.iterator().next().field("size");
+
+        return size != null ? size.longValue() : 0L;
+    }
+
+    private String buildCriteriaQueryClause(ArtifactEntrySearchCriteria searchCriteria,
+                                            Map<String, Object> parameterMap)
+    {
+        if (searchCriteria.isEmpty())
+        {
+            return "";
+        }
+
+        List<String> conditions = new ArrayList<>();
+
+        if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
+        {
+            conditions.add("sizeInBytes >= :minSizeInBytes");
+            parameterMap.put("minSizeInBytes", searchCriteria.getMinSizeInBytes());
+        }
+        if (searchCriteria.getLastAccessedTimeInDays() != null && searchCriteria.getLastAccessedTimeInDays() > 0)
+        {
+            Date lastUsed = DateUtils.addDays(new Date(), -searchCriteria.getLastAccessedTimeInDays());
+            conditions.add("lastUsed < :lastUsed");
+            parameterMap.put("lastUsed", lastUsed);
+        }
+        if (searchCriteria.getStorageId() != null)
+        {
+            conditions.add("storageId = :storageId");
+            parameterMap.put("storageId", searchCriteria.getStorageId());
+        }
+        if (searchCriteria.getRepositoryId() != null)
+        {
+            conditions.add("repositoryId = :repositoryId");
+            parameterMap.put("repositoryId", searchCriteria.getRepositoryId());
+        }
+        if (searchCriteria.getAfterLastUsed() != null)
+        {
+            conditions.add("(lastUsed > :afterLastUsed OR (lastUsed = :afterLastUsed AND uuid > :afterUuid))");
+            parameterMap.put("afterLastUsed", searchCriteria.getAfterLastUsed());
+            parameterMap.put("afterUuid", Optional.ofNullable(searchCriteria.getAfterUuid()).orElse(""));
+        }
+        else if (searchCriteria.getAfterUuid() != null)
+        {
+            conditions.add("uuid > :afterUuid");
+            parameterMap.put("afterUuid", searchCriteria.getAfterUuid());
+        }
+
+        return String.join(" AND ", conditions);
     }
 
     @Override
@@ -188,7 +235,8 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         });
 
 
-        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        List<ODocument> result = timeQuery("countCoordinates",
+                                           () -> getDelegate().command(oQuery).execute(parameterMap));
         return (Long) result.iterator().next().field("count");
     }
 
@@ -220,7 +268,8 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         });
 
 
-        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        List<ODocument> result = timeQuery("countArtifacts",
+                                           () -> getDelegate().command(oQuery).execute(parameterMap));
         return (Long) result.iterator().next().field("count");
     }
 
@@ -399,10 +448,11 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         HashMap<String, Object> params = new HashMap<>();
         params.put("path", path);
 
-        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
-        oQuery.setLimit(1);
+        OSQLSynchQuery<ODocument> coordinatesQuery = new OSQLSynchQuery<>(sQuery);
+        coordinatesQuery.setLimit(1);
 
-        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+        List<ODocument> resultList = timeQuery("findArtifactCoordinatesId",
+                                               () -> getDelegate().command(coordinatesQuery).execute(params));
         ODocument result = resultList.isEmpty() ? null : resultList.iterator().next();
 
         ORID artifactCoordinatesId = result == null ? null : ((ODocument) result.field("rid")).getIdentity();
@@ -413,15 +463,16 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
         sQuery = String.format("SELECT FROM INDEX:idx_artifact WHERE key = [:storageId, :repositoryId, :artifactCoordinatesId]");
 
-        oQuery = new OSQLSynchQuery<>(sQuery);
-        oQuery.setLimit(1);
+        OSQLSynchQuery<ODocument> artifactQuery = new OSQLSynchQuery<>(sQuery);
+        artifactQuery.setLimit(1);
 
-        params = new HashMap<>();
-        params.put("storageId", storageId);
-        params.put("repositoryId", repositoryId);
-        params.put("artifactCoordinatesId", artifactCoordinatesId);
+        HashMap<String, Object> artifactParams = new HashMap<>();
+        artifactParams.put("storageId", storageId);
+        artifactParams.put("repositoryId", repositoryId);
+        artifactParams.put("artifactCoordinatesId", artifactCoordinatesId);
 
-        resultList = getDelegate().command(oQuery).execute(params);
+        resultList = timeQuery("findArtifactEntryId",
+                               () -> getDelegate().command(artifactQuery).execute(artifactParams));
         result = resultList.isEmpty() ? null : resultList.iterator().next();
 
         return result == null ? null : ((ODocument) result.field("rid")).getIdentity();
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
+import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationGenerateChecksumOperation;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.Configuration;
@@ -10,14 +11,18 @@ import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.services.ChecksumService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegenerationCheckpoint;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -38,6 +43,12 @@ public class ChecksumServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Value("${strongbox.artifactDirectoryLocator.parallelism:4}")
+    private int locatorParallelism;
+
     @Override
     public void regenerateChecksum(String storageId,
                                    String repositoryId,
@@ -65,9 +76,45 @@ public class ChecksumServiceImpl
         operation.setBasePath(repositoryBasePath);
         operation.setForceRegeneration(forceRegeneration);
 
-        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-        locator.setOperation(operation);
-        locator.locateArtifactDirectories();
+        // A regeneration which gets interrupted (restart, failure) resumes from the last completed directory
+        String checkpointHeader = String.format("forceRegeneration=%s;basePath=%s",
+                                                forceRegeneration,
+                                                repositoryBasePath.relativize());
+        Path checkpointDirectory = getCheckpointDirectory(storageId, repositoryId);
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               checkpointHeader))
+        {
+            if (checkpoint == null)
+            {
+                logger.warn("The same checksum regeneration is already in progress for [{}], " +
+                            "this one will not be resumable.", repositoryBasePath);
+            }
+            operation.setCheckpoint(checkpoint);
+
+            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+            locator.setOperation(operation);
+            locator.setParallelism(locatorParallelism);
+            locator.locateArtifactDirectories();
+
+            if (operation.hasFailures())
+            {
+                // The checkpoint is kept, so that the next run only retries the directories which have failed
+                logger.warn("Checksum regeneration for [{}] completed with failures.", repositoryBasePath);
+            }
+            else if (checkpoint != null)
+            {
+                checkpoint.complete();
+            }
+        }
+    }
+
+    private Path getCheckpointDirectory(String storageId,
+                                        String repositoryId)
+    {
+        return Paths.get(propertiesBooter.getVaultDirectory(),
+                         "checkpoints",
+                         storageId,
+                         repositoryId);
     }
 
     public Configuration getConfiguration()
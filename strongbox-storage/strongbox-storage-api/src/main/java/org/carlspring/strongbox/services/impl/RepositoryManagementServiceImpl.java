@@ -2,7 +2,15 @@ package org.carlspring.strongbox.services.impl;
 
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -29,8 +37,11 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.validation.resource.ArtifactOperationsValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * @author mtodorov
  */
@@ -59,6 +70,9 @@ public class RepositoryManagementServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Value("${strongbox.trash.parallelism:4}")
+    private int trashParallelism;
+
 
     @Override
     public void createRepository(String storageId,
@@ -145,25 +159,22 @@ public class RepositoryManagementServiceImpl
     {
         try
         {
-            for (Map.Entry<String, Storage> entry : getConfiguration().getStorages().entrySet())
-            {
-                Storage storage = entry.getValue();
-
-                final Map<String, ? extends Repository> repositories = storage.getRepositories();
-                for (Repository repository : repositories.values())
+            final List<Repository> repositories = getRepositories(repository -> {
+                if (!repository.allowsDeletion())
                 {
-                    if (repository.allowsDeletion())
-                    {
-                        logger.debug("Emptying trash for repository {}...", repository.getId());
+                    logger.warn("Repository {} does not support removal of trash.", repository.getId());
 
-                        deleteTrash(repository.getStorage().getId(), repository.getId());;
-                    }
-                    else
-                    {
-                        logger.warn("Repository {} does not support removal of trash.", repository.getId());
-                    }
+                    return false;
                 }
-            }
+
+                return true;
+            });
+
+            forEachRepositoryInParallel("Emptying trash", repositories, repository -> {
+                logger.debug("Emptying trash for repository {}...", repository.getId());
+
+                deleteTrash(repository.getStorage().getId(), repository.getId());
+            });
 
             int type = RepositoryEventTypeEnum.EVENT_REPOSITORY_EMTPY_TRASH_FOR_ALL_REPOSITORIES.getType();
             RepositoryEvent event = new RepositoryEvent(null, null, type);
@@ -236,33 +247,22 @@ public class RepositoryManagementServiceImpl
     public void undeleteTrash()
             throws IOException
     {
-        
-        for (Map.Entry<String, Storage> entry : getConfiguration().getStorages().entrySet())
-        {
-            Storage storage = entry.getValue();
+        final List<Repository> repositories = getRepositories(Repository::isTrashEnabled);
 
-            final Map<String, ? extends Repository> repositories = storage.getRepositories();
-            for (Repository repository : repositories.values())
+        forEachRepositoryInParallel("Undeleting trash", repositories, repository -> {
+            try
             {
-                final String storageId = storage.getId();
-                final String repositoryId = repository.getId();
-
-                try
-                {
-                    if (repository.isTrashEnabled())
-                    {
-                        RootRepositoryPath repositoryPath = repositoryPathResolver.resolve(repository);
-                        RepositoryFiles.undelete(repositoryPath);
-                    }
-                }
-                catch (IOException e)
-                {
-                    throw new ArtifactStorageException( "Unable to undelete trash for storage " + storageId + " in repository " +
-                            repositoryId, e);
-                }
+                RootRepositoryPath repositoryPath = repositoryPathResolver.resolve(repository);
+                RepositoryFiles.undelete(repositoryPath);
             }
-        }
-        
+            catch (IOException e)
+            {
+                throw new ArtifactStorageException("Unable to undelete trash for storage " +
+                                                   repository.getStorage().getId() + " in repository " +
+                                                   repository.getId(), e);
+            }
+        });
+
         RepositoryEvent event = new RepositoryEvent(null,
                                                     null,
                                                     RepositoryEventTypeEnum.EVENT_REPOSITORY_UNDELETE_TRASH_FOR_ALL_REPOSITORIES
@@ -284,6 +284,112 @@ public class RepositoryManagementServiceImpl
         configurationManagementService.putOutOfService(storageId, repositoryId);
     }
 
+    private List<Repository> getRepositories(Predicate<Repository> filter)
+    {
+        List<Repository> result = new ArrayList<>();
+        for (Storage storage : getConfiguration().getStorages().values())
+        {
+            for (Repository repository : storage.getRepositories().values())
+            {
+                if (filter.test(repository))
+                {
+                    result.add(repository);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs the operation for every repository on a pool of {@code strongbox.trash.parallelism} threads, logging
+     * the progress as the repositories complete. A failure doesn't stop the operation for the other repositories;
+     * the first one is rethrown once all of them have been processed.
+     */
+    private void forEachRepositoryInParallel(String operationName,
+                                             List<Repository> repositories,
+                                             RepositoryOperation operation)
+            throws IOException
+    {
+        if (repositories.isEmpty())
+        {
+            return;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final AtomicInteger completed = new AtomicInteger();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(trashParallelism, repositories.size())),
+                new ThreadFactoryBuilder().setNameFormat("repository-trash-%d").setDaemon(true).build());
+        try
+        {
+            List<Future<Void>> results = repositories.stream()
+                                                     .map(repository -> executorService.submit(() -> {
+                                                         operation.execute(repository);
+
+                                                         logger.info("{}: [{}/{}] repositories completed ({}:{}).",
+                                                                     operationName,
+                                                                     completed.incrementAndGet(),
+                                                                     repositories.size(),
+                                                                     repository.getStorage().getId(),
+                                                                     repository.getId());
+
+                                                         return (Void) null;
+                                                     }))
+                                                     .collect(Collectors.toList());
+
+            IOException failure = null;
+            for (Future<Void> result : results)
+            {
+                try
+                {
+                    result.get();
+                }
+                catch (ExecutionException e)
+                {
+                    IOException cause = e.getCause() instanceof IOException ? (IOException) e.getCause()
+                                                                            : new IOException(e.getCause());
+                    if (failure == null)
+                    {
+                        failure = cause;
+                    }
+                    else
+                    {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+
+            if (failure != null)
+            {
+                throw failure;
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new ArtifactStorageException(operationName + " has been interrupted.", e);
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+
+        logger.info("{}: [{}] repositories completed in {} ms.",
+                    operationName, repositories.size(), System.currentTimeMillis() - startTime);
+    }
+
+    @FunctionalInterface
+    private interface RepositoryOperation
+    {
+
+        void execute(Repository repository)
+                throws IOException;
+
+    }
+
     private LayoutProvider getLayoutProvider(String storageId,
                                              String repositoryId)
     {
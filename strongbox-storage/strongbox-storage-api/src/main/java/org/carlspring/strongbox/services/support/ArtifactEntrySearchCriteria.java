@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.services.support;
 
+import java.util.Date;
+
 /**
  * @author Przemyslaw Fusik
  */
@@ -10,9 +12,18 @@ public class ArtifactEntrySearchCriteria
 
     private Long minSizeInBytes;
 
+    private String storageId;
+
+    private String repositoryId;
+
+    private String afterUuid;
+
+    private Date afterLastUsed;
+
     public boolean isEmpty()
     {
-        return lastAccessedTimeInDays == null && minSizeInBytes == null;
+        return lastAccessedTimeInDays == null && minSizeInBytes == null && storageId == null && repositoryId == null &&
+               afterUuid == null && afterLastUsed == null;
     }
 
     public Integer getLastAccessedTimeInDays()
@@ -25,11 +36,40 @@ public class ArtifactEntrySearchCriteria
         return minSizeInBytes;
     }
 
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    /**
+     * Keyset paging: only the entries ordered after the entry with this {@code uuid} are matched. When used
+     * together with {@link #getAfterLastUsed()}, the entries are expected to be ordered by {@code lastUsed, uuid},
+     * otherwise by {@code uuid}.
+     */
+    public String getAfterUuid()
+    {
+        return afterUuid;
+    }
+
+    public Date getAfterLastUsed()
+    {
+        return afterLastUsed != null ? new Date(afterLastUsed.getTime()) : null;
+    }
+
     public static final class Builder
     {
 
         private Integer lastAccessedTimeInDays;
         private Long minSizeInBytes;
+        private String storageId;
+        private String repositoryId;
+        private String afterUuid;
+        private Date afterLastUsed;
 
         private Builder()
         {
@@ -52,11 +92,39 @@ public class ArtifactEntrySearchCriteria
             return this;
         }
 
+        public Builder withStorageId(String storageId)
+        {
+            this.storageId = storageId;
+            return this;
+        }
+
+        public Builder withRepositoryId(String repositoryId)
+        {
+            this.repositoryId = repositoryId;
+            return this;
+        }
+
+        public Builder withAfterUuid(String afterUuid)
+        {
+            this.afterUuid = afterUuid;
+            return this;
+        }
+
+        public Builder withAfterLastUsed(Date afterLastUsed)
+        {
+            this.afterLastUsed = afterLastUsed != null ? new Date(afterLastUsed.getTime()) : null;
+            return this;
+        }
+
         public ArtifactEntrySearchCriteria build()
         {
             ArtifactEntrySearchCriteria artifactEntrySearchCriteria = new ArtifactEntrySearchCriteria();
             artifactEntrySearchCriteria.lastAccessedTimeInDays = this.lastAccessedTimeInDays;
             artifactEntrySearchCriteria.minSizeInBytes = this.minSizeInBytes;
+            artifactEntrySearchCriteria.storageId = this.storageId;
+            artifactEntrySearchCriteria.repositoryId = this.repositoryId;
+            artifactEntrySearchCriteria.afterUuid = this.afterUuid;
+            artifactEntrySearchCriteria.afterLastUsed = this.afterLastUsed;
             return artifactEntrySearchCriteria;
         }
     }
@@ -1,8 +1,8 @@
 package org.carlspring.strongbox.storage.checksum;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -13,14 +13,16 @@ public class ArtifactChecksum
 
     /**
      * Key: Algorithm Value: Checksum
+     * <p>
+     * The checksums of an artifact are added and claimed by different upload threads.
      */
-    private Map<String, String> checksums = new LinkedHashMap<>();
+    private Map<String, String> checksums = new ConcurrentHashMap<>();
 
     /**
      * The last time this checksum object was accessed in any way. Used to determine when to remove entries from the
      * cache manager.
      */
-    private long lastAccessed;
+    private volatile long lastAccessed;
 
     private AtomicInteger numberOfChecksums = new AtomicInteger(0);
 
@@ -31,7 +33,7 @@ public class ArtifactChecksum
         updateLastAccessedTime();
     }
 
-    public synchronized void addChecksum(String algorithm,
+    public void addChecksum(String algorithm,
                                          String checksum)
     {
         checksums.put(algorithm, checksum);
@@ -44,7 +46,7 @@ public class ArtifactChecksum
         lastAccessed = System.currentTimeMillis();
     }
 
-    public synchronized Optional<String> removeChecksum(String algorithm)
+    public Optional<String> removeChecksum(String algorithm)
     {
         updateLastAccessedTime();
         return checksums.keySet()
@@ -62,12 +64,12 @@ public class ArtifactChecksum
         return checksums.get(algorithm);
     }
 
-    public synchronized void incrementNumberOfChecksums()
+    public void incrementNumberOfChecksums()
     {
         numberOfChecksums.incrementAndGet();
     }
 
-    public synchronized void incrementNumberOfValidatedChecksums()
+    public void incrementNumberOfValidatedChecksums()
     {
         numberOfValidatedChecksums.incrementAndGet();
     }
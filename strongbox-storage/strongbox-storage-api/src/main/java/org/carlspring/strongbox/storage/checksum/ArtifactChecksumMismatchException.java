@@ -0,0 +1,47 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the checksum of a downloaded artifact doesn't match the checksum published by the remote repository.
+ */
+public class ArtifactChecksumMismatchException
+        extends IOException
+{
+
+    private final String algorithm;
+
+    private final String expected;
+
+    private final String actual;
+
+
+    public ArtifactChecksumMismatchException(String resource,
+                                             String algorithm,
+                                             String expected,
+                                             String actual)
+    {
+        super(String.format("The %s checksum of [%s] is [%s], but the remote repository has [%s].",
+                            algorithm, resource, actual, expected));
+
+        this.algorithm = algorithm;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    public String getAlgorithm()
+    {
+        return algorithm;
+    }
+
+    public String getExpected()
+    {
+        return expected;
+    }
+
+    public String getActual()
+    {
+        return actual;
+    }
+
+}
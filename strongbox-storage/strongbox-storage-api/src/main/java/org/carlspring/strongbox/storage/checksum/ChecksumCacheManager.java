@@ -1,11 +1,17 @@
 package org.carlspring.strongbox.storage.checksum;
 
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +31,10 @@ import org.slf4j.LoggerFactory;
  * - a checksum is not claimed within cachedChecksumLifetime, trigger an event and log
  * this, then remove the checksum from the cache. (If this checksums set is empty,
  * remove the respective Checksum from the cachedChecksums).
+ * <p>
+ * The checksums are kept in a concurrent, bounded cache, where every entry expires on its own deadline
+ * ({@link #getCachedChecksumLifetime()} after it has last been accessed), so neither the uploads nor the expiry
+ * contend on a single lock or scan the whole cache.
  *
  * @author mtodorov
  */
@@ -33,11 +43,13 @@ public class ChecksumCacheManager
 
     private static Logger logger = LoggerFactory.getLogger(ChecksumCacheManager.class);
 
+    private static final String CACHE_NAME = "checksums";
+
     /**
      * Key:     Artifact path
      * Value:   Artifact checksum.
      */
-    private Map<String, ArtifactChecksum> cachedChecksums = new LinkedHashMap<>();
+    private volatile Cache<String, ArtifactChecksum> cachedChecksums;
 
     /**
      * Specifies how long to keep the cached checksums.
@@ -47,19 +59,30 @@ public class ChecksumCacheManager
     private long cachedChecksumLifetime = 5 * 60000;
 
     /**
-     * Specifies at what interval to check if the checksums have expired.
+     * Specifies at what interval the expired checksums are cleaned up, when the cache is not being used. (The
+     * expired checksums are never returned, and they're also cleaned up along with the cache operations.)
      * The default is to check once every minute.
      */
     private long cachedChecksumExpiredCheckInterval = 60000L;
 
+    /**
+     * Specifies how many artifacts can have cached checksums; the least recently used ones are evicted first.
+     */
+    private long maxSize = 100000L;
+
+    private ScheduledExecutorService expirer;
+
+    private MeterRegistry meterRegistry;
+
 
     public ChecksumCacheManager()
     {
+        cachedChecksums = createCache();
     }
 
     public boolean containsArtifactPath(String artifactPath)
     {
-        final boolean containsChecksum = cachedChecksums.containsKey(artifactPath);
+        final boolean containsChecksum = cachedChecksums.asMap().containsKey(artifactPath);
         if (containsChecksum)
         {
             logger.debug("Cache contains artifact path '{}'.", artifactPath);
@@ -71,12 +94,12 @@ public class ChecksumCacheManager
     public String getArtifactChecksum(String artifactBasePath,
                                       String algorithm)
     {
-        if (!cachedChecksums.containsKey(artifactBasePath))
+        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
+        if (artifactChecksum == null)
         {
             return null;
         }
 
-        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
         final String checksum = artifactChecksum.getChecksum(algorithm);
         if (checksum != null)
         {
@@ -88,40 +111,36 @@ public class ChecksumCacheManager
 
     public ArtifactChecksum getArtifactChecksum(String artifactBasePath)
     {
-        return cachedChecksums.get(artifactBasePath);
+        return cachedChecksums.getIfPresent(artifactBasePath);
     }
 
     public boolean validateChecksum(String artifactPath,
                                     String algorithm,
                                     String checksum)
     {
-        return getArtifactChecksum(artifactPath, algorithm).equals(checksum);
+        return checksum != null && checksum.equals(getArtifactChecksum(artifactPath, algorithm));
     }
 
-    public synchronized void addArtifactChecksum(String artifactBasePath,
-                                                 String algorithm,
-                                                 String checksum)
+    public void addArtifactChecksum(String artifactBasePath,
+                                    String algorithm,
+                                    String checksum)
     {
         logger.debug("Adding checksum '{}' [{}] for '{}' in cache.", checksum, algorithm, artifactBasePath);
 
-        if (cachedChecksums.containsKey(artifactBasePath))
-        {
-            final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
-            artifactChecksum.addChecksum(algorithm, checksum);
-        }
-        else
-        {
-            ArtifactChecksum artifactChecksum = new ArtifactChecksum();
+        // The checksum is added atomically with the creation of the entry, so that it can't be added to an entry
+        // which is being removed at the same time.
+        cachedChecksums.asMap().compute(artifactBasePath, (path, ac) -> {
+            ArtifactChecksum artifactChecksum = ac != null ? ac : new ArtifactChecksum();
             artifactChecksum.addChecksum(algorithm, checksum);
 
-            cachedChecksums.put(artifactBasePath, artifactChecksum);
-        }
+            return artifactChecksum;
+        });
     }
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath,
-                                                    String algorithm)
+    public void removeArtifactChecksum(String artifactBasePath,
+                                       String algorithm)
     {
-        Optional.ofNullable(getArtifactChecksum(artifactBasePath)).map(ac -> {
+        cachedChecksums.asMap().computeIfPresent(artifactBasePath, (path, ac) -> {
             logger.debug(ac.removeChecksum(algorithm)
                            .map(c -> String.format("Removed [%s] artifact checksum value [%s] from cache.",
                                                    artifactBasePath,
@@ -129,40 +148,22 @@ public class ChecksumCacheManager
                            .orElseGet(() -> String.format("Checksum algorithm [%s] not found for [%s] in cache.",
                                                           algorithm,
                                                           artifactBasePath)));
-            return ac;
-        }).filter(ac -> ac.getChecksums().isEmpty()).ifPresent(ac -> cachedChecksums.values().remove(ac));
+
+            // The entry is only removed if no checksum has been added to it in the meantime.
+            return ac.getChecksums().isEmpty() ? null : ac;
+        });
     }
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath)
+    public void removeArtifactChecksum(String artifactBasePath)
     {
-        Optional.ofNullable(cachedChecksums.remove(artifactBasePath))
+        Optional.ofNullable(cachedChecksums.asMap().remove(artifactBasePath))
                 .ifPresent(ac -> logger.debug("Removed [{}] artifact checksum value [{}] from cache.",
                                               artifactBasePath, ac));
     }
 
-    public synchronized void removeExpiredChecksums()
-    {
-        for (String checksum : getExpiredChecksums())
-        {
-            removeArtifactChecksum(checksum);
-        }
-    }
-
-    private Set<String> getExpiredChecksums()
+    public void removeExpiredChecksums()
     {
-        Set<String> expiredChecksums = new LinkedHashSet<>();
-
-        for (Map.Entry<String, ArtifactChecksum> artifactChecksumEntry : cachedChecksums.entrySet())
-        {
-            ArtifactChecksum checksum = artifactChecksumEntry.getValue();
-
-            if (System.currentTimeMillis() - checksum.getLastAccessed() > cachedChecksumLifetime)
-            {
-                expiredChecksums.add(artifactChecksumEntry.getKey());
-            }
-        }
-
-        return expiredChecksums;
+        cachedChecksums.cleanUp();
     }
 
     public long getCachedChecksumLifetime()
@@ -173,6 +174,8 @@ public class ChecksumCacheManager
     public void setCachedChecksumLifetime(long cachedChecksumLifetime)
     {
         this.cachedChecksumLifetime = cachedChecksumLifetime;
+
+        rebuildCache();
     }
 
     public long getCachedChecksumExpiredCheckInterval()
@@ -185,41 +188,114 @@ public class ChecksumCacheManager
         this.cachedChecksumExpiredCheckInterval = cachedChecksumExpiredCheckInterval;
     }
 
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize)
+    {
+        this.maxSize = maxSize;
+
+        rebuildCache();
+    }
+
     public long getSize()
     {
+        // The expired entries are only counted until they're cleaned up.
+        cachedChecksums.cleanUp();
+
         return cachedChecksums.size();
     }
 
-    public void startMonitor()
+    /**
+     * @return the hit, miss and eviction counts of the cache
+     */
+    public CacheStats getStats()
+    {
+        return cachedChecksums.stats();
+    }
+
+    /**
+     * Binds the statistics of the cache to the {@code cache.*} meters, tagged with {@code cache=checksums}. The
+     * meters follow the cache when it's rebuilt by the configuration setters.
+     */
+    public synchronized void bindMetrics(MeterRegistry registry)
+    {
+        unbindMetrics();
+
+        meterRegistry = registry;
+        GuavaCacheMetrics.monitor(meterRegistry, cachedChecksums, CACHE_NAME);
+    }
+
+    private void unbindMetrics()
     {
-        new CachedChecksumExpirer();
+        if (meterRegistry == null)
+        {
+            return;
+        }
+
+        meterRegistry.getMeters()
+                     .stream()
+                     .filter(m -> CACHE_NAME.equals(m.getId().getTag("cache")))
+                     .forEach(meterRegistry::remove);
     }
 
-    private class CachedChecksumExpirer
-            extends Thread
+    public synchronized void startMonitor()
     {
+        if (expirer != null)
+        {
+            return;
+        }
 
-        private CachedChecksumExpirer()
+        expirer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("checksum-cache-expirer")
+                                                                                       .setDaemon(true)
+                                                                                       .build());
+        expirer.scheduleWithFixedDelay(this::removeExpiredChecksums,
+                                       cachedChecksumExpiredCheckInterval,
+                                       cachedChecksumExpiredCheckInterval,
+                                       TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopMonitor()
+    {
+        if (expirer != null)
         {
-            start();
+            expirer.shutdownNow();
+            expirer = null;
         }
+    }
+
+    private Cache<String, ArtifactChecksum> createCache()
+    {
+        return CacheBuilder.newBuilder()
+                           .expireAfterAccess(cachedChecksumLifetime, TimeUnit.MILLISECONDS)
+                           .maximumSize(maxSize)
+                           .recordStats()
+                           .<String, ArtifactChecksum>removalListener(n -> {
+                               if (n.getCause() == RemovalCause.EXPIRED || n.getCause() == RemovalCause.SIZE)
+                               {
+                                   logger.debug("Checksums of [{}] have not been claimed ({}): [{}]",
+                                                n.getKey(), n.getCause(), n.getValue());
+                               }
+                           })
+                           .build();
+    }
+
+    /**
+     * The expiry and the size limit of a cache can't be changed, so the configuration setters replace the cache,
+     * keeping its entries.
+     */
+    private synchronized void rebuildCache()
+    {
+        Cache<String, ArtifactChecksum> cache = createCache();
+        cache.putAll(cachedChecksums.asMap());
+
+        cachedChecksums = cache;
 
-        @Override
-        public void run()
+        if (meterRegistry != null)
         {
-            try
-            {
-                //noinspection InfiniteLoopStatement
-                while (true)
-                {
-                    Thread.sleep(getCachedChecksumExpiredCheckInterval());
-                    removeExpiredChecksums();
-                }
-            }
-            catch (InterruptedException e)
-            {
-                logger.error(e.getMessage(), e);
-            }
+            bindMetrics(meterRegistry);
         }
     }
 
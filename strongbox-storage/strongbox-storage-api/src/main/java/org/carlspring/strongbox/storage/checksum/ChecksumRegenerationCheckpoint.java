@@ -0,0 +1,257 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps track of the directories for which the checksums have already been regenerated, so that an
+ * interrupted regeneration can resume where it stopped instead of starting from scratch.
+ * <p>
+ * The completed directories are appended to a checkpoint file, kept outside of the repository. Each kind of run
+ * (base path and regeneration mode, described by the header) has its own file, which is locked for as long as the
+ * run lasts, so that concurrent runs don't overwrite each other's progress. The file is removed once the
+ * regeneration has {@link #complete() completed}.
+ */
+public class ChecksumRegenerationCheckpoint
+        implements Closeable
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ChecksumRegenerationCheckpoint.class);
+
+    private static final String FILE_NAME_PREFIX = "checksum-regeneration-";
+
+    private static final String FILE_NAME_SUFFIX = ".checkpoint";
+
+    /**
+     * The checkpoint files held by the runs of this JVM, as {@link FileChannel#tryLock()} doesn't exclude them.
+     */
+    private static final Set<Path> HELD_CHECKPOINTS = ConcurrentHashMap.newKeySet();
+
+    private final Path checkpointPath;
+
+    private final Set<String> completedPaths = ConcurrentHashMap.newKeySet();
+
+    private FileChannel channel;
+
+    private FileLock lock;
+
+    private Writer writer;
+
+
+    private ChecksumRegenerationCheckpoint(Path checkpointPath)
+    {
+        this.checkpointPath = checkpointPath;
+    }
+
+    /**
+     * @param checkpointDirectory the directory of the checkpoint files of a repository
+     * @param header              describes the regeneration run; only a checkpoint with the same header is resumed
+     * @return the checkpoint, or {@code null} if the same kind of run is already in progress
+     */
+    public static ChecksumRegenerationCheckpoint tryOpen(Path checkpointDirectory,
+                                                         String header)
+            throws IOException
+    {
+        Path checkpointPath = checkpointDirectory.resolve(getFileName(header)).toAbsolutePath().normalize();
+        if (!HELD_CHECKPOINTS.add(checkpointPath))
+        {
+            return null;
+        }
+
+        ChecksumRegenerationCheckpoint checkpoint = new ChecksumRegenerationCheckpoint(checkpointPath);
+        try
+        {
+            if (!checkpoint.lock())
+            {
+                checkpoint.close();
+
+                return null;
+            }
+
+            checkpoint.load(header);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            checkpoint.close();
+
+            throw e;
+        }
+
+        return checkpoint;
+    }
+
+    static String getFileName(String header)
+    {
+        return FILE_NAME_PREFIX +
+               UUID.nameUUIDFromBytes(header.getBytes(StandardCharsets.UTF_8)) +
+               FILE_NAME_SUFFIX;
+    }
+
+    private boolean lock()
+            throws IOException
+    {
+        Files.createDirectories(checkpointPath.getParent());
+
+        channel = FileChannel.open(checkpointPath,
+                                   StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+        try
+        {
+            lock = channel.tryLock();
+        }
+        catch (OverlappingFileLockException e)
+        {
+            lock = null;
+        }
+
+        return lock != null;
+    }
+
+    private void load(String header)
+            throws IOException
+    {
+        ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+        while (content.hasRemaining() && channel.read(content, content.position()) != -1)
+        {
+            // Read the whole file.
+        }
+
+        boolean resume = false;
+        try (BufferedReader reader = new BufferedReader(new StringReader(new String(content.array(),
+                                                                                    0,
+                                                                                    content.position(),
+                                                                                    StandardCharsets.UTF_8))))
+        {
+            resume = header.equals(reader.readLine());
+
+            String line;
+            while (resume && (line = reader.readLine()) != null)
+            {
+                completedPaths.add(line);
+            }
+        }
+
+        writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+        if (resume)
+        {
+            logger.info("Resuming checksum regeneration from [{}] with [{}] completed directories.",
+                        checkpointPath, completedPaths.size());
+
+            channel.position(channel.size());
+        }
+        else
+        {
+            completedPaths.clear();
+
+            channel.truncate(0);
+            channel.position(0);
+
+            writer.write(header);
+            writer.write(System.lineSeparator());
+            writer.flush();
+        }
+    }
+
+    public boolean isCompleted(RepositoryPath directoryPath)
+    {
+        return isCompleted(toKey(directoryPath));
+    }
+
+    /**
+     * @param directory the directory, relative to its repository
+     */
+    public boolean isCompleted(String directory)
+    {
+        return completedPaths.contains(directory);
+    }
+
+    public void markCompleted(RepositoryPath directoryPath)
+            throws IOException
+    {
+        markCompleted(toKey(directoryPath));
+    }
+
+    /**
+     * Records a directory for which all the checksums have been regenerated successfully.
+     *
+     * @param directory the directory, relative to its repository
+     */
+    public synchronized void markCompleted(String directory)
+            throws IOException
+    {
+        if (!completedPaths.add(directory))
+        {
+            return;
+        }
+
+        writer.write(directory);
+        writer.write(System.lineSeparator());
+        writer.flush();
+    }
+
+    /**
+     * Removes the checkpoint, as there is nothing left to resume.
+     */
+    public synchronized void complete()
+            throws IOException
+    {
+        // Removed while the lock is still held, so that no other run can start with this file in the meantime.
+        Files.deleteIfExists(checkpointPath);
+        close();
+    }
+
+    @Override
+    public synchronized void close()
+            throws IOException
+    {
+        try
+        {
+            if (writer != null)
+            {
+                writer.flush();
+                writer = null;
+            }
+            if (lock != null)
+            {
+                lock.release();
+                lock = null;
+            }
+            if (channel != null)
+            {
+                channel.close();
+                channel = null;
+            }
+        }
+        finally
+        {
+            HELD_CHECKPOINTS.remove(checkpointPath);
+        }
+    }
+
+    private static String toKey(RepositoryPath directoryPath)
+    {
+        return directoryPath.relativize().toString();
+    }
+
+}
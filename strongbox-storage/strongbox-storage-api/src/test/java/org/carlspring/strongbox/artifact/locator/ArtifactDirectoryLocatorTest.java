@@ -0,0 +1,171 @@
+package org.carlspring.strongbox.artifact.locator;
+
+import org.carlspring.strongbox.artifact.locator.handlers.ArtifactDirectoryOperation;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.testing.NullFileSystemProvider;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactDirectoryLocatorTest
+{
+
+    private static final int ARTIFACTS = 20;
+
+    private Path basedir;
+
+    private RepositoryPath repositoryBasedir;
+
+    private Set<String> directories;
+
+    @BeforeEach
+    public void setup()
+            throws IOException
+    {
+        basedir = Files.createTempDirectory("strongbox-locator").toRealPath();
+
+        // More artifacts than the tasks of a batch, so that a directory is forked in several batches.
+        directories = new HashSet<>();
+        directories.add("");
+        directories.add("org");
+        directories.add("org/carlspring");
+        for (int i = 0; i < ARTIFACTS; i++)
+        {
+            for (String version : new String[]{ "1.0", "1.1" })
+            {
+                directories.add("org/carlspring/artifact-" + i);
+                directories.add("org/carlspring/artifact-" + i + "/" + version);
+                Files.createDirectories(basedir.resolve("org/carlspring/artifact-" + i + "/" + version));
+                Files.createFile(basedir.resolve("org/carlspring/artifact-" + i + "/" + version + "/artifact.jar"));
+            }
+        }
+
+        Files.createDirectories(basedir.resolve(".index/org"));
+        Files.createSymbolicLink(basedir.resolve("org/carlspring/artifact-0/loop"), basedir.resolve("org"));
+
+        RepositoryDto repository = new RepositoryDto();
+        repository.setBasedir(basedir.toString());
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new PropertiesBooter(),
+                                                           new RepositoryData(repository),
+                                                           FileSystems.getDefault(),
+                                                           new NullFileSystemProvider(
+                                                                   FileSystems.getDefault().provider()));
+        repositoryBasedir = fileSystem.getRootDirectory();
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        FileSystemUtils.deleteRecursively(basedir);
+    }
+
+    @Test
+    public void shouldVisitEveryDirectoryOnce()
+            throws IOException
+    {
+        locate(1);
+    }
+
+    @Test
+    public void shouldVisitEveryDirectoryOnceInParallel()
+            throws IOException
+    {
+        locate(4);
+    }
+
+    private void locate(int parallelism)
+            throws IOException
+    {
+        RecordingOperation operation = new RecordingOperation();
+
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setOperation(operation);
+        locator.setBasedir(repositoryBasedir);
+        locator.setParallelism(parallelism);
+        locator.locateArtifactDirectories();
+
+        // The hidden directories and the link (back to one of the parents) are skipped.
+        assertThat(operation.executions.keySet()).containsExactlyInAnyOrderElementsOf(directories);
+        assertThat(operation.executions.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+
+        // A directory is only post-executed once all of its sub-directories have been.
+        assertThat(operation.postExecutions.keySet()).containsExactlyInAnyOrderElementsOf(directories);
+        for (String directory : directories)
+        {
+            if (directory.isEmpty())
+            {
+                continue;
+            }
+
+            Path parent = Paths.get(directory).getParent();
+            String parentDirectory = parent != null ? parent.toString() : "";
+            assertThat(operation.postExecutions.get(directory)).isLessThan(
+                    operation.postExecutions.get(parentDirectory));
+        }
+    }
+
+    private class RecordingOperation
+            implements ArtifactDirectoryOperation
+    {
+
+        private final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+        private final Map<String, Integer> postExecutions = new ConcurrentHashMap<>();
+
+        private final AtomicInteger postExecutionSequence = new AtomicInteger();
+
+        private final Map<RepositoryPath, List<RepositoryPath>> visitedRootPaths = new ConcurrentHashMap<>();
+
+        @Override
+        public void execute(RepositoryPath directoryPath)
+        {
+            executions.computeIfAbsent(relativize(directoryPath), p -> new AtomicInteger()).incrementAndGet();
+        }
+
+        @Override
+        public void postExecute(RepositoryPath directoryPath)
+        {
+            postExecutions.put(relativize(directoryPath), postExecutionSequence.incrementAndGet());
+        }
+
+        @Override
+        public Map<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths()
+        {
+            return visitedRootPaths;
+        }
+
+        @Override
+        public RepositoryPath getBasePath()
+        {
+            return null;
+        }
+
+        private String relativize(RepositoryPath directoryPath)
+        {
+            return basedir.relativize(Paths.get(directoryPath.toString())).toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.carlspring.strongbox.booters;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.layout.LayoutProvider;
+import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ILock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class StorageBooterTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private LayoutProviderRegistry layoutProviderRegistry;
+
+    @Mock
+    private RepositoryManagementService repositoryManagementService;
+
+    @Mock
+    private GroupRepositorySetCollector groupRepositorySetCollector;
+
+    @Mock
+    private HazelcastInstance hazelcastInstance;
+
+    @Mock
+    private ILock lock;
+
+    @Mock
+    private Storage storage;
+
+    @InjectMocks
+    private StorageBooter storageBooter;
+
+    private final Map<String, Repository> repositories = new LinkedHashMap<>();
+
+    private final List<String> initializedRepositories = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        MockitoAnnotations.initMocks(this);
+
+        ReflectionTestUtils.setField(storageBooter, "parallelism", 4);
+
+        Configuration configuration = Mockito.mock(Configuration.class);
+        Mockito.when(configuration.getStorages()).thenReturn(Collections.singletonMap(STORAGE_ID, storage));
+        Mockito.when(configurationManager.getConfiguration()).thenReturn(configuration);
+        Mockito.doReturn(repositories).when(storage).getRepositories();
+        Mockito.when(storage.getId()).thenReturn(STORAGE_ID);
+
+        Mockito.when(hazelcastInstance.getLock(anyString())).thenReturn(lock);
+        Mockito.when(lock.tryLock()).thenReturn(true);
+
+        Mockito.when(layoutProviderRegistry.getProvider(any())).thenReturn(Mockito.mock(LayoutProvider.class));
+
+        Mockito.doAnswer(invocation -> {
+            String repositoryId = invocation.getArgument(1);
+            // The members take a while, so that a group which doesn't wait for them would be initialized first.
+            if (!repositories.get(repositoryId).isGroupRepository())
+            {
+                Thread.sleep(200);
+            }
+            initializedRepositories.add(repositoryId);
+
+            return null;
+        }).when(repositoryManagementService).createRepository(eq(STORAGE_ID), anyString());
+
+        // The outer group is configured first, and contains a nested group.
+        group("group-outer", "group-inner", "snapshots");
+        group("group-inner", "releases");
+        repository("releases");
+        repository("snapshots");
+    }
+
+    @Test
+    public void shouldInitializeTheGroupsAfterTheirMembers()
+            throws Exception
+    {
+        storageBooter.initialize();
+
+        assertThat(initializedRepositories).containsExactlyInAnyOrder("releases",
+                                                                      "snapshots",
+                                                                      "group-inner",
+                                                                      "group-outer");
+        assertThat(initializedRepositories.indexOf("group-inner")).isGreaterThan(
+                initializedRepositories.indexOf("releases"));
+        assertThat(initializedRepositories.indexOf("group-outer")).isGreaterThan(
+                initializedRepositories.indexOf("group-inner"));
+        assertThat(initializedRepositories.indexOf("group-outer")).isGreaterThan(
+                initializedRepositories.indexOf("snapshots"));
+
+        Mockito.verify(lock).unlock();
+    }
+
+    @Test
+    public void shouldPropagateTheFailureOfARepository()
+            throws Exception
+    {
+        Mockito.doThrow(new IOException("Failed to create releases."))
+               .when(repositoryManagementService)
+               .createRepository(STORAGE_ID, "releases");
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> storageBooter.initialize())
+                                                    .withMessage("Failed to create releases.");
+
+        // The groups which depend on the failed repository are not initialized.
+        assertThat(initializedRepositories).containsExactly("snapshots");
+
+        Mockito.verify(lock).unlock();
+    }
+
+    private void repository(String repositoryId)
+    {
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn(repositoryId);
+        Mockito.when(repository.getStorageIdAndRepositoryId()).thenReturn(STORAGE_ID + ":" + repositoryId);
+        Mockito.doReturn(storage).when(repository).getStorage();
+        Mockito.when(repository.getLayout()).thenReturn("Maven 2");
+
+        repositories.put(repositoryId, repository);
+    }
+
+    private void group(String repositoryId,
+                       String... members)
+    {
+        repository(repositoryId);
+
+        Repository repository = repositories.get(repositoryId);
+        Mockito.when(repository.isGroupRepository()).thenReturn(true);
+        Mockito.when(repository.getGroupRepositories()).thenReturn(new LinkedHashSet<>(Arrays.asList(members)));
+        Mockito.when(groupRepositorySetCollector.collect(repository, false)).thenAnswer(
+                invocation -> new LinkedHashSet<>(Arrays.stream(members)
+                                                        .map(repositories::get)
+                                                        .collect(Collectors.toList())));
+    }
+
+}
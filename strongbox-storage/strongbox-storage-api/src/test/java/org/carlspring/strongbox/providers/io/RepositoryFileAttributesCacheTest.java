@@ -0,0 +1,88 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RepositoryFileAttributesCacheTest
+{
+
+    private final LayoutFileSystem fileSystem = Mockito.mock(LayoutFileSystem.class);
+
+    private final RepositoryFileAttributesCache cache = new RepositoryFileAttributesCache(100);
+
+    @Test
+    public void shouldInvalidateTheTreeOfADirectory()
+    {
+        Mockito.when(fileSystem.getSeparator()).thenReturn("/");
+
+        RepositoryPath directory = path("/storage0/releases/org/carlspring");
+        RepositoryPath file = path("/storage0/releases/org/carlspring/strongbox/1.0/strongbox-1.0.jar");
+        RepositoryPath sibling = path("/storage0/releases/org/carlspring-commons/1.0/carlspring-commons-1.0.jar");
+        RepositoryPath parent = path("/storage0/releases/org");
+
+        for (RepositoryPath path : new RepositoryPath[]{ directory, file, sibling, parent })
+        {
+            cache.put(path, Collections.singletonMap(RepositoryFileAttributeType.CHECKSUM, false));
+        }
+
+        cache.invalidateTree(directory);
+
+        assertThat(cache.get(directory)).isEmpty();
+        assertThat(cache.get(file)).isEmpty();
+        assertThat(cache.get(sibling)).containsKey(RepositoryFileAttributeType.CHECKSUM);
+        assertThat(cache.get(parent)).containsKey(RepositoryFileAttributeType.CHECKSUM);
+
+        // The tree can be cached and invalidated again.
+        cache.put(file, Collections.singletonMap(RepositoryFileAttributeType.CHECKSUM, false));
+        cache.invalidateTree(directory);
+
+        assertThat(cache.get(file)).isEmpty();
+    }
+
+    @Test
+    public void shouldHandOutCopiesOfTheCoordinates()
+    {
+        RepositoryPath file = path("/storage0/releases/org/carlspring/strongbox-1.0.jar");
+
+        RawArtifactCoordinates coordinates = new RawArtifactCoordinates("org/carlspring/strongbox-1.0.jar");
+        Map<RepositoryFileAttributeType, Object> attributes = new EnumMap<>(RepositoryFileAttributeType.class);
+        attributes.put(RepositoryFileAttributeType.COORDINATES, coordinates);
+        attributes.put(RepositoryFileAttributeType.EXPIRED, false);
+        cache.put(file, attributes);
+
+        coordinates.setId("org/carlspring/changed.jar");
+
+        Map<RepositoryFileAttributeType, Object> cached = cache.get(file);
+        assertThat(cached).doesNotContainKey(RepositoryFileAttributeType.EXPIRED);
+
+        RawArtifactCoordinates first = (RawArtifactCoordinates) cached.get(RepositoryFileAttributeType.COORDINATES);
+        assertThat(first.getId()).isEqualTo("org/carlspring/strongbox-1.0.jar");
+
+        first.setId("org/carlspring/changed.jar");
+
+        RawArtifactCoordinates second = (RawArtifactCoordinates) cache.get(file)
+                                                                       .get(RepositoryFileAttributeType.COORDINATES);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getId()).isEqualTo("org/carlspring/strongbox-1.0.jar");
+    }
+
+    private RepositoryPath path(String path)
+    {
+        RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+        Mockito.when(repositoryPath.isAbsolute()).thenReturn(true);
+        Mockito.when(repositoryPath.normalize()).thenReturn(repositoryPath);
+        Mockito.when(repositoryPath.toAbsolutePath()).thenReturn(repositoryPath);
+        Mockito.when(repositoryPath.getFileSystem()).thenReturn(fileSystem);
+        Mockito.when(repositoryPath.toString()).thenReturn(path);
+
+        return repositoryPath;
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimedReadWriteLockTest
+{
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup()
+    {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    public void shouldRecordTheHoldTimeFromTheFirstAcquisitionToTheLastRelease()
+    {
+        Lock lock = new TimedReadWriteLock(new ReentrantReadWriteLock()).writeLock();
+
+        lock.lock();
+        lock.lock();
+        lock.unlock();
+
+        assertThat(timer("strongbox.storage.lock.wait", "write").count()).isEqualTo(2);
+        assertThat(timer("strongbox.storage.lock.hold", "write").count()).isEqualTo(0);
+
+        lock.unlock();
+
+        assertThat(timer("strongbox.storage.lock.hold", "write").count()).isEqualTo(1);
+        assertThat(timer("strongbox.storage.lock.hold", "read").count()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRecordTheWaitTimeOfTheFailedAttempts()
+            throws InterruptedException
+    {
+        ReentrantReadWriteLock delegate = new ReentrantReadWriteLock();
+        delegate.writeLock().lock();
+        try
+        {
+            Lock lock = new TimedReadWriteLock(delegate).readLock();
+
+            // The read lock can't be acquired by another thread while the write lock is held.
+            Thread thread = new Thread(() -> {
+                try
+                {
+                    assertThat(lock.tryLock(10, TimeUnit.MILLISECONDS)).isFalse();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            thread.join();
+
+            Timer waitTimer = timer("strongbox.storage.lock.wait", "read");
+            assertThat(waitTimer.count()).isEqualTo(1);
+            assertThat(waitTimer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+            assertThat(timer("strongbox.storage.lock.hold", "read").count()).isEqualTo(0);
+        }
+        finally
+        {
+            delegate.writeLock().unlock();
+        }
+    }
+
+    private Timer timer(String name,
+                        String mode)
+    {
+        return meterRegistry.get(name).tag("mode", mode).timer();
+    }
+
+}
@@ -0,0 +1,237 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class LocalStorageProxyRepositoryExpiredArtifactsCleanerTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "proxy";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private RemoteRepositoryAlivenessService remoteRepositoryAlivenessCacheManager;
+
+    @Mock
+    private ArtifactManagementService artifactManagementService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private LocalStorageProxyRepositoryExpiredArtifactsCleaner cleaner;
+
+    private final List<ArtifactEntry> artifactEntries = new ArrayList<>();
+
+    private final List<ArtifactEntrySearchCriteria> quotaQueries = new ArrayList<>();
+
+    private final List<String> deletedPaths = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        MockitoAnnotations.initMocks(this);
+
+        // Small chunks, so that the keyset paging goes over several of them, and a single thread, so that the
+        // deletions happen in the order of the candidates.
+        ReflectionTestUtils.setField(cleaner, "chunkSize", 2);
+        ReflectionTestUtils.setField(cleaner, "parallelism", 1);
+
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.getId()).thenReturn(STORAGE_ID);
+
+        RemoteRepository remoteRepository = Mockito.mock(RemoteRepository.class);
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn(REPOSITORY_ID);
+        Mockito.when(repository.getStorage()).thenReturn(storage);
+        Mockito.when(repository.isProxyRepository()).thenReturn(true);
+        Mockito.when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+        Mockito.doReturn(Collections.singletonMap(REPOSITORY_ID, repository)).when(storage).getRepositories();
+
+        Configuration configuration = Mockito.mock(Configuration.class);
+        Mockito.when(configuration.getStorages()).thenReturn(Collections.singletonMap(STORAGE_ID, storage));
+        Mockito.when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        Mockito.when(remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository)).thenReturn(true);
+
+        Mockito.when(artifactEntryService.sumSizeInBytes(STORAGE_ID, REPOSITORY_ID))
+               .thenAnswer(invocation -> artifactEntries.stream().mapToLong(ArtifactEntry::getSizeInBytes).sum());
+        Mockito.when(artifactEntryService.findMatching(any(ArtifactEntrySearchCriteria.class),
+                                                       any(PagingCriteria.class)))
+               .thenAnswer(invocation -> findMatching(invocation.getArgument(0), invocation.getArgument(1)));
+
+        Mockito.when(repositoryPathResolver.resolve(eq(repository), anyString())).thenAnswer(invocation -> {
+            deletedPaths.add(invocation.getArgument(1));
+
+            return Mockito.mock(RepositoryPath.class);
+        });
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedArtifactsFirst()
+            throws Exception
+    {
+        addArtifactEntry("c", 100, 3000);
+        addArtifactEntry("a", 100, 1000);
+        addArtifactEntry("e", 100, 5000);
+        addArtifactEntry("b", 100, 2000);
+        addArtifactEntry("d", 100, 4000);
+
+        cleaner.cleanup(null, null, 250L);
+
+        assertThat(deletedPaths).containsExactly("a", "b", "c");
+        Mockito.verify(artifactManagementService, Mockito.times(3)).delete(any(RepositoryPath.class), eq(true));
+    }
+
+    @Test
+    public void shouldNotEvictAnythingWithinTheQuota()
+            throws Exception
+    {
+        addArtifactEntry("a", 100, 1000);
+        addArtifactEntry("b", 100, 2000);
+
+        cleaner.cleanup(null, null, 200L);
+
+        assertThat(deletedPaths).isEmpty();
+        assertThat(quotaQueries).isEmpty();
+
+        cleaner.cleanup(null, null, 199L);
+
+        assertThat(deletedPaths).containsExactly("a");
+    }
+
+    @Test
+    public void shouldPageThroughTheArtifactsUsedAtTheSameTime()
+            throws Exception
+    {
+        // All the artifacts have been used at the same time, so the pages are only told apart by the uuid.
+        addArtifactEntry("d", 10, 1000);
+        addArtifactEntry("b", 10, 1000);
+        addArtifactEntry("a", 10, 1000);
+        addArtifactEntry("c", 10, 1000);
+        addArtifactEntry("e", 10, 1000);
+
+        cleaner.cleanup(null, null, 0L);
+
+        assertThat(deletedPaths).containsExactly("a", "b", "c", "d", "e");
+        assertThat(quotaQueries).extracting(ArtifactEntrySearchCriteria::getAfterUuid)
+                                .containsExactly("", "b", "d");
+    }
+
+    @Test
+    public void shouldStopPagingOnceTheExcessIsEvicted()
+            throws Exception
+    {
+        addArtifactEntry("a", 100, 1000);
+        addArtifactEntry("b", 100, 2000);
+        addArtifactEntry("c", 100, 3000);
+        addArtifactEntry("d", 100, 4000);
+        addArtifactEntry("e", 100, 5000);
+
+        cleaner.cleanup(null, null, 350L);
+
+        assertThat(deletedPaths).containsExactly("a", "b");
+        assertThat(quotaQueries).hasSize(1);
+    }
+
+    @Test
+    public void shouldCarryOnWhenAnEvictionFails()
+            throws Exception
+    {
+        addArtifactEntry("a", 100, 1000);
+        addArtifactEntry("b", 100, 2000);
+        addArtifactEntry("c", 100, 3000);
+
+        Mockito.doThrow(new IllegalStateException("Failed"))
+               .doNothing()
+               .when(artifactManagementService)
+               .delete(any(RepositoryPath.class), eq(true));
+
+        cleaner.cleanup(null, null, 250L);
+
+        // The failed eviction of "a" hasn't freed any space, so "b" is evicted as well.
+        assertThat(deletedPaths).containsExactly("a", "b");
+    }
+
+    private void addArtifactEntry(String uuid,
+                                  long sizeInBytes,
+                                  long lastUsed)
+    {
+        ArtifactEntry artifactEntry = Mockito.mock(ArtifactEntry.class);
+        Mockito.when(artifactEntry.getUuid()).thenReturn(uuid);
+        Mockito.when(artifactEntry.getArtifactPath()).thenReturn(uuid);
+        Mockito.when(artifactEntry.getSizeInBytes()).thenReturn(sizeInBytes);
+        Mockito.when(artifactEntry.getLastUsed()).thenReturn(new Date(lastUsed));
+
+        artifactEntries.add(artifactEntry);
+    }
+
+    /**
+     * Mimics the keyset paging of the quota query, ordered by the last usage and the uuid.
+     */
+    private List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
+                                             PagingCriteria pagingCriteria)
+    {
+        Date afterLastUsed = searchCriteria.getAfterLastUsed();
+        if (afterLastUsed == null)
+        {
+            // No artifact is expired in these tests.
+            return Collections.emptyList();
+        }
+        quotaQueries.add(searchCriteria);
+
+        String afterUuid = searchCriteria.getAfterUuid();
+
+        return artifactEntries.stream()
+                              .filter(e -> e.getLastUsed().after(afterLastUsed) ||
+                                           e.getLastUsed().equals(afterLastUsed) &&
+                                           e.getUuid().compareTo(afterUuid) > 0)
+                              .sorted(Comparator.comparing(ArtifactEntry::getLastUsed)
+                                                .thenComparing(ArtifactEntry::getUuid))
+                              .limit(pagingCriteria.getLimit())
+                              .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,249 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.CloseableRestResponse;
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteArtifactRangedDownloader.RangedDownloadInputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.springframework.util.FileSystemUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class RemoteArtifactRangedDownloaderTest
+{
+
+    private static final URI RESOURCE = URI.create("org/carlspring/strongbox/1.0/strongbox-1.0.jar");
+
+    private final byte[] content = new byte[1000];
+
+    private final List<String> requestedRanges = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<CloseableRestResponse> singleStreams = new ArrayList<>();
+
+    private RestArtifactResolver client;
+
+    private ExecutorService executorService;
+
+    private Path basedir;
+
+    private Path file;
+
+    private RemoteArtifactRangedDownloader downloader;
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        new Random(42).nextBytes(content);
+
+        client = Mockito.mock(RestArtifactResolver.class, Answers.RETURNS_DEEP_STUBS);
+        Mockito.when(client.getConfiguration().getMaxNumberOfAttempts()).thenReturn(2);
+
+        executorService = Executors.newFixedThreadPool(2);
+
+        basedir = Files.createTempDirectory("strongbox-ranges");
+        file = basedir.resolve("strongbox-1.0.jar.part");
+
+        downloader = new RemoteArtifactRangedDownloader(client, executorService);
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        executorService.shutdownNow();
+        FileSystemUtils.deleteRecursively(basedir);
+    }
+
+    @Test
+    public void shouldDownloadTheRangesIntoTheirPositions()
+            throws IOException
+    {
+        mockRanges(-1);
+
+        // The size of the artifact is only known from the response to the first part.
+        try (InputStream is = downloader.download(RESOURCE, file, content.length, 3, this::singleStream))
+        {
+            assertThat(is).isInstanceOf(RangedDownloadInputStream.class);
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(content);
+
+            // The validators of the artifact are kept for its revalidation.
+            RangedDownloadInputStream rangedStream = (RangedDownloadInputStream) is;
+            assertThat(rangedStream.getRemoteHeader(HttpHeaders.ETAG)).isEqualTo("\"abc\"");
+            assertThat(rangedStream.getRemoteHeader("etag")).isEqualTo("\"abc\"");
+        }
+
+        assertThat(requestedRanges).containsExactlyInAnyOrder("0-333", "334-666", "667-999");
+        assertThat(singleStreams).isEmpty();
+        assertThat(Files.exists(file)).isFalse();
+        Mockito.verify(client, Mockito.never()).head(anyString());
+    }
+
+    @Test
+    public void shouldDownloadTheRestOfASmallerArtifactInOneRange()
+            throws IOException
+    {
+        mockRanges(-1);
+
+        try (InputStream is = downloader.download(RESOURCE, file, 1600, 4, this::singleStream))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(content);
+        }
+
+        assertThat(requestedRanges).containsExactlyInAnyOrder("0-399", "400-999");
+    }
+
+    @Test
+    public void shouldStreamAnArtifactWhichFitsIntoTheFirstPart()
+            throws IOException
+    {
+        mockRanges(-1);
+
+        try (InputStream is = downloader.download(RESOURCE, file, 8000, 4, this::singleStream))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(content);
+        }
+
+        assertThat(requestedRanges).containsExactly("0-1999");
+        assertThat(singleStreams).hasSize(1);
+        assertThat(Files.exists(file)).isFalse();
+    }
+
+    @Test
+    public void shouldStreamTheArtifactWithoutTheRemoteSupport()
+            throws IOException
+    {
+        // A remote repository which ignores the range requests responds with the whole artifact.
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatus()).thenReturn(200);
+        Mockito.when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream(content));
+        Mockito.when(client.get(anyString(), anyLong(), anyLong())).thenReturn(new CloseableRestResponse(response));
+
+        try (InputStream is = downloader.download(RESOURCE, file, content.length, 2, this::singleStream))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(content);
+        }
+
+        assertThat(singleStreams).hasSize(1);
+        assertThat(Files.exists(file)).isFalse();
+    }
+
+    @Test
+    public void shouldReportAMissingArtifact()
+    {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatus()).thenReturn(404);
+        Mockito.when(client.get(anyString(), anyLong(), anyLong())).thenReturn(new CloseableRestResponse(response));
+
+        assertThatThrownBy(() -> downloader.download(RESOURCE, file, content.length, 2, this::singleStream))
+                .isInstanceOf(ArtifactNotFoundException.class);
+
+        Mockito.verify(response).close();
+        assertThat(singleStreams).isEmpty();
+    }
+
+    @Test
+    public void shouldResumeAnInterruptedPart()
+            throws IOException
+    {
+        AtomicInteger attempts = new AtomicInteger();
+        Mockito.when(client.get(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+
+            // The first part is cut off half way the first time.
+            return range(from, to, from == 0 && attempts.getAndIncrement() == 0 ? 250 : -1);
+        });
+
+        try (InputStream is = downloader.download(RESOURCE, file, content.length, 2, this::singleStream))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(content);
+        }
+
+        assertThat(requestedRanges).containsExactlyInAnyOrder("0-499", "250-499", "500-999");
+    }
+
+    @Test
+    public void shouldFailWhenAPartKeepsFailing()
+    {
+        // The second part is always cut off at the same position.
+        mockRanges(600);
+
+        assertThatThrownBy(() -> downloader.download(RESOURCE, file, content.length, 2, this::singleStream))
+                .isInstanceOf(IOException.class);
+
+        // The part is only attempted as many times as configured.
+        assertThat(requestedRanges).filteredOn(r -> !r.startsWith("0-")).containsExactly("500-999", "600-999");
+        assertThat(Files.exists(file)).isFalse();
+    }
+
+    private InputStream singleStream(CloseableRestResponse response)
+    {
+        singleStreams.add(response);
+
+        return response.getResponse().readEntity(InputStream.class);
+    }
+
+    /**
+     * @param cutOffAt the position after which the connection of the parts after the first one is dropped, or
+     *                 {@code -1} to serve the whole ranges
+     */
+    private void mockRanges(long cutOffAt)
+    {
+        Mockito.when(client.get(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+
+            return range(from, to, from > 0 ? cutOffAt : -1);
+        });
+    }
+
+    /**
+     * @param cutOffAt the position after which the connection is dropped, or {@code -1} to serve the whole range
+     */
+    private CloseableRestResponse range(long from,
+                                        long to,
+                                        long cutOffAt)
+    {
+        requestedRanges.add(from + "-" + to);
+
+        long last = Math.min(to, content.length - 1);
+        int end = (int) (cutOffAt < 0 ? last + 1 : cutOffAt);
+
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatus()).thenReturn(206);
+        Mockito.when(response.getHeaderString("Content-Range"))
+               .thenReturn("bytes " + from + "-" + last + "/" + content.length);
+        Mockito.when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn("\"abc\"");
+        Mockito.when(response.readEntity(InputStream.class))
+               .thenReturn(new ByteArrayInputStream(Arrays.copyOfRange(content, (int) from, end)));
+
+        return new CloseableRestResponse(response);
+    }
+
+}
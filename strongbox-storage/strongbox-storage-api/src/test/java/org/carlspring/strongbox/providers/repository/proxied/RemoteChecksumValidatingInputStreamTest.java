@@ -0,0 +1,84 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RemoteChecksumValidatingInputStreamTest
+{
+
+    private static final byte[] CONTENT = "strongbox".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testMatchingChecksum()
+            throws Exception
+    {
+        try (InputStream is = newStream(CompletableFuture.completedFuture(sha1(CONTENT))))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    public void testMismatchingChecksum()
+            throws Exception
+    {
+        String corrupted = sha1("strongbox!".getBytes(StandardCharsets.UTF_8));
+
+        try (InputStream is = newStream(CompletableFuture.completedFuture(corrupted)))
+        {
+            assertThatThrownBy(() -> IOUtils.toByteArray(is)).isInstanceOf(ArtifactChecksumMismatchException.class);
+        }
+    }
+
+    @Test
+    public void testMissingChecksum()
+            throws Exception
+    {
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("Not found"));
+
+        try (InputStream is = newStream(failed))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(CONTENT);
+        }
+
+        try (InputStream is = newStream(CompletableFuture.completedFuture(null)))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(CONTENT);
+        }
+    }
+
+    private InputStream newStream(CompletableFuture<String> remoteChecksum)
+            throws NoSuchAlgorithmException
+    {
+        return new RemoteChecksumValidatingInputStream(new ByteArrayInputStream(CONTENT),
+                                                       null,
+                                                       "SHA-1",
+                                                       MessageDigest.getInstance("SHA-1"),
+                                                       remoteChecksum,
+                                                       1000);
+    }
+
+    private static String sha1(byte[] content)
+            throws NoSuchAlgorithmException
+    {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+        messageDigest.update(content);
+
+        return MessageDigestUtils.convertToHexadecimalString(messageDigest);
+    }
+
+}
@@ -0,0 +1,148 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
+
+import javax.ws.rs.client.Client;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestArtifactResolverFactoryTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    @Mock
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private RemoteRepositoryAlivenessService remoteRepositoryAlivenessCacheManager;
+
+    @InjectMocks
+    private RestArtifactResolverFactory restArtifactResolverFactory;
+
+    private final Map<String, Repository> repositories = new LinkedHashMap<>();
+
+    private final List<Client> createdClients = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(proxyRepositoryConnectionPoolConfigurationService.getRestClient()).thenAnswer(invocation -> {
+            Client client = Mockito.mock(Client.class);
+            createdClients.add(client);
+
+            return client;
+        });
+
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.getId()).thenReturn(STORAGE_ID);
+        Mockito.doReturn(repositories).when(storage).getRepositories();
+
+        Configuration configuration = Mockito.mock(Configuration.class, Answers.RETURNS_DEEP_STUBS);
+        Mockito.doReturn(Collections.singletonMap(STORAGE_ID, storage)).when(configuration).getStorages();
+        Mockito.when(configurationManager.getConfiguration()).thenReturn(configuration);
+    }
+
+    @Test
+    public void shouldShareTheClientOfARemoteRepository()
+    {
+        RemoteRepository remoteRepository = addProxyRepository("central", "https://repo.maven.apache.org/maven2/");
+
+        try (RestArtifactResolver first = restArtifactResolverFactory.newInstance(remoteRepository);
+             RestArtifactResolver second = restArtifactResolverFactory.newInstance(remoteRepository))
+        {
+            assertThat(createdClients).hasSize(1);
+        }
+
+        Mockito.verify(createdClients.get(0), Mockito.never()).close();
+    }
+
+    @Test
+    public void shouldCloseAReplacedClientOnceItsResolversAreClosed()
+    {
+        RemoteRepository remoteRepository = addProxyRepository("central", "https://repo.maven.apache.org/maven2/");
+
+        RestArtifactResolver inFlight = restArtifactResolverFactory.newInstance(remoteRepository);
+
+        Mockito.when(remoteRepository.getUsername()).thenReturn("admin");
+        Mockito.when(remoteRepository.getPassword()).thenReturn("password");
+
+        try (RestArtifactResolver resolver = restArtifactResolverFactory.newInstance(remoteRepository))
+        {
+            assertThat(createdClients).hasSize(2);
+
+            // The download which is still using the replaced client isn't cut off.
+            Mockito.verify(createdClients.get(0), Mockito.never()).close();
+
+            inFlight.close();
+            inFlight.close();
+
+            Mockito.verify(createdClients.get(0)).close();
+        }
+
+        Mockito.verify(createdClients.get(1), Mockito.never()).close();
+    }
+
+    @Test
+    public void shouldDropTheClientsOfRemovedRepositories()
+    {
+        RemoteRepository central = addProxyRepository("central", "https://repo.maven.apache.org/maven2/");
+        RemoteRepository jcenter = addProxyRepository("jcenter", "https://jcenter.bintray.com/");
+
+        restArtifactResolverFactory.newInstance(central).close();
+        restArtifactResolverFactory.newInstance(jcenter).close();
+
+        restArtifactResolverFactory.handle(new RepositoryEvent(STORAGE_ID,
+                                                               "jcenter",
+                                                               RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType()));
+
+        Mockito.verify(createdClients.get(0), Mockito.never()).close();
+        Mockito.verify(createdClients.get(1)).close();
+
+        // A client is created again if the repository is used afterwards.
+        restArtifactResolverFactory.newInstance(jcenter).close();
+
+        assertThat(createdClients).hasSize(3);
+    }
+
+    private RemoteRepository addProxyRepository(String repositoryId,
+                                                String url)
+    {
+        RemoteRepository remoteRepository = Mockito.mock(RemoteRepository.class);
+        Mockito.when(remoteRepository.getUrl()).thenReturn(url);
+
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn(repositoryId);
+        Mockito.when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+        repositories.put(repositoryId, repository);
+
+        return remoteRepository;
+    }
+
+}
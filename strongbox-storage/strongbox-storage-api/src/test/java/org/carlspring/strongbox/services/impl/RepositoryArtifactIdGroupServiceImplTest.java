@@ -1,8 +1,11 @@
 package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 
 import javax.inject.Inject;
@@ -13,6 +16,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
@@ -29,6 +33,9 @@ class RepositoryArtifactIdGroupServiceImplTest
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
     @Test
     public void repositoryArtifactIdGroupShouldBeProtectedByIndex()
     {
@@ -47,4 +54,33 @@ class RepositoryArtifactIdGroupServiceImplTest
                     System.out.println(repositoryArtifactIdGroupService.save(g2).getObjectId());
         });
     }
+
+    @Test
+    public void nestedEntitiesShouldBeSavedWithTheGroup()
+    {
+        RawArtifactCoordinates coordinates = new RawArtifactCoordinates("org/carlspring/nested/1.0/nested-1.0.jar");
+
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId("s2");
+        artifactEntry.setRepositoryId("r2");
+        artifactEntry.setArtifactCoordinates(coordinates);
+
+        RepositoryArtifactIdGroupEntry group = new RepositoryArtifactIdGroupEntry();
+        group.setName("nested");
+        group.setRepositoryId("r2");
+        group.setStorageId("s2");
+        group.putArtifactEntry(artifactEntry);
+
+        // The save is cascaded to the artifact entry, and from there on to its coordinates.
+        RepositoryArtifactIdGroupEntry savedGroup = repositoryArtifactIdGroupService.save(group);
+
+        assertThat(savedGroup.getArtifactEntries()).hasSize(1);
+        ArtifactEntry savedArtifactEntry = savedGroup.getArtifactEntries().iterator().next();
+        assertThat(savedArtifactEntry.getObjectId()).isNotNull();
+        assertThat(((RawArtifactCoordinates) savedArtifactEntry.getArtifactCoordinates()).getObjectId()).isNotNull();
+
+        ArtifactEntry foundArtifactEntry = artifactEntryService.findOneArtifact("s2", "r2", coordinates.toPath());
+        assertThat(foundArtifactEntry).isNotNull();
+        assertThat(foundArtifactEntry.getArtifactCoordinates().toPath()).isEqualTo(coordinates.toPath());
+    }
 }
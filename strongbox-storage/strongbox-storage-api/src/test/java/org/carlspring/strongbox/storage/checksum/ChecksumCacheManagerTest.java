@@ -6,7 +6,13 @@ import org.carlspring.strongbox.util.MessageDigestUtils;
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.fail;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -54,6 +60,108 @@ public class ChecksumCacheManagerTest
         checkerThread.interrupt();
     }
 
+    @Test
+    public void testClaimedChecksumsAreRemoved()
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+
+        final String artifactBasePath = "storage0/repositories/releases/org/carlspring/test-project/1.0/test-project-1.0.jar";
+
+        manager.addArtifactChecksum(artifactBasePath, "md5", "120ea8a25e5d487bf68b5f7096440019");
+        manager.addArtifactChecksum(artifactBasePath, "sha1", "afa6c8b3a2fae95785dc7d9685a57835d703ac88");
+
+        manager.removeArtifactChecksum(artifactBasePath, "md5");
+        assertThat(manager.containsArtifactPath(artifactBasePath)).isTrue();
+        assertThat(manager.getArtifactChecksum(artifactBasePath, "md5")).isNull();
+
+        manager.removeArtifactChecksum(artifactBasePath, "sha1");
+        assertThat(manager.containsArtifactPath(artifactBasePath)).isFalse();
+    }
+
+    @Test
+    public void testMaxSizeAndStats()
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+        manager.setMaxSize(2);
+
+        for (int i = 0; i < 10; i++)
+        {
+            manager.addArtifactChecksum("artifact-" + i, "md5", "checksum-" + i);
+        }
+
+        assertThat(manager.getSize()).isLessThanOrEqualTo(2);
+        assertThat(manager.getArtifactChecksum("missing", "md5")).isNull();
+        assertThat(manager.getStats().evictionCount()).isGreaterThanOrEqualTo(8);
+        assertThat(manager.getStats().missCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testChecksumsAddedWhileRemovingAreKept()
+            throws Exception
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try
+        {
+            for (int i = 0; i < 1000; i++)
+            {
+                String artifactBasePath = "artifact-" + i;
+                String checksum = "checksum-" + i;
+                manager.addArtifactChecksum(artifactBasePath, "md5", checksum);
+
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Future<?> removal = executorService.submit(() -> {
+                    barrier.await();
+                    manager.removeArtifactChecksum(artifactBasePath, "md5");
+
+                    return null;
+                });
+                Future<?> addition = executorService.submit(() -> {
+                    barrier.await();
+                    manager.addArtifactChecksum(artifactBasePath, "sha1", checksum);
+
+                    return null;
+                });
+                removal.get();
+                addition.get();
+
+                assertThat(manager.getArtifactChecksum(artifactBasePath, "sha1")).isEqualTo(checksum);
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMetrics()
+    {
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+        manager.bindMetrics(registry);
+
+        manager.addArtifactChecksum("artifact", "md5", "checksum");
+        manager.getArtifactChecksum("artifact", "md5");
+        manager.getArtifactChecksum("missing", "md5");
+
+        assertThat(registry.get("cache.gets").tag("cache", "checksums").tag("result", "hit").functionCounter()
+                           .count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "checksums").tag("result", "miss").functionCounter()
+                           .count()).isEqualTo(1);
+
+        // The meters follow the cache when it's rebuilt.
+        manager.setMaxSize(10);
+        manager.getArtifactChecksum("artifact", "md5");
+        manager.getArtifactChecksum("artifact", "sha1");
+
+        assertThat(registry.get("cache.gets").tag("cache", "checksums").tag("result", "hit").functionCounter()
+                           .count()).isEqualTo(2);
+        assertThat(registry.get("cache.size").tag("cache", "checksums").gauge().value()).isEqualTo(1);
+    }
+
     @Test
     public void testDigests()
             throws NoSuchAlgorithmException, IOException, CloneNotSupportedException
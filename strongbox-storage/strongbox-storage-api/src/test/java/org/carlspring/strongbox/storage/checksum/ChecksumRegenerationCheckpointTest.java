@@ -0,0 +1,130 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChecksumRegenerationCheckpointTest
+{
+
+    private static final String HEADER = "forceRegeneration=false;basePath=";
+
+    private Path checkpointDirectory;
+
+    @BeforeEach
+    public void setup()
+            throws IOException
+    {
+        checkpointDirectory = Files.createTempDirectory("strongbox-checkpoints");
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        FileSystemUtils.deleteRecursively(checkpointDirectory);
+    }
+
+    @Test
+    public void shouldResumeAnInterruptedRun()
+            throws IOException
+    {
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            checkpoint.markCompleted("org/carlspring/a");
+            checkpoint.markCompleted("org/carlspring/b");
+        }
+
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            assertThat(checkpoint.isCompleted("org/carlspring/a")).isTrue();
+            assertThat(checkpoint.isCompleted("org/carlspring/b")).isTrue();
+            assertThat(checkpoint.isCompleted("org/carlspring/c")).isFalse();
+
+            checkpoint.markCompleted("org/carlspring/c");
+        }
+
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            assertThat(checkpoint.isCompleted("org/carlspring/c")).isTrue();
+
+            checkpoint.complete();
+        }
+
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            assertThat(checkpoint.isCompleted("org/carlspring/a")).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldRetryTheDirectoriesWhichHaveNotCompleted()
+            throws IOException
+    {
+        // The checksums of "org/carlspring/b" have failed, so it's never marked as completed.
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            checkpoint.markCompleted("org/carlspring/a");
+        }
+
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            assertThat(checkpoint.isCompleted("org/carlspring/a")).isTrue();
+            assertThat(checkpoint.isCompleted("org/carlspring/b")).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldNotResumeAnotherKindOfRun()
+            throws IOException
+    {
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            checkpoint.markCompleted("org/carlspring/a");
+        }
+
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               "forceRegeneration=true;basePath="))
+        {
+            assertThat(checkpoint.isCompleted("org/carlspring/a")).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldNotShareTheCheckpointBetweenConcurrentRuns()
+            throws IOException
+    {
+        try (ChecksumRegenerationCheckpoint first = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                          HEADER);
+             ChecksumRegenerationCheckpoint other = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                          "forceRegeneration=true;basePath="))
+        {
+            assertThat(ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory, HEADER)).isNull();
+            assertThat(other).isNotNull();
+
+            first.markCompleted("org/carlspring/a");
+            other.markCompleted("org/carlspring/b");
+        }
+
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.tryOpen(checkpointDirectory,
+                                                                                               HEADER))
+        {
+            assertThat(checkpoint.isCompleted("org/carlspring/a")).isTrue();
+            assertThat(checkpoint.isCompleted("org/carlspring/b")).isFalse();
+        }
+    }
+
+}
@@ -0,0 +1,950 @@
+package org.carlspring.strongbox.providers.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Decorates the local {@link FileSystemProvider}, so that the files which compress well (text, mostly) are stored
+ * compressed, and are decompressed transparently when they're read.
+ * <p>
+ * The files are stored in the gzip format, so that they can also be served as they are, with the
+ * {@code Content-Encoding: gzip}. The header of a compressed file has an extra field with the size of its content, which
+ * tells the compressed files apart from the ones which have been stored as they are (before the storage used this
+ * provider, or because their names are not eligible), and gives the size of the content without decompressing it.
+ * <p>
+ * The sizes read from the headers are cached, along with the attributes of the files which they have been read from,
+ * so that the header of a file is only read again once the file has changed.
+ *
+ * @see CompressingStorageProvider
+ */
+public class CompressingFileSystemProvider
+        extends FileSystemProvider
+{
+
+    private static final int HEADER_LENGTH = 24;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public static final long DEFAULT_CONTENT_SIZE_CACHE_SIZE = 100000;
+
+    private final FileSystemProvider target;
+
+    private final Set<String> extensions;
+
+    private final int level;
+
+    private final Cache<Path, ContentSize> contentSizes;
+
+    /**
+     * @param extensions the (lower case) extensions of the file names to compress
+     * @param level      the {@link Deflater} compression level
+     */
+    public CompressingFileSystemProvider(FileSystemProvider target,
+                                         Set<String> extensions,
+                                         int level)
+    {
+        this(target, extensions, level, DEFAULT_CONTENT_SIZE_CACHE_SIZE);
+    }
+
+    /**
+     * @param extensions           the (lower case) extensions of the file names to compress
+     * @param level                the {@link Deflater} compression level
+     * @param contentSizeCacheSize the maximum number of the files whose content size is cached
+     */
+    public CompressingFileSystemProvider(FileSystemProvider target,
+                                         Set<String> extensions,
+                                         int level,
+                                         long contentSizeCacheSize)
+    {
+        this.target = target;
+        this.extensions = Collections.unmodifiableSet(extensions);
+        this.level = level;
+        this.contentSizes = CacheBuilder.newBuilder().maximumSize(contentSizeCacheSize).build();
+    }
+
+    /**
+     * @return true, if the file has been stored compressed, so that its raw content is in the gzip format
+     */
+    public static boolean isCompressed(Path path)
+            throws IOException
+    {
+        return readContentSize(path.getFileSystem().provider(), path) >= 0;
+    }
+
+    @Override
+    public String getScheme()
+    {
+        return target.getScheme();
+    }
+
+    @Override
+    public FileSystem newFileSystem(URI uri,
+                                    Map<String, ?> env)
+            throws IOException
+    {
+        return target.newFileSystem(uri, env);
+    }
+
+    @Override
+    public FileSystem getFileSystem(URI uri)
+    {
+        return target.getFileSystem(uri);
+    }
+
+    @Override
+    public Path getPath(URI uri)
+    {
+        return target.getPath(uri);
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path,
+                                              Set<? extends OpenOption> options,
+                                              FileAttribute<?>... attrs)
+            throws IOException
+    {
+        boolean write = isWrite(options);
+        if (write)
+        {
+            invalidate(path);
+        }
+
+        if (write && isEligible(path) && isOverwrite(path, options))
+        {
+            return new CompressingByteChannel(target.newByteChannel(path, options, attrs), path);
+        }
+
+        if (!isEligible(path))
+        {
+            return target.newByteChannel(path, options, attrs);
+        }
+
+        long size = getContentSize(path);
+        if (size < 0)
+        {
+            return target.newByteChannel(path, options, attrs);
+        }
+
+        if (write)
+        {
+            // The file is updated in place, so it's stored as it is from now on.
+            decompress(path);
+
+            return target.newByteChannel(path, options, attrs);
+        }
+
+        return new DecompressingByteChannel(path, size);
+    }
+
+    @Override
+    public InputStream newInputStream(Path path,
+                                      OpenOption... options)
+            throws IOException
+    {
+        if (isEligible(path) && getContentSize(path) >= 0)
+        {
+            return new GZIPInputStream(target.newInputStream(path, options), BUFFER_SIZE);
+        }
+
+        return target.newInputStream(path, options);
+    }
+
+    @Override
+    public FileChannel newFileChannel(Path path,
+                                      Set<? extends OpenOption> options,
+                                      FileAttribute<?>... attrs)
+            throws IOException
+    {
+        boolean write = isWrite(options);
+        if (write)
+        {
+            invalidate(path);
+        }
+
+        if (!isEligible(path) || getContentSize(path) < 0)
+        {
+            return target.newFileChannel(path, options, attrs);
+        }
+
+        if (write)
+        {
+            // The file channels access the raw content, so the files updated with these are stored as they are.
+            decompress(path);
+
+            return target.newFileChannel(path, options, attrs);
+        }
+
+        // The file is read from a copy of its content, so that it stays compressed for the other readers.
+        Path content = contentPath(path);
+        try
+        {
+            decompress(path, content);
+
+            return target.newFileChannel(content, EnumSet.of(StandardOpenOption.READ,
+                                                             StandardOpenOption.DELETE_ON_CLOSE));
+        }
+        catch (IOException | RuntimeException e)
+        {
+            target.deleteIfExists(content);
+
+            throw e;
+        }
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir,
+                                                    DirectoryStream.Filter<? super Path> filter)
+            throws IOException
+    {
+        return target.newDirectoryStream(dir, filter);
+    }
+
+    @Override
+    public void createDirectory(Path dir,
+                                FileAttribute<?>... attrs)
+            throws IOException
+    {
+        target.createDirectory(dir, attrs);
+    }
+
+    @Override
+    public void delete(Path path)
+            throws IOException
+    {
+        target.delete(path);
+        invalidate(path);
+    }
+
+    @Override
+    public void copy(Path source,
+                     Path destination,
+                     CopyOption... options)
+            throws IOException
+    {
+        // The copy keeps the raw content, so it's only stored compressed if the source is.
+        target.copy(source, destination, options);
+        invalidate(destination);
+    }
+
+    @Override
+    public void move(Path source,
+                     Path destination,
+                     CopyOption... options)
+            throws IOException
+    {
+        target.move(source, destination, options);
+        invalidate(source);
+        invalidate(destination);
+    }
+
+    @Override
+    public boolean isSameFile(Path path,
+                              Path path2)
+            throws IOException
+    {
+        return target.isSameFile(path, path2);
+    }
+
+    @Override
+    public boolean isHidden(Path path)
+            throws IOException
+    {
+        return target.isHidden(path);
+    }
+
+    @Override
+    public FileStore getFileStore(Path path)
+            throws IOException
+    {
+        return target.getFileStore(path);
+    }
+
+    @Override
+    public void checkAccess(Path path,
+                            AccessMode... modes)
+            throws IOException
+    {
+        target.checkAccess(path, modes);
+    }
+
+    @Override
+    public <V extends FileAttributeView> V getFileAttributeView(Path path,
+                                                                Class<V> type,
+                                                                LinkOption... options)
+    {
+        return target.getFileAttributeView(path, type, options);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends BasicFileAttributes> A readAttributes(Path path,
+                                                            Class<A> type,
+                                                            LinkOption... options)
+            throws IOException
+    {
+        A attributes = target.readAttributes(path, type, options);
+        if (type != BasicFileAttributes.class || !attributes.isRegularFile() || !isEligible(path))
+        {
+            return attributes;
+        }
+
+        long size = getContentSize(path, attributes);
+
+        return size < 0 ? attributes : (A) new ContentFileAttributes(attributes, size);
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path,
+                                              String attributes,
+                                              LinkOption... options)
+            throws IOException
+    {
+        Map<String, Object> result = target.readAttributes(path, attributes, options);
+        if (!result.containsKey("size") || !isEligible(path) || Boolean.TRUE.equals(result.get("isDirectory")))
+        {
+            return result;
+        }
+
+        long size = getContentSize(path);
+        if (size < 0)
+        {
+            return result;
+        }
+
+        Map<String, Object> contentAttributes = new HashMap<>(result);
+        contentAttributes.put("size", size);
+
+        return contentAttributes;
+    }
+
+    @Override
+    public void setAttribute(Path path,
+                             String attribute,
+                             Object value,
+                             LinkOption... options)
+            throws IOException
+    {
+        target.setAttribute(path, attribute, value, options);
+    }
+
+    @Override
+    public void createSymbolicLink(Path link,
+                                   Path destination,
+                                   FileAttribute<?>... attrs)
+            throws IOException
+    {
+        target.createSymbolicLink(link, destination, attrs);
+    }
+
+    @Override
+    public void createLink(Path link,
+                           Path existing)
+            throws IOException
+    {
+        target.createLink(link, existing);
+    }
+
+    @Override
+    public Path readSymbolicLink(Path link)
+            throws IOException
+    {
+        return target.readSymbolicLink(link);
+    }
+
+    private boolean isEligible(Path path)
+    {
+        Path fileName = path.getFileName();
+        if (fileName == null)
+        {
+            return false;
+        }
+
+        String name = fileName.toString();
+        int dot = name.lastIndexOf('.');
+
+        return dot >= 0 && extensions.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * @return true, if the file is written from scratch, which is the only way to write a compressed file
+     */
+    private boolean isOverwrite(Path path,
+                                Set<? extends OpenOption> options)
+    {
+        if (options.contains(StandardOpenOption.APPEND) || options.contains(StandardOpenOption.READ))
+        {
+            return false;
+        }
+
+        return options.contains(StandardOpenOption.TRUNCATE_EXISTING) ||
+               options.contains(StandardOpenOption.CREATE_NEW) ||
+               options.contains(StandardOpenOption.CREATE) && !Files.exists(path, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private static boolean isWrite(Set<? extends OpenOption> options)
+    {
+        return options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND);
+    }
+
+    /**
+     * @return the size of the content of the compressed file, or -1 if the file is not compressed
+     */
+    private long getContentSize(Path path)
+            throws IOException
+    {
+        BasicFileAttributes attributes;
+        try
+        {
+            attributes = target.readAttributes(path, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e)
+        {
+            return -1;
+        }
+
+        return attributes.isRegularFile() ? getContentSize(path, attributes) : -1;
+    }
+
+    /**
+     * @param attributes the current attributes of the (regular) file
+     * @return the size of the content of the compressed file, or -1 if the file is not compressed
+     */
+    private long getContentSize(Path path,
+                                BasicFileAttributes attributes)
+            throws IOException
+    {
+        Path key = path.toAbsolutePath().normalize();
+
+        ContentSize contentSize = contentSizes.getIfPresent(key);
+        if (contentSize != null && contentSize.isReadFrom(attributes))
+        {
+            return contentSize.size;
+        }
+
+        long size = readContentSize(target, path);
+        contentSizes.put(key, new ContentSize(attributes, size));
+
+        return size;
+    }
+
+    private void invalidate(Path path)
+    {
+        contentSizes.invalidate(path.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Replaces the compressed file with its content.
+     */
+    private void decompress(Path path)
+            throws IOException
+    {
+        Path content = contentPath(path);
+        try
+        {
+            decompress(path, content);
+
+            target.move(content, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            target.deleteIfExists(content);
+        }
+    }
+
+    /**
+     * Writes the content of the compressed file to the given file.
+     */
+    private void decompress(Path path,
+                            Path content)
+            throws IOException
+    {
+        try (InputStream is = new GZIPInputStream(target.newInputStream(path), BUFFER_SIZE);
+             OutputStream os = target.newOutputStream(content))
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int n = is.read(buffer); n != -1; n = is.read(buffer))
+            {
+                os.write(buffer, 0, n);
+            }
+        }
+    }
+
+    private static Path contentPath(Path path)
+    {
+        return path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".content");
+    }
+
+    /**
+     * @return the size of the content of the compressed file, or -1 if the file is not compressed
+     */
+    private static long readContentSize(FileSystemProvider provider,
+                                        Path path)
+            throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        try (SeekableByteChannel channel = provider.newByteChannel(path, EnumSet.of(StandardOpenOption.READ)))
+        {
+            while (header.hasRemaining() && channel.read(header) != -1)
+            {
+                // Read the whole header.
+            }
+        }
+        catch (NoSuchFileException e)
+        {
+            return -1;
+        }
+
+        if (header.hasRemaining())
+        {
+            return -1;
+        }
+
+        header.flip();
+
+        // ID1, ID2, CM (deflate), FLG (FEXTRA), XLEN, SI1, SI2 and LEN of the content size field
+        boolean compressed = (header.get(0) & 0xff) == 0x1f && (header.get(1) & 0xff) == 0x8b &&
+                             header.get(2) == 8 && header.get(3) == 4 &&
+                             header.getShort(10) == 12 &&
+                             header.get(12) == 'S' && header.get(13) == 'B' &&
+                             header.getShort(14) == 8;
+
+        return compressed ? header.getLong(16) : -1;
+    }
+
+    /**
+     * Writes the gzip header, with a placeholder for the size of the content, which is filled in when the channel is
+     * closed.
+     */
+    private static ByteBuffer header(long size)
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        header.put((byte) 0x1f).put((byte) 0x8b).put((byte) 8).put((byte) 4);
+        // MTIME, XFL and OS (unknown)
+        header.putInt(0).put((byte) 0).put((byte) 0xff);
+        header.putShort((short) 12).put((byte) 'S').put((byte) 'B').putShort((short) 8).putLong(size);
+        header.flip();
+
+        return header;
+    }
+
+    private class CompressingByteChannel
+            implements SeekableByteChannel
+    {
+
+        private final SeekableByteChannel channel;
+
+        private final Path path;
+
+        private final Deflater deflater = new Deflater(level, true);
+
+        private final CRC32 crc = new CRC32();
+
+        private final OutputStream out;
+
+        private long size;
+
+        private boolean open = true;
+
+        CompressingByteChannel(SeekableByteChannel channel,
+                               Path path)
+                throws IOException
+        {
+            this.channel = channel;
+            this.path = path;
+
+            try
+            {
+                writeFully(header(0));
+            }
+            catch (IOException e)
+            {
+                close();
+
+                throw e;
+            }
+
+            this.out = new DeflaterOutputStream(Channels.newOutputStream(channel), deflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public int read(ByteBuffer dst)
+        {
+            throw new NonReadableChannelException();
+        }
+
+        @Override
+        public int write(ByteBuffer src)
+                throws IOException
+        {
+            int n = src.remaining();
+            if (src.hasArray())
+            {
+                int offset = src.arrayOffset() + src.position();
+                out.write(src.array(), offset, n);
+                crc.update(src.array(), offset, n);
+                src.position(src.limit());
+            }
+            else
+            {
+                byte[] bytes = new byte[n];
+                src.get(bytes);
+                out.write(bytes);
+                crc.update(bytes);
+            }
+            size += n;
+
+            return n;
+        }
+
+        @Override
+        public long position()
+        {
+            return size;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition)
+        {
+            if (newPosition != size)
+            {
+                throw new UnsupportedOperationException("The compressed files can only be written sequentially.");
+            }
+
+            return this;
+        }
+
+        @Override
+        public long size()
+        {
+            return size;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size)
+        {
+            throw new UnsupportedOperationException("The compressed files can only be written sequentially.");
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return open;
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (!open)
+            {
+                return;
+            }
+            open = false;
+
+            try (SeekableByteChannel c = channel)
+            {
+                if (out == null)
+                {
+                    return;
+                }
+
+                ((DeflaterOutputStream) out).finish();
+
+                ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) crc.getValue()).putInt((int) size);
+                trailer.flip();
+                writeFully(trailer);
+
+                c.position(0);
+                writeFully(header(size));
+            }
+            finally
+            {
+                deflater.end();
+                invalidate(path);
+            }
+        }
+
+        private void writeFully(ByteBuffer buffer)
+                throws IOException
+        {
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+
+    }
+
+    private class DecompressingByteChannel
+            implements SeekableByteChannel
+    {
+
+        private final Path path;
+
+        private final long size;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private InputStream in;
+
+        private long position;
+
+        DecompressingByteChannel(Path path,
+                                 long size)
+                throws IOException
+        {
+            this.path = path;
+            this.size = size;
+            this.in = new GZIPInputStream(target.newInputStream(path), BUFFER_SIZE);
+        }
+
+        @Override
+        public int read(ByteBuffer dst)
+                throws IOException
+        {
+            ensureOpen();
+
+            int n = in.read(buffer, 0, Math.min(dst.remaining(), buffer.length));
+            if (n > 0)
+            {
+                dst.put(buffer, 0, n);
+                position += n;
+            }
+
+            return n;
+        }
+
+        @Override
+        public int write(ByteBuffer src)
+        {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position()
+        {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition)
+                throws IOException
+        {
+            ensureOpen();
+
+            if (newPosition < position)
+            {
+                in.close();
+                in = new GZIPInputStream(target.newInputStream(path), BUFFER_SIZE);
+                position = 0;
+            }
+
+            while (position < newPosition)
+            {
+                long skipped = in.skip(newPosition - position);
+                if (skipped <= 0)
+                {
+                    if (in.read() == -1)
+                    {
+                        throw new EOFException(path.toString());
+                    }
+                    skipped = 1;
+                }
+                position += skipped;
+            }
+
+            return this;
+        }
+
+        @Override
+        public long size()
+        {
+            return size;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size)
+        {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return in != null;
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (in != null)
+            {
+                in.close();
+                in = null;
+            }
+        }
+
+        private void ensureOpen()
+                throws IOException
+        {
+            if (in == null)
+            {
+                throw new ClosedChannelException();
+            }
+        }
+
+    }
+
+    /**
+     * The size of the content of a file (or -1, if the file is not compressed), with the attributes of the file which
+     * it has been read from.
+     */
+    private static class ContentSize
+    {
+
+        private final Object fileKey;
+
+        private final FileTime lastModifiedTime;
+
+        private final long rawSize;
+
+        private final long size;
+
+        ContentSize(BasicFileAttributes attributes,
+                    long size)
+        {
+            this.fileKey = attributes.fileKey();
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.rawSize = attributes.size();
+            this.size = size;
+        }
+
+        boolean isReadFrom(BasicFileAttributes attributes)
+        {
+            return Objects.equals(fileKey, attributes.fileKey()) &&
+                   Objects.equals(lastModifiedTime, attributes.lastModifiedTime()) &&
+                   rawSize == attributes.size();
+        }
+
+    }
+
+    /**
+     * The attributes of a compressed file, with the size of its content.
+     */
+    private static class ContentFileAttributes
+            implements BasicFileAttributes
+    {
+
+        private final BasicFileAttributes attributes;
+
+        private final long size;
+
+        ContentFileAttributes(BasicFileAttributes attributes,
+                              long size)
+        {
+            this.attributes = attributes;
+            this.size = size;
+        }
+
+        @Override
+        public FileTime lastModifiedTime()
+        {
+            return attributes.lastModifiedTime();
+        }
+
+        @Override
+        public FileTime lastAccessTime()
+        {
+            return attributes.lastAccessTime();
+        }
+
+        @Override
+        public FileTime creationTime()
+        {
+            return attributes.creationTime();
+        }
+
+        @Override
+        public boolean isRegularFile()
+        {
+            return attributes.isRegularFile();
+        }
+
+        @Override
+        public boolean isDirectory()
+        {
+            return attributes.isDirectory();
+        }
+
+        @Override
+        public boolean isSymbolicLink()
+        {
+            return attributes.isSymbolicLink();
+        }
+
+        @Override
+        public boolean isOther()
+        {
+            return attributes.isOther();
+        }
+
+        @Override
+        public long size()
+        {
+            return size;
+        }
+
+        @Override
+        public Object fileKey()
+        {
+            return attributes.fileKey();
+        }
+
+    }
+
+}
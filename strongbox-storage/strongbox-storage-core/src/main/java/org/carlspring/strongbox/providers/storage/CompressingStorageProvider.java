@@ -0,0 +1,85 @@
+package org.carlspring.strongbox.providers.storage;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the repositories on the local file system, like the {@link FileSystemStorageProvider}, but compresses the
+ * files which are eligible for it (see {@link CompressingFileSystemProvider}).
+ */
+@Component("compressingStorageProvider")
+public class CompressingStorageProvider
+        extends AbstractStorageProvider
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressingStorageProvider.class);
+
+    public static final String ALIAS = "local-compressed";
+
+    @Value("#{'${strongbox.storage.compression.extensions:pom,xml,json,nuspec,md5,sha1,sha256,sha512,txt,tar,properties,module,html}'.split(',')}")
+    private String[] extensions;
+
+    /**
+     * The {@link java.util.zip.Deflater} level, which favours speed by default.
+     */
+    @Value("${strongbox.storage.compression.level:1}")
+    private int level;
+
+    /**
+     * The maximum number of the files whose content size is cached, so that their headers are not read on every stat.
+     */
+    @Value("${strongbox.storage.compression.contentSizeCacheSize:100000}")
+    private long contentSizeCacheSize;
+
+    private CompressingFileSystemProvider fileSystemProvider;
+
+
+    @Override
+    public String getAlias()
+    {
+        return ALIAS;
+    }
+
+    @PostConstruct
+    @Override
+    public void register()
+    {
+        Set<String> eligibleExtensions = Arrays.stream(extensions)
+                                               .map(e -> e.trim().toLowerCase(Locale.ENGLISH))
+                                               .filter(e -> !e.isEmpty())
+                                               .collect(Collectors.toSet());
+
+        fileSystemProvider = new CompressingFileSystemProvider(FileSystems.getDefault().provider(),
+                                                               eligibleExtensions,
+                                                               level,
+                                                               contentSizeCacheSize);
+
+        logger.info("Registered storage provider '{}' with alias '{}', compressing {}.",
+                    getClass().getCanonicalName(), ALIAS, eligibleExtensions);
+    }
+
+    @Override
+    public FileSystem getFileSystem()
+    {
+        return FileSystems.getDefault();
+    }
+
+    @Override
+    public FileSystemProvider getFileSystemProvider()
+    {
+        return fileSystemProvider;
+    }
+
+}
@@ -0,0 +1,687 @@
+package org.carlspring.strongbox.providers.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.spi.FileSystemProvider;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.binary.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates the local {@link FileSystemProvider}, so that the identical files are stored only once.
+ * <p>
+ * The content of the files is kept in a content-addressable blob store, under the SHA-256 of the content, and the
+ * files of the repositories are hard links to these blobs. So the files are read as usual, and copying a file only
+ * adds a link to its blob. The link count of a blob is its reference count: a blob which is only linked from the blob
+ * store isn't used anymore, and is removed by {@link #collectGarbage()}.
+ * <p>
+ * A file which shares its blob is never written in place, nor are its attributes changed in place (the other links
+ * would see the change), it's replaced by a copy of its own first. Where the file system doesn't support hard links (or the blob store is on another device), the
+ * files are stored and copied as usual.
+ *
+ * @see DeduplicatingStorageProvider
+ */
+public class ContentAddressableFileSystemProvider
+        extends FileSystemProvider
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressableFileSystemProvider.class);
+
+    public static final String BLOB_DIGEST_ALGORITHM = "SHA-256";
+
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+
+    private final FileSystemProvider target;
+
+    private final Path blobStore;
+
+    public ContentAddressableFileSystemProvider(FileSystemProvider target,
+                                                Path blobStore)
+    {
+        this.target = target;
+        this.blobStore = blobStore;
+    }
+
+    public Path getBlobStore()
+    {
+        return blobStore;
+    }
+
+    @Override
+    public String getScheme()
+    {
+        return target.getScheme();
+    }
+
+    @Override
+    public FileSystem newFileSystem(URI uri,
+                                    Map<String, ?> env)
+            throws IOException
+    {
+        return target.newFileSystem(uri, env);
+    }
+
+    @Override
+    public FileSystem getFileSystem(URI uri)
+    {
+        return target.getFileSystem(uri);
+    }
+
+    @Override
+    public Path getPath(URI uri)
+    {
+        return target.getPath(uri);
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path,
+                                              Set<? extends OpenOption> options,
+                                              FileAttribute<?>... attrs)
+            throws IOException
+    {
+        if (!isWrite(options))
+        {
+            return target.newByteChannel(path, options, attrs);
+        }
+
+        Set<? extends OpenOption> writeOptions = unlink(path, options);
+        SeekableByteChannel channel = target.newByteChannel(path, writeOptions, attrs);
+
+        try
+        {
+            return new DeduplicatingByteChannel(channel, path);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            channel.close();
+
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public FileChannel newFileChannel(Path path,
+                                      Set<? extends OpenOption> options,
+                                      FileAttribute<?>... attrs)
+            throws IOException
+    {
+        // The files written through a file channel are not deduplicated, as they can be written anywhere and mapped.
+        return target.newFileChannel(path, isWrite(options) ? unlink(path, options) : options, attrs);
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir,
+                                                    DirectoryStream.Filter<? super Path> filter)
+            throws IOException
+    {
+        return target.newDirectoryStream(dir, filter);
+    }
+
+    @Override
+    public void createDirectory(Path dir,
+                                FileAttribute<?>... attrs)
+            throws IOException
+    {
+        target.createDirectory(dir, attrs);
+    }
+
+    @Override
+    public void delete(Path path)
+            throws IOException
+    {
+        // The blob of the file is kept until the garbage collection, as the file may not be its last reference.
+        target.delete(path);
+    }
+
+    /**
+     * Copies a regular file by linking the target to the blob of the source, which makes the copy independent of the
+     * size of the file. The other files are copied as usual.
+     */
+    @Override
+    public void copy(Path source,
+                     Path destination,
+                     CopyOption... options)
+            throws IOException
+    {
+        if (!Files.isRegularFile(source, LinkOption.NOFOLLOW_LINKS))
+        {
+            target.copy(source, destination, options);
+
+            return;
+        }
+
+        boolean replaceExisting = Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING);
+        if (!replaceExisting && Files.exists(destination, LinkOption.NOFOLLOW_LINKS))
+        {
+            throw new FileAlreadyExistsException(destination.toString());
+        }
+
+        try
+        {
+            if (getLinkCount(source) == 1)
+            {
+                store(source, digest(source));
+            }
+
+            link(destination, source);
+        }
+        catch (UnsupportedOperationException | FileSystemException e)
+        {
+            logger.debug("Failed to link [{}] to [{}], copying it instead.", destination, source, e);
+
+            target.copy(source, destination, options);
+        }
+    }
+
+    @Override
+    public void move(Path source,
+                     Path destination,
+                     CopyOption... options)
+            throws IOException
+    {
+        // A move keeps the links of the file.
+        target.move(source, destination, options);
+    }
+
+    @Override
+    public boolean isSameFile(Path path,
+                              Path path2)
+            throws IOException
+    {
+        return target.isSameFile(path, path2);
+    }
+
+    @Override
+    public boolean isHidden(Path path)
+            throws IOException
+    {
+        return target.isHidden(path);
+    }
+
+    @Override
+    public FileStore getFileStore(Path path)
+            throws IOException
+    {
+        return target.getFileStore(path);
+    }
+
+    @Override
+    public void checkAccess(Path path,
+                            AccessMode... modes)
+            throws IOException
+    {
+        target.checkAccess(path, modes);
+    }
+
+    /**
+     * The returned view breaks the link of the file before it changes any of its attributes.
+     */
+    @Override
+    public <V extends FileAttributeView> V getFileAttributeView(Path path,
+                                                                Class<V> type,
+                                                                LinkOption... options)
+    {
+        V view = target.getFileAttributeView(path, type, options);
+        if (view == null)
+        {
+            return null;
+        }
+
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+                                                new Class<?>[]{ type },
+                                                new UnlinkingFileAttributeViewHandler(view, path)));
+    }
+
+    @Override
+    public <A extends BasicFileAttributes> A readAttributes(Path path,
+                                                            Class<A> type,
+                                                            LinkOption... options)
+            throws IOException
+    {
+        return target.readAttributes(path, type, options);
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path,
+                                              String attributes,
+                                              LinkOption... options)
+            throws IOException
+    {
+        return target.readAttributes(path, attributes, options);
+    }
+
+    @Override
+    public void setAttribute(Path path,
+                             String attribute,
+                             Object value,
+                             LinkOption... options)
+            throws IOException
+    {
+        unlink(path);
+
+        target.setAttribute(path, attribute, value, options);
+    }
+
+    @Override
+    public void createSymbolicLink(Path link,
+                                   Path destination,
+                                   FileAttribute<?>... attrs)
+            throws IOException
+    {
+        target.createSymbolicLink(link, destination, attrs);
+    }
+
+    @Override
+    public void createLink(Path link,
+                           Path existing)
+            throws IOException
+    {
+        target.createLink(link, existing);
+    }
+
+    @Override
+    public Path readSymbolicLink(Path link)
+            throws IOException
+    {
+        return target.readSymbolicLink(link);
+    }
+
+    /**
+     * Removes the blobs which are not linked from any file anymore.
+     *
+     * @return the number of the removed blobs
+     */
+    public long collectGarbage()
+            throws IOException
+    {
+        if (!Files.isDirectory(blobStore))
+        {
+            return 0;
+        }
+
+        AtomicLong removed = new AtomicLong();
+        try (Stream<Path> blobs = Files.walk(blobStore))
+        {
+            blobs.filter(p -> Files.isRegularFile(p, LinkOption.NOFOLLOW_LINKS)).forEach(blob -> {
+                try
+                {
+                    // A blob which gets linked meanwhile is removed from the store only, its content is kept.
+                    if (getLinkCount(blob) == 1)
+                    {
+                        target.delete(blob);
+                        removed.incrementAndGet();
+                    }
+                }
+                catch (IOException e)
+                {
+                    logger.warn("Failed to collect the blob [{}].", blob, e);
+                }
+            });
+        }
+
+        return removed.get();
+    }
+
+    /**
+     * Links the written file to the blob of its content: the file is replaced by a link to the existing blob, or it
+     * becomes the blob, if there is none yet.
+     */
+    void store(Path file,
+               byte[] digest)
+            throws IOException
+    {
+        String hash = Hex.encodeHexString(digest);
+        Path blob = blobStore.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+
+        if (!Files.exists(blob))
+        {
+            Files.createDirectories(blob.getParent());
+            try
+            {
+                target.createLink(blob, file);
+
+                return;
+            }
+            catch (FileAlreadyExistsException e)
+            {
+                // Stored concurrently by another writer.
+            }
+        }
+
+        if (!target.isSameFile(blob, file))
+        {
+            link(file, blob);
+        }
+    }
+
+    /**
+     * Atomically replaces (or creates) the link with a link to the existing file.
+     */
+    private void link(Path link,
+                      Path existing)
+            throws IOException
+    {
+        Path temporaryLink = link.resolveSibling(link.getFileName() + "." + UUID.randomUUID() + ".link");
+
+        target.createLink(temporaryLink, existing);
+        try
+        {
+            target.move(temporaryLink, link, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            target.deleteIfExists(temporaryLink);
+        }
+    }
+
+    /**
+     * Makes sure that the file to be written doesn't share its content with other files.
+     *
+     * @return the options to open the file with
+     */
+    private Set<? extends OpenOption> unlink(Path path,
+                                             Set<? extends OpenOption> options)
+            throws IOException
+    {
+        if (!options.contains(StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            unlink(path);
+
+            return options;
+        }
+
+        if (!isShared(path))
+        {
+            return options;
+        }
+
+        // The content is discarded anyway, so the file is re-created rather than copied.
+        target.delete(path);
+
+        Set<OpenOption> result = new HashSet<>(options);
+        result.add(StandardOpenOption.CREATE);
+
+        return result;
+    }
+
+    /**
+     * Makes sure that the file doesn't share its content (and so its attributes) with other files, by atomically
+     * replacing it with a copy of its own.
+     */
+    private void unlink(Path path)
+            throws IOException
+    {
+        if (!isShared(path))
+        {
+            return;
+        }
+
+        Path copy = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".copy");
+        try
+        {
+            target.copy(path, copy, StandardCopyOption.COPY_ATTRIBUTES);
+            target.move(copy, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            target.deleteIfExists(copy);
+        }
+    }
+
+    private boolean isShared(Path path)
+            throws IOException
+    {
+        return Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) && getLinkCount(path) > 1;
+    }
+
+    private byte[] digest(Path file)
+            throws IOException
+    {
+        try (InputStream is = target.newInputStream(file))
+        {
+            MessageDigest messageDigest = MessageDigest.getInstance(BLOB_DIGEST_ALGORITHM);
+
+            byte[] buffer = new byte[64 * 1024];
+            for (int n = is.read(buffer); n != -1; n = is.read(buffer))
+            {
+                messageDigest.update(buffer, 0, n);
+            }
+
+            return messageDigest.digest();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private int getLinkCount(Path path)
+            throws IOException
+    {
+        try
+        {
+            return (Integer) target.readAttributes(path, LINK_COUNT_ATTRIBUTE, LinkOption.NOFOLLOW_LINKS)
+                                   .get("nlink");
+        }
+        catch (UnsupportedOperationException | IllegalArgumentException e)
+        {
+            // Without the link count, each file is considered to have its own content.
+            return 1;
+        }
+    }
+
+    private static boolean isWrite(Set<? extends OpenOption> options)
+    {
+        return options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Breaks the link of the file before the methods of the view which change its attributes (the setters of the
+     * standard views, and the {@code write} and {@code delete} of the user defined attributes).
+     */
+    private class UnlinkingFileAttributeViewHandler
+            implements InvocationHandler
+    {
+
+        private final FileAttributeView view;
+
+        private final Path path;
+
+        UnlinkingFileAttributeViewHandler(FileAttributeView view,
+                                          Path path)
+        {
+            this.view = view;
+            this.path = path;
+        }
+
+        @Override
+        public Object invoke(Object proxy,
+                             Method method,
+                             Object[] args)
+                throws Throwable
+        {
+            String name = method.getName();
+            if (name.startsWith("set") || name.equals("write") || name.equals("delete"))
+            {
+                unlink(path);
+            }
+
+            try
+            {
+                return method.invoke(view, args);
+            }
+            catch (InvocationTargetException e)
+            {
+                throw e.getCause();
+            }
+        }
+
+    }
+
+    /**
+     * Digests the content as it's written, and stores the file in the blob store when it's closed. The content is
+     * digested again from the file when it isn't written sequentially from its start.
+     */
+    private class DeduplicatingByteChannel
+            implements SeekableByteChannel
+    {
+
+        private final SeekableByteChannel channel;
+
+        private final Path path;
+
+        private final MessageDigest messageDigest;
+
+        private boolean sequential;
+
+        private boolean written;
+
+        DeduplicatingByteChannel(SeekableByteChannel channel,
+                                 Path path)
+                throws NoSuchAlgorithmException, IOException
+        {
+            this.channel = channel;
+            this.path = path;
+            this.messageDigest = MessageDigest.getInstance(BLOB_DIGEST_ALGORITHM);
+            this.sequential = channel.size() == 0;
+        }
+
+        @Override
+        public int read(ByteBuffer dst)
+                throws IOException
+        {
+            return channel.read(dst);
+        }
+
+        @Override
+        public int write(ByteBuffer src)
+                throws IOException
+        {
+            if (channel.position() != channel.size())
+            {
+                sequential = false;
+            }
+
+            ByteBuffer content = src.duplicate();
+            int n = channel.write(src);
+
+            if (sequential)
+            {
+                content.limit(content.position() + n);
+                messageDigest.update(content);
+            }
+            written = true;
+
+            return n;
+        }
+
+        @Override
+        public long position()
+                throws IOException
+        {
+            return channel.position();
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition)
+                throws IOException
+        {
+            channel.position(newPosition);
+
+            return this;
+        }
+
+        @Override
+        public long size()
+                throws IOException
+        {
+            return channel.size();
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size)
+                throws IOException
+        {
+            if (size < channel.size())
+            {
+                sequential = false;
+            }
+            channel.truncate(size);
+
+            return this;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (!channel.isOpen())
+            {
+                return;
+            }
+
+            channel.close();
+
+            if (!written)
+            {
+                return;
+            }
+
+            try
+            {
+                store(path, sequential ? messageDigest.digest() : digest(path));
+            }
+            catch (NoSuchFileException e)
+            {
+                // Moved or removed meanwhile.
+            }
+            catch (UnsupportedOperationException | FileSystemException e)
+            {
+                logger.debug("Failed to store [{}] in the blob store [{}].", path, blobStore, e);
+            }
+        }
+
+    }
+
+}
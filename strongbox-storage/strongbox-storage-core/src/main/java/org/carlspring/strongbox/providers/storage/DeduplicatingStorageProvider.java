@@ -0,0 +1,107 @@
+package org.carlspring.strongbox.providers.storage;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Paths;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the repositories on the local file system, like the {@link FileSystemStorageProvider}, but keeps a single
+ * copy of the identical files (see {@link ContentAddressableFileSystemProvider}).
+ * <p>
+ * The blob store has to be on the same file system as the storages which use this provider.
+ */
+@Component("deduplicatingStorageProvider")
+public class DeduplicatingStorageProvider
+        extends AbstractStorageProvider
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicatingStorageProvider.class);
+
+    public static final String ALIAS = "local-dedup";
+
+    @Value("${strongbox.storage.dedup.blobStore:${strongbox.storage.booter.basedir}/.blobs}")
+    private String blobStore;
+
+    /**
+     * Specifies at what interval the blobs which are not used anymore are removed.
+     */
+    @Value("${strongbox.storage.dedup.garbageCollectionIntervalSeconds:3600}")
+    private long garbageCollectionIntervalSeconds;
+
+    private ContentAddressableFileSystemProvider fileSystemProvider;
+
+    private ScheduledExecutorService garbageCollector;
+
+
+    @Override
+    public String getAlias()
+    {
+        return ALIAS;
+    }
+
+    @PostConstruct
+    @Override
+    public void register()
+    {
+        fileSystemProvider = new ContentAddressableFileSystemProvider(FileSystems.getDefault().provider(),
+                                                                      Paths.get(blobStore).toAbsolutePath());
+
+        garbageCollector = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("blob-store-garbage-collector")
+                                                                                                .setDaemon(true)
+                                                                                                .build());
+        garbageCollector.scheduleWithFixedDelay(this::collectGarbage,
+                                                garbageCollectionIntervalSeconds,
+                                                garbageCollectionIntervalSeconds,
+                                                TimeUnit.SECONDS);
+
+        logger.info("Registered storage provider '{}' with alias '{}' and blob store [{}].",
+                    getClass().getCanonicalName(), ALIAS, fileSystemProvider.getBlobStore());
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        garbageCollector.shutdownNow();
+    }
+
+    @Override
+    public FileSystem getFileSystem()
+    {
+        return FileSystems.getDefault();
+    }
+
+    @Override
+    public FileSystemProvider getFileSystemProvider()
+    {
+        return fileSystemProvider;
+    }
+
+    private void collectGarbage()
+    {
+        try
+        {
+            long removed = fileSystemProvider.collectGarbage();
+
+            logger.debug("Removed [{}] unused blobs from [{}].", removed, fileSystemProvider.getBlobStore());
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed to collect the garbage of the blob store [{}].", fileSystemProvider.getBlobStore(), e);
+        }
+    }
+
+}
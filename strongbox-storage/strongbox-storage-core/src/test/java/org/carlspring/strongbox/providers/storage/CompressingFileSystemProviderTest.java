@@ -0,0 +1,212 @@
+package org.carlspring.strongbox.providers.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompressingFileSystemProviderTest
+{
+
+    private static final String CONTENT = String.join("", Collections.nCopies(1000, "<dependency/>\n"));
+
+    private Path basedir;
+
+    private CompressingFileSystemProvider provider;
+
+    @BeforeEach
+    public void setup()
+            throws IOException
+    {
+        basedir = Files.createTempDirectory("strongbox-compressed");
+        provider = new CompressingFileSystemProvider(FileSystems.getDefault().provider(),
+                                                     new HashSet<>(Arrays.asList("pom", "xml")),
+                                                     Deflater.BEST_SPEED);
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        FileSystemUtils.deleteRecursively(basedir);
+    }
+
+    @Test
+    public void shouldStoreTheEligibleFilesCompressed()
+            throws IOException
+    {
+        Path pom = write("artifact-1.0.pom");
+
+        assertThat(CompressingFileSystemProvider.isCompressed(pom)).isTrue();
+        assertThat(Files.size(pom)).isLessThan(CONTENT.length());
+        assertThat(provider.readAttributes(pom, BasicFileAttributes.class).size()).isEqualTo(CONTENT.length());
+        assertThat(read(provider.newInputStream(pom))).isEqualTo(CONTENT);
+
+        // The raw content can be served with the gzip content encoding.
+        assertThat(read(new GZIPInputStream(Files.newInputStream(pom)))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldStoreTheOtherFilesAsTheyAre()
+            throws IOException
+    {
+        Path jar = write("artifact-1.0.jar");
+
+        assertThat(CompressingFileSystemProvider.isCompressed(jar)).isFalse();
+        assertThat(read(Files.newInputStream(jar))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldDecompressTheFilesWhichAreUpdatedInPlace()
+            throws IOException
+    {
+        Path pom = write("artifact-1.0.pom");
+
+        try (OutputStream os = provider.newOutputStream(pom, StandardOpenOption.APPEND))
+        {
+            os.write('!');
+        }
+
+        assertThat(CompressingFileSystemProvider.isCompressed(pom)).isFalse();
+        assertThat(read(Files.newInputStream(pom))).isEqualTo(CONTENT + "!");
+    }
+
+    @Test
+    public void shouldReadTheFilesOpenedWithAReadOnlyFileChannelAsTheyAre()
+            throws IOException
+    {
+        Path pom = write("artifact-1.0.pom");
+
+        try (InputStream is = provider.newInputStream(pom))
+        {
+            try (FileChannel channel = provider.newFileChannel(pom, EnumSet.of(StandardOpenOption.READ)))
+            {
+                ByteBuffer buffer = ByteBuffer.allocate(CONTENT.length() + 1);
+                while (channel.read(buffer) != -1)
+                {
+                    // Read until the end of the content.
+                }
+                buffer.flip();
+
+                assertThat(StandardCharsets.UTF_8.decode(buffer).toString()).isEqualTo(CONTENT);
+            }
+
+            // The file is still compressed for the readers which were already reading it.
+            assertThat(read(is)).isEqualTo(CONTENT);
+        }
+
+        assertThat(CompressingFileSystemProvider.isCompressed(pom)).isTrue();
+        try (Stream<Path> files = Files.list(basedir))
+        {
+            assertThat(files).containsExactly(pom);
+        }
+    }
+
+    @Test
+    public void shouldDecompressTheFilesOpenedWithAWritableFileChannel()
+            throws IOException
+    {
+        Path pom = write("artifact-1.0.pom");
+
+        try (FileChannel channel = provider.newFileChannel(pom, EnumSet.of(StandardOpenOption.WRITE,
+                                                                           StandardOpenOption.APPEND)))
+        {
+            channel.write(StandardCharsets.UTF_8.encode("!"));
+        }
+
+        assertThat(CompressingFileSystemProvider.isCompressed(pom)).isFalse();
+        assertThat(read(provider.newInputStream(pom))).isEqualTo(CONTENT + "!");
+        assertThat(provider.readAttributes(pom, BasicFileAttributes.class).size()).isEqualTo(CONTENT.length() + 1);
+    }
+
+    @Test
+    public void shouldReadTheContentSizeOfAFileOnce()
+            throws IOException
+    {
+        Path pom = write("artifact-1.0.pom");
+        assertThat(provider.readAttributes(pom, BasicFileAttributes.class).size()).isEqualTo(CONTENT.length());
+
+        // The header is changed behind the back of the provider, without changing the attributes of the file.
+        FileTime lastModified = Files.getLastModifiedTime(pom);
+        try (FileChannel channel = FileChannel.open(pom, StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 42), 16);
+        }
+        Files.setLastModifiedTime(pom, lastModified);
+
+        assertThat(provider.readAttributes(pom, BasicFileAttributes.class).size()).isEqualTo(CONTENT.length());
+        assertThat(provider.readAttributes(pom, "size").get("size")).isEqualTo((long) CONTENT.length());
+    }
+
+    @Test
+    public void shouldReadTheContentSizeOfAChangedFileAgain()
+            throws IOException
+    {
+        Path pom = write("artifact-1.0.pom");
+        assertThat(provider.readAttributes(pom, BasicFileAttributes.class).size()).isEqualTo(CONTENT.length());
+
+        write("artifact-1.0.pom", CONTENT + CONTENT);
+        assertThat(provider.readAttributes(pom, BasicFileAttributes.class).size()).isEqualTo(2 * CONTENT.length());
+
+        // Replaced as it is, without the provider.
+        Path replacement = basedir.resolve("replacement.pom");
+        Files.write(replacement, CONTENT.getBytes(StandardCharsets.UTF_8));
+        Files.move(replacement, pom, StandardCopyOption.REPLACE_EXISTING);
+
+        assertThat(provider.readAttributes(pom, BasicFileAttributes.class).size()).isEqualTo(CONTENT.length());
+        assertThat(CompressingFileSystemProvider.isCompressed(pom)).isFalse();
+    }
+
+    private Path write(String fileName)
+            throws IOException
+    {
+        return write(fileName, CONTENT);
+    }
+
+    private Path write(String fileName,
+                       String content)
+            throws IOException
+    {
+        Path file = basedir.resolve(fileName);
+        try (OutputStream os = provider.newOutputStream(file))
+        {
+            os.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return file;
+    }
+
+    private static String read(InputStream is)
+            throws IOException
+    {
+        try (InputStream in = is)
+        {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+}
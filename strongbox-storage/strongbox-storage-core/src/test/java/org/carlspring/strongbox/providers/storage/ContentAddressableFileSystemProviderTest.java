@@ -0,0 +1,167 @@
+package org.carlspring.strongbox.providers.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ContentAddressableFileSystemProviderTest
+{
+
+    private static final byte[] CONTENT = "strongbox".getBytes(StandardCharsets.UTF_8);
+
+    private Path basedir;
+
+    private ContentAddressableFileSystemProvider provider;
+
+    @BeforeEach
+    public void setup()
+            throws IOException
+    {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("unix"));
+
+        basedir = Files.createTempDirectory("strongbox-blobs");
+        provider = new ContentAddressableFileSystemProvider(FileSystems.getDefault().provider(),
+                                                            basedir.resolve(".blobs"));
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        if (basedir != null)
+        {
+            FileSystemUtils.deleteRecursively(basedir);
+        }
+    }
+
+    @Test
+    public void shouldStoreIdenticalFilesOnce()
+            throws IOException
+    {
+        Path first = write("releases/first.jar", CONTENT);
+        Path second = write("snapshots/second.jar", CONTENT);
+
+        assertThat(Files.isSameFile(first, second)).isTrue();
+        assertThat(countBlobs()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCopyByLinking()
+            throws IOException
+    {
+        Path source = write("releases/artifact.jar", CONTENT);
+        Path destination = basedir.resolve("promoted-artifact.jar");
+
+        provider.copy(source, destination);
+
+        assertThat(Files.isSameFile(source, destination)).isTrue();
+        assertThat(Files.readAllBytes(destination)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotWriteSharedContentInPlace()
+            throws IOException
+    {
+        Path first = write("releases/first.jar", CONTENT);
+        Path second = write("snapshots/second.jar", CONTENT);
+
+        try (OutputStream os = provider.newOutputStream(second, StandardOpenOption.APPEND))
+        {
+            os.write('!');
+        }
+
+        assertThat(Files.readAllBytes(first)).isEqualTo(CONTENT);
+        assertThat(new String(Files.readAllBytes(second), StandardCharsets.UTF_8)).isEqualTo("strongbox!");
+    }
+
+    @Test
+    public void shouldNotChangeTheTimesOfSharedContent()
+            throws IOException
+    {
+        Path first = write("releases/first.jar", CONTENT);
+        Path second = write("snapshots/second.jar", CONTENT);
+        FileTime lastModified = Files.getLastModifiedTime(first);
+
+        FileTime refreshed = FileTime.from(Instant.parse("2030-01-01T00:00:00Z"));
+        provider.getFileAttributeView(second, BasicFileAttributeView.class).setTimes(refreshed, null, null);
+
+        assertThat(Files.getLastModifiedTime(second)).isEqualTo(refreshed);
+        assertThat(Files.getLastModifiedTime(first)).isEqualTo(lastModified);
+        assertThat(Files.isSameFile(first, second)).isFalse();
+        assertThat(Files.readAllBytes(second)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotSetTheAttributesOfSharedContent()
+            throws IOException
+    {
+        Path first = write("releases/first.jar", CONTENT);
+        Path second = write("snapshots/second.jar", CONTENT);
+        FileTime lastModified = Files.getLastModifiedTime(first);
+
+        FileTime refreshed = FileTime.from(Instant.parse("2030-01-01T00:00:00Z"));
+        provider.setAttribute(second, "lastModifiedTime", refreshed);
+
+        assertThat(Files.getLastModifiedTime(second)).isEqualTo(refreshed);
+        assertThat(Files.getLastModifiedTime(first)).isEqualTo(lastModified);
+
+        // The blob keeps the shared content.
+        assertThat(countBlobs()).isEqualTo(1);
+        assertThat(provider.collectGarbage()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldCollectTheUnusedBlobs()
+            throws IOException
+    {
+        Path first = write("releases/first.jar", CONTENT);
+        Path second = write("snapshots/second.jar", CONTENT);
+
+        Files.delete(first);
+        assertThat(provider.collectGarbage()).isEqualTo(0);
+
+        Files.delete(second);
+        assertThat(provider.collectGarbage()).isEqualTo(1);
+        assertThat(countBlobs()).isEqualTo(0);
+    }
+
+    private Path write(String path,
+                       byte[] content)
+            throws IOException
+    {
+        Path file = basedir.resolve(path);
+        Files.createDirectories(file.getParent());
+
+        try (OutputStream os = provider.newOutputStream(file))
+        {
+            os.write(content);
+        }
+
+        return file;
+    }
+
+    private long countBlobs()
+            throws IOException
+    {
+        try (Stream<Path> blobs = Files.walk(provider.getBlobStore()))
+        {
+            return blobs.filter(Files::isRegularFile).count();
+        }
+    }
+
+}
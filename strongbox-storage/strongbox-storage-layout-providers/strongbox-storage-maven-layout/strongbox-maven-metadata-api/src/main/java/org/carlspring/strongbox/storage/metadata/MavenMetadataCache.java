@@ -0,0 +1,479 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.storage.metadata.maven.versions.MetadataVersion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Plugin;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of parsed {@code maven-metadata.xml} files, of the version information
+ * extracted from artifact POM-s and of the versions collected from artifact base directories.
+ * <p>
+ * Every entry is stamped with the last modified time and the size of the file (or directory) it was read from,
+ * so an entry which no longer matches what is on disk is treated as a miss. Entries are also explicitly
+ * invalidated, or updated in the case of newly deployed POM-s, by the artifact events (see the
+ * {@code MavenMetadataCacheEventListener} of the Maven layout provider).
+ * <p>
+ * {@link Metadata} instances are mutable and the callers modify them freely, so the cache only ever hands
+ * out copies.
+ */
+@Component
+public class MavenMetadataCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenMetadataCache.class);
+
+    private final Cache<String, CachedMetadata> metadataCache;
+
+    private final Cache<String, CachedPomVersion> pomVersionCache;
+
+    private final Cache<String, CachedVersionCollection> versionCollectionCache;
+
+
+    public MavenMetadataCache(@Value("${strongbox.maven.metadataCache.maxSize:10000}") long metadataMaxSize,
+                              @Value("${strongbox.maven.pomVersionCache.maxSize:50000}") long pomVersionMaxSize,
+                              @Value("${strongbox.maven.versionCollectionCache.maxSize:10000}") long versionCollectionMaxSize)
+    {
+        this.metadataCache = CacheBuilder.newBuilder().maximumSize(metadataMaxSize).build();
+        this.pomVersionCache = CacheBuilder.newBuilder().maximumSize(pomVersionMaxSize).build();
+        this.versionCollectionCache = CacheBuilder.newBuilder().maximumSize(versionCollectionMaxSize).build();
+    }
+
+    /**
+     * Returns a copy of the cached metadata for the given {@code maven-metadata.xml}, reading and caching it
+     * with the provided reader if it's not cached yet or if the file has changed since it was cached.
+     */
+    public Metadata getMetadata(Path metadataPath,
+                                MetadataReader reader)
+            throws IOException, XmlPullParserException
+    {
+        String key = toKey(metadataPath);
+
+        // The stamp is taken before reading, so that a concurrent modification would make this entry stale
+        // rather than leaving old content under a new stamp.
+        FileStamp stamp = FileStamp.of(metadataPath);
+        CachedMetadata cachedMetadata = metadataCache.getIfPresent(key);
+        if (cachedMetadata != null && cachedMetadata.stamp.equals(stamp))
+        {
+            return cachedMetadata.metadata.clone();
+        }
+
+        Metadata metadata = reader.read(metadataPath);
+        if (stamp != null)
+        {
+            metadataCache.put(key, new CachedMetadata(stamp, metadata.clone()));
+        }
+
+        return metadata;
+    }
+
+    public void putMetadata(Path metadataPath,
+                            Metadata metadata)
+            throws IOException
+    {
+        FileStamp stamp = FileStamp.of(metadataPath);
+        if (stamp == null)
+        {
+            return;
+        }
+
+        metadataCache.put(toKey(metadataPath), new CachedMetadata(stamp, metadata.clone()));
+    }
+
+    /**
+     * @param pomPath the path of the artifact POM file
+     * @return the version information previously collected from this POM, or {@code null}
+     */
+    public CachedPomVersion getPomVersion(Path pomPath)
+            throws IOException
+    {
+        String key = toKey(pomPath);
+        CachedPomVersion cachedPomVersion = pomVersionCache.getIfPresent(key);
+        if (cachedPomVersion == null)
+        {
+            return null;
+        }
+
+        if (!cachedPomVersion.stamp.equals(FileStamp.of(pomPath)))
+        {
+            pomVersionCache.invalidate(key);
+
+            return null;
+        }
+
+        return cachedPomVersion;
+    }
+
+    public void putPomVersion(Path pomPath,
+                              String version,
+                              Plugin plugin)
+            throws IOException
+    {
+        FileStamp stamp = FileStamp.of(pomPath);
+        if (stamp == null)
+        {
+            return;
+        }
+
+        pomVersionCache.put(toKey(pomPath), new CachedPomVersion(stamp, version, plugin));
+    }
+
+    /**
+     * @param artifactBasePath the artifact base directory (i.e. {@code org/foo/bar})
+     * @return a copy of the versions previously collected from this directory, or {@code null} if there are none
+     *         or if the directory has changed since
+     */
+    public VersionCollectionRequest getVersionCollection(Path artifactBasePath)
+            throws IOException
+    {
+        String key = toKey(artifactBasePath);
+        CachedVersionCollection cachedVersionCollection = versionCollectionCache.getIfPresent(key);
+        if (cachedVersionCollection == null)
+        {
+            return null;
+        }
+
+        if (!cachedVersionCollection.stamp.equals(FileStamp.of(artifactBasePath)))
+        {
+            versionCollectionCache.invalidate(key);
+
+            return null;
+        }
+
+        return cachedVersionCollection.toRequest(artifactBasePath);
+    }
+
+    /**
+     * @param artifactBasePath the artifact base directory (i.e. {@code org/foo/bar})
+     * @param versionDirectories the names of the version directories which the versions have been collected from
+     * @param versions the versions collected from it
+     * @param plugins the Maven plugin definitions of these versions, by version
+     */
+    public void putVersionCollection(Path artifactBasePath,
+                                     Set<String> versionDirectories,
+                                     List<MetadataVersion> versions,
+                                     Map<String, Plugin> plugins)
+            throws IOException
+    {
+        FileStamp stamp = FileStamp.of(artifactBasePath);
+        if (stamp == null)
+        {
+            return;
+        }
+
+        Map<String, MetadataVersion> cachedVersions = new LinkedHashMap<>();
+        versions.forEach(v -> cachedVersions.put(v.getVersion(), copy(v)));
+
+        Map<String, Plugin> cachedPlugins = new LinkedHashMap<>();
+        plugins.forEach((v, p) -> cachedPlugins.put(v, p.clone()));
+
+        versionCollectionCache.put(toKey(artifactBasePath),
+                                   new CachedVersionCollection(stamp, versionDirectories, cachedVersions, cachedPlugins));
+    }
+
+    /**
+     * Adds (or replaces) a single version in the versions collected from an artifact base directory, so that a
+     * newly deployed version doesn't require the whole directory to be scanned again.
+     * <p>
+     * The collection is only updated if it still matches the state of the directory before the deploy: the directory
+     * of a new version must be the only one which has been added to it, and a directory which already has the version
+     * must not have changed at all. Otherwise the directory has also been changed by other means (i.e. a version has
+     * been removed out of band), and the collection is dropped.
+     *
+     * @param versionDirectories the names of the version directories which are in the directory now
+     * @param versionDirectory the name of the directory of the deployed version
+     * @return {@code false} if there was no collection to update, in which case the next collection will scan
+     *         the directory
+     */
+    public boolean updateVersionCollection(Path artifactBasePath,
+                                           Set<String> versionDirectories,
+                                           String versionDirectory,
+                                           MetadataVersion version,
+                                           Plugin plugin)
+            throws IOException
+    {
+        String key = toKey(artifactBasePath);
+        FileStamp stamp = FileStamp.of(artifactBasePath);
+        if (stamp == null)
+        {
+            versionCollectionCache.invalidate(key);
+
+            return false;
+        }
+
+        CachedVersionCollection updated = versionCollectionCache.asMap().computeIfPresent(key, (k, current) -> {
+            if (!current.isBefore(stamp, versionDirectories, versionDirectory))
+            {
+                return null;
+            }
+
+            Map<String, MetadataVersion> versions = new LinkedHashMap<>(current.versions);
+            versions.put(version.getVersion(), copy(version));
+
+            Map<String, Plugin> plugins = new LinkedHashMap<>(current.plugins);
+            if (plugin != null)
+            {
+                plugins.put(version.getVersion(), plugin.clone());
+            }
+            else
+            {
+                plugins.remove(version.getVersion());
+            }
+
+            return new CachedVersionCollection(stamp, versionDirectories, versions, plugins);
+        });
+
+        return updated != null;
+    }
+
+    public void invalidate(Path path)
+    {
+        String key = toKey(path);
+
+        metadataCache.invalidate(key);
+        pomVersionCache.invalidate(key);
+
+        logger.debug("Invalidated cached metadata for [{}].", path);
+    }
+
+    /**
+     * Drops the versions collected from the artifact base directory of the given path, which can be the artifact
+     * base directory itself, one of its version directories, or a file within them.
+     */
+    public void invalidateVersionCollection(Path path)
+    {
+        versionCollectionCache.invalidate(toKey(path));
+
+        Path parent = path.getParent();
+        if (parent != null)
+        {
+            versionCollectionCache.invalidate(toKey(parent));
+            if (parent.getParent() != null)
+            {
+                versionCollectionCache.invalidate(toKey(parent.getParent()));
+            }
+        }
+    }
+
+    public void invalidateAll()
+    {
+        metadataCache.invalidateAll();
+        pomVersionCache.invalidateAll();
+        versionCollectionCache.invalidateAll();
+    }
+
+    private static MetadataVersion copy(MetadataVersion version)
+    {
+        MetadataVersion copy = new MetadataVersion();
+        copy.setVersion(version.getVersion());
+        copy.setCreatedDate(version.getCreatedDate());
+        copy.setSnapshots(new ArrayList<>(version.getSnapshots()));
+
+        return copy;
+    }
+
+    private static String toKey(Path path)
+    {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    @FunctionalInterface
+    public interface MetadataReader
+    {
+
+        Metadata read(Path metadataPath)
+                throws IOException, XmlPullParserException;
+
+    }
+
+    private static class CachedMetadata
+    {
+
+        private final FileStamp stamp;
+
+        private final Metadata metadata;
+
+        CachedMetadata(FileStamp stamp,
+                       Metadata metadata)
+        {
+            this.stamp = stamp;
+            this.metadata = metadata;
+        }
+
+    }
+
+    /**
+     * Version (and Maven plugin) information extracted from a single POM, as used by the
+     * {@link VersionCollector}.
+     */
+    public static class CachedPomVersion
+    {
+
+        private final FileStamp stamp;
+
+        private final String version;
+
+        private final Plugin plugin;
+
+        CachedPomVersion(FileStamp stamp,
+                         String version,
+                         Plugin plugin)
+        {
+            this.stamp = stamp;
+            this.version = version;
+            this.plugin = plugin;
+        }
+
+        public String getVersion()
+        {
+            return version;
+        }
+
+        /**
+         * @return a copy of the plugin definition, or {@code null} if the POM is not a Maven plugin
+         */
+        public Plugin getPlugin()
+        {
+            return plugin != null ? plugin.clone() : null;
+        }
+
+    }
+
+    private static class CachedVersionCollection
+    {
+
+        private final FileStamp stamp;
+
+        /**
+         * The names of the version directories which the versions have been collected from.
+         */
+        private final Set<String> versionDirectories;
+
+        private final Map<String, MetadataVersion> versions;
+
+        /**
+         * The Maven plugin definitions, by version.
+         */
+        private final Map<String, Plugin> plugins;
+
+        CachedVersionCollection(FileStamp stamp,
+                                Set<String> versionDirectories,
+                                Map<String, MetadataVersion> versions,
+                                Map<String, Plugin> plugins)
+        {
+            this.stamp = stamp;
+            this.versionDirectories = Collections.unmodifiableSet(new HashSet<>(versionDirectories));
+            this.versions = Collections.unmodifiableMap(versions);
+            this.plugins = Collections.unmodifiableMap(plugins);
+        }
+
+        /**
+         * @return true, if the collection describes the directory as it was before the given version directory has
+         *         been deployed to
+         */
+        boolean isBefore(FileStamp currentStamp,
+                         Set<String> currentVersionDirectories,
+                         String versionDirectory)
+        {
+            Set<String> expectedVersionDirectories = new HashSet<>(versionDirectories);
+            if (expectedVersionDirectories.add(versionDirectory))
+            {
+                // The directory of a new version changes the stamp, so only the version directories can be compared.
+                return expectedVersionDirectories.equals(currentVersionDirectories);
+            }
+
+            return stamp.equals(currentStamp) && versionDirectories.equals(currentVersionDirectories);
+        }
+
+        VersionCollectionRequest toRequest(Path artifactBasePath)
+        {
+            List<MetadataVersion> metadataVersions = new ArrayList<>(versions.size());
+            versions.values().forEach(v -> metadataVersions.add(copy(v)));
+
+            VersionCollectionRequest request = new VersionCollectionRequest();
+            request.setArtifactBasePath(artifactBasePath);
+            request.setMetadataVersions(metadataVersions);
+            plugins.values().forEach(p -> request.addPlugin(p.clone()));
+
+            return request;
+        }
+
+    }
+
+    private static class FileStamp
+    {
+
+        private final long lastModified;
+
+        private final long size;
+
+        private FileStamp(long lastModified,
+                          long size)
+        {
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        static FileStamp of(Path path)
+                throws IOException
+        {
+            BasicFileAttributes attributes;
+            try
+            {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            }
+            catch (NoSuchFileException e)
+            {
+                return null;
+            }
+
+            return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            FileStamp that = (FileStamp) o;
+
+            return lastModified == that.lastModified && size == that.size;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(lastModified, size);
+        }
+
+    }
+
+}
@@ -6,18 +6,20 @@ import org.carlspring.strongbox.storage.metadata.maven.comparators.SnapshotVersi
 import org.carlspring.strongbox.storage.metadata.maven.versions.MetadataVersion;
 import org.carlspring.strongbox.storage.metadata.maven.visitors.ArtifactVersionDirectoryVisitor;
 
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
+import java.io.InputStream;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import org.apache.commons.io.FilenameUtils;
@@ -47,20 +49,42 @@ public class VersionCollector
 
     private static final M2GavCalculator M2_GAV_CALCULATOR = new M2GavCalculator();
 
+    private final MavenMetadataCache metadataCache;
+
+
+    public VersionCollector()
+    {
+        this(null);
+    }
+
+    /**
+     * @param metadataCache when provided, the versions of the artifact base directories which haven't changed since
+     *                      the last collection are reused, and only the POM-s which have changed are parsed
+     */
+    public VersionCollector(MavenMetadataCache metadataCache)
+    {
+        this.metadataCache = metadataCache;
+    }
+
     public VersionCollectionRequest collectVersions(Path artifactBasePath)
             throws IOException
     {
-        VersionCollectionRequest request = new VersionCollectionRequest();
+        VersionCollectionRequest request = metadataCache != null ?
+                                           metadataCache.getVersionCollection(artifactBasePath) : null;
+        if (request != null)
+        {
+            request.setVersioning(generateVersioning(request.getMetadataVersions()));
+
+            return request;
+        }
+
+        request = new VersionCollectionRequest();
         request.setArtifactBasePath(artifactBasePath);
 
         List<MetadataVersion> versions = new ArrayList<>();
+        Map<String, Plugin> plugins = new LinkedHashMap<>();
 
-        List<Path> versionPaths;
-        try (DirectoryStream<Path> ds = Files.newDirectoryStream(artifactBasePath,
-                                                                 new ArtifactVersionDirectoryFilter()))
-        {
-            versionPaths = Lists.newArrayList(ds);
-        }
+        List<Path> versionPaths = getVersionDirectoryPaths(artifactBasePath);
 
         // Add all versions
         for (Path versionDirectoryPath : versionPaths)
@@ -70,52 +94,30 @@ public class VersionCollector
                 Path pomArtifactPath = getPomPath(artifactBasePath, versionDirectoryPath);
 
                 // No pom, no metadata.
-                if (pomArtifactPath != null)
+                if (pomArtifactPath == null)
+                {
+                    continue;
+                }
+
+                MavenMetadataCache.CachedPomVersion pomVersion = metadataCache != null ?
+                                                                 metadataCache.getPomVersion(pomArtifactPath) : null;
+                if (pomVersion == null)
+                {
+                    pomVersion = readPomVersion(pomArtifactPath);
+                }
+                if (pomVersion == null)
+                {
+                    continue;
+                }
+
+                MetadataVersion metadataVersion = toMetadataVersion(versionDirectoryPath, pomVersion);
+                versions.add(metadataVersion);
+
+                Plugin plugin = pomVersion.getPlugin();
+                if (plugin != null)
                 {
-                    Model pom = getPom(pomArtifactPath);
-
-                    BasicFileAttributes fileAttributes = Files.readAttributes(versionDirectoryPath,
-                                                                              BasicFileAttributes.class);
-
-                    // TODO: This will not work for versionless POM-s which extend the version from a parent.
-                    // TODO: If pom.getVersion() == null, walk the parents until a parent with
-                    // TODO: a non-null version is found and use that as the version.
-                    String version = pom.getVersion() != null ? pom.getVersion() :
-                                     (pom.getParent() != null ? pom.getVersion() : null);
-
-                    if (version == null)
-                    {
-                        continue;
-                    }
-
-                    if (ArtifactUtils.isSnapshot(version))
-                    {
-                        version = ArtifactUtils.toSnapshotVersion(version);
-                    }
-
-                    MetadataVersion metadataVersion = new MetadataVersion();
-                    metadataVersion.setVersion(version);
-                    metadataVersion.setCreatedDate(fileAttributes.lastModifiedTime());
-
-                    versions.add(metadataVersion);
-
-                    if (artifactIsPlugin(pom))
-                    {
-                        String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
-
-                        // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
-                        // TODO: This needs to be addressed properly, as it's not correct.
-                        // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
-                        // TODO: either via a ZipInputStream, or using TrueZip.
-                        // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
-
-                        Plugin plugin = new Plugin();
-                        plugin.setName(name);
-                        plugin.setArtifactId(pom.getArtifactId());
-                        plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
-
-                        request.addPlugin(plugin);
-                    }
+                    request.addPlugin(plugin);
+                    plugins.put(metadataVersion.getVersion(), plugin);
                 }
             }
             catch (XmlPullParserException | IOException e)
@@ -133,18 +135,147 @@ public class VersionCollector
         request.setMetadataVersions(versions);
         request.setVersioning(generateVersioning(versions));
 
+        if (metadataCache != null)
+        {
+            metadataCache.putVersionCollection(artifactBasePath, toFileNames(versionPaths), versions, plugins);
+        }
+
         return request;
     }
 
+    /**
+     * Adds the version of a newly stored POM to the versions which have been collected from its artifact base
+     * directory, so that the next collection doesn't have to scan the directory again.
+     *
+     * @param pomArtifactPath the path of the stored POM (i.e. {@code org/foo/bar/1.0/bar-1.0.pom})
+     * @return {@code false} if the versions of the artifact base directory have not been collected yet, or if the
+     *         POM is not the one which defines the version of its directory
+     */
+    public boolean collectVersion(Path pomArtifactPath)
+            throws IOException
+    {
+        Path versionDirectoryPath = pomArtifactPath.getParent();
+        Path artifactBasePath = versionDirectoryPath != null ? versionDirectoryPath.getParent() : null;
+        if (metadataCache == null || artifactBasePath == null)
+        {
+            return false;
+        }
+
+        Path versionPomPath = getPomPath(artifactBasePath, versionDirectoryPath);
+        if (versionPomPath == null ||
+            !versionPomPath.toAbsolutePath().toString().equals(pomArtifactPath.toAbsolutePath().toString()))
+        {
+            return false;
+        }
+
+        MavenMetadataCache.CachedPomVersion pomVersion;
+        try
+        {
+            pomVersion = readPomVersion(versionPomPath);
+        }
+        catch (XmlPullParserException e)
+        {
+            logger.error("POM file '{}' appears to be corrupt.", pomArtifactPath.toAbsolutePath(), e);
+
+            return false;
+        }
+
+        if (pomVersion == null)
+        {
+            return false;
+        }
+
+        return metadataCache.updateVersionCollection(artifactBasePath,
+                                                     toFileNames(getVersionDirectoryPaths(artifactBasePath)),
+                                                     versionDirectoryPath.getFileName().toString(),
+                                                     toMetadataVersion(versionDirectoryPath, pomVersion),
+                                                     pomVersion.getPlugin());
+    }
+
+    private List<Path> getVersionDirectoryPaths(Path artifactBasePath)
+            throws IOException
+    {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(artifactBasePath,
+                                                                 new ArtifactVersionDirectoryFilter()))
+        {
+            return Lists.newArrayList(ds);
+        }
+    }
+
+    private static Set<String> toFileNames(List<Path> paths)
+    {
+        return paths.stream().map(p -> p.getFileName().toString()).collect(Collectors.toSet());
+    }
+
+    private MetadataVersion toMetadataVersion(Path versionDirectoryPath,
+                                              MavenMetadataCache.CachedPomVersion pomVersion)
+            throws IOException
+    {
+        BasicFileAttributes fileAttributes = Files.readAttributes(versionDirectoryPath, BasicFileAttributes.class);
+
+        MetadataVersion metadataVersion = new MetadataVersion();
+        metadataVersion.setVersion(pomVersion.getVersion());
+        metadataVersion.setCreatedDate(fileAttributes.lastModifiedTime());
+
+        return metadataVersion;
+    }
+
+    private MavenMetadataCache.CachedPomVersion readPomVersion(Path pomArtifactPath)
+            throws IOException, XmlPullParserException
+    {
+        Model pom = getPom(pomArtifactPath);
+
+        // TODO: This will not work for versionless POM-s which extend the version from a parent.
+        // TODO: If pom.getVersion() == null, walk the parents until a parent with
+        // TODO: a non-null version is found and use that as the version.
+        String version = pom.getVersion() != null ? pom.getVersion() :
+                         (pom.getParent() != null ? pom.getVersion() : null);
+
+        if (version == null)
+        {
+            return null;
+        }
+
+        if (ArtifactUtils.isSnapshot(version))
+        {
+            version = ArtifactUtils.toSnapshotVersion(version);
+        }
+
+        Plugin plugin = null;
+        if (artifactIsPlugin(pom))
+        {
+            String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
+
+            // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
+            // TODO: This needs to be addressed properly, as it's not correct.
+            // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
+            // TODO: either via a ZipInputStream, or using TrueZip.
+            // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
+
+            plugin = new Plugin();
+            plugin.setName(name);
+            plugin.setArtifactId(pom.getArtifactId());
+            plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
+        }
+
+        if (metadataCache != null)
+        {
+            metadataCache.putPomVersion(pomArtifactPath, version, plugin);
+        }
+
+        return new MavenMetadataCache.CachedPomVersion(null, version, plugin);
+    }
+
     private Path getPomPath(Path artifactBasePath,
                             Path versionDirectoryPath)
     {
         String version = versionDirectoryPath.getFileName().toString();
         if (!ArtifactUtils.isSnapshot(version))
         {
-            return Paths.get(versionDirectoryPath.toAbsolutePath().toString(),
-                             artifactBasePath.getFileName().toString() + "-" +
-                             versionDirectoryPath.getFileName() + ".pom");
+            // Resolved from the directory, so that the POM is read through the storage, which may keep it compressed.
+            return versionDirectoryPath.toAbsolutePath()
+                                       .resolve(artifactBasePath.getFileName().toString() + "-" +
+                                                versionDirectoryPath.getFileName() + ".pom");
         }
         else
         {
@@ -155,8 +286,7 @@ public class VersionCollector
             if (filePaths != null && !filePaths.isEmpty())
             {
                 Collections.sort(filePaths);
-                return Paths.get(versionDirectoryPath.toAbsolutePath().toString(),
-                                 filePaths.get(filePaths.size() - 1));
+                return versionDirectoryPath.toAbsolutePath().resolve(filePaths.get(filePaths.size() - 1));
             }
             else
             {
@@ -251,10 +381,10 @@ public class VersionCollector
     private Model getPom(Path filePath)
             throws IOException, XmlPullParserException
     {
-        try (Reader rr = new FileReader(filePath.toFile()))
+        try (InputStream is = Files.newInputStream(filePath))
         {
             MavenXpp3Reader reader = new MavenXpp3Reader();
-            return reader.read(rr);
+            return reader.read(is);
         }
 
     }
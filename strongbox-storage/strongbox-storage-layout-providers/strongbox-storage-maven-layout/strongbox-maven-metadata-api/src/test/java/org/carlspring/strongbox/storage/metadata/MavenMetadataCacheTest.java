@@ -0,0 +1,179 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MavenMetadataCacheTest
+{
+
+    private static final Path BASEDIR = Paths.get("target").resolve("test-resources").resolve("mmc");
+
+    private MavenMetadataCache cache;
+
+    private Path metadataPath;
+
+    private AtomicInteger reads;
+
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        Files.createDirectories(BASEDIR);
+
+        metadataPath = BASEDIR.resolve(MetadataHelper.MAVEN_METADATA_XML);
+        Files.write(metadataPath, "<metadata/>".getBytes());
+
+        cache = new MavenMetadataCache(10, 10, 10);
+        reads = new AtomicInteger();
+    }
+
+    @Test
+    public void testCachedMetadataIsReused()
+            throws Exception
+    {
+        Metadata first = cache.getMetadata(metadataPath, this::read);
+        Metadata second = cache.getMetadata(metadataPath, this::read);
+
+        assertThat(reads.get()).isEqualTo(1);
+        assertThat(second.getArtifactId()).isEqualTo(first.getArtifactId());
+    }
+
+    @Test
+    public void testCachedMetadataIsCopied()
+            throws Exception
+    {
+        cache.getMetadata(metadataPath, this::read).getVersioning().addVersion("1.1");
+
+        assertThat(cache.getMetadata(metadataPath, this::read).getVersioning().getVersions()).containsExactly("1.0");
+    }
+
+    @Test
+    public void testModifiedFileIsReadAgain()
+            throws Exception
+    {
+        cache.getMetadata(metadataPath, this::read);
+
+        Files.write(metadataPath, "<metadata></metadata>".getBytes());
+        Files.setLastModifiedTime(metadataPath, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+
+        cache.getMetadata(metadataPath, this::read);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidatedMetadataIsReadAgain()
+            throws Exception
+    {
+        cache.getMetadata(metadataPath, this::read);
+        cache.invalidate(metadataPath);
+        cache.getMetadata(metadataPath, this::read);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDeployedVersionIsAddedToTheCollectedVersions()
+            throws Exception
+    {
+        Path artifactBasePath = BASEDIR.resolve("mmc-artifact");
+        FileSystemUtils.deleteRecursively(artifactBasePath);
+        writePom(artifactBasePath, "1.0");
+
+        VersionCollector versionCollector = new VersionCollector(cache);
+        assertThat(versionCollector.collectVersions(artifactBasePath).getVersioning().getVersions())
+                .containsExactly("1.0");
+
+        Path pomPath = writePom(artifactBasePath, "1.1");
+        assertThat(versionCollector.collectVersion(pomPath)).isTrue();
+
+        VersionCollectionRequest request = cache.getVersionCollection(artifactBasePath);
+        assertThat(request).isNotNull();
+        assertThat(versionCollector.generateVersioning(request.getMetadataVersions()).getVersions())
+                .containsExactly("1.0", "1.1");
+    }
+
+    @Test
+    public void testCollectedVersionsAreDroppedWhenTheDirectoryChanges()
+            throws Exception
+    {
+        Path artifactBasePath = BASEDIR.resolve("mmc-changed");
+        FileSystemUtils.deleteRecursively(artifactBasePath);
+        writePom(artifactBasePath, "1.0");
+
+        new VersionCollector(cache).collectVersions(artifactBasePath);
+
+        Files.createDirectories(artifactBasePath.resolve("1.1"));
+        Files.setLastModifiedTime(artifactBasePath, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+
+        assertThat(cache.getVersionCollection(artifactBasePath)).isNull();
+    }
+
+    @Test
+    public void testCollectedVersionsAreDroppedWhenAVersionIsRemovedBeforeADeploy()
+            throws Exception
+    {
+        Path artifactBasePath = BASEDIR.resolve("mmc-removed");
+        FileSystemUtils.deleteRecursively(artifactBasePath);
+        writePom(artifactBasePath, "1.0");
+        writePom(artifactBasePath, "1.1");
+
+        VersionCollector versionCollector = new VersionCollector(cache);
+        versionCollector.collectVersions(artifactBasePath);
+
+        // Removed out of band, without an event.
+        FileSystemUtils.deleteRecursively(artifactBasePath.resolve("1.0"));
+
+        Path pomPath = writePom(artifactBasePath, "1.2");
+        assertThat(versionCollector.collectVersion(pomPath)).isFalse();
+        assertThat(cache.getVersionCollection(artifactBasePath)).isNull();
+
+        assertThat(versionCollector.collectVersions(artifactBasePath).getVersioning().getVersions())
+                .containsExactly("1.1", "1.2");
+    }
+
+    private Path writePom(Path artifactBasePath,
+                          String version)
+            throws IOException
+    {
+        String artifactId = artifactBasePath.getFileName().toString();
+        Path pomPath = artifactBasePath.resolve(version).resolve(artifactId + "-" + version + ".pom");
+        Files.createDirectories(pomPath.getParent());
+
+        String pom = "<project><modelVersion>4.0.0</modelVersion>" +
+                     "<groupId>org.carlspring.strongbox</groupId>" +
+                     "<artifactId>" + artifactId + "</artifactId>" +
+                     "<version>" + version + "</version>" +
+                     "<packaging>jar</packaging></project>";
+        Files.write(pomPath, pom.getBytes());
+
+        return pomPath;
+    }
+
+    private Metadata read(Path path)
+    {
+        reads.incrementAndGet();
+
+        Versioning versioning = new Versioning();
+        versioning.addVersion("1.0");
+
+        Metadata metadata = new Metadata();
+        metadata.setArtifactId("mmc");
+        metadata.setVersioning(versioning);
+
+        return metadata;
+    }
+
+}
@@ -2,16 +2,10 @@ package org.carlspring.strongbox.artifact.archive;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
 
-import org.apache.commons.compress.archivers.ArchiveInputStream;
-import org.apache.commons.compress.archivers.jar.JarArchiveInputStream;
-
 /**
  * @author Przemyslaw Fusik
  */
@@ -24,12 +18,8 @@ public enum JarArchiveListingFunction
     public Set<String> listFilenames(final RepositoryPath path)
             throws IOException
     {
-        try (InputStream is = Files.newInputStream(path);
-             BufferedInputStream bis = new BufferedInputStream(is);
-             ArchiveInputStream ais = new JarArchiveInputStream(bis))
-        {
-            return getEntryNames(ais);
-        }
+        // Jar, war and ear files are zip archives, so only their central directory needs to be read
+        return ZipArchiveListingFunction.INSTANCE.listFilenames(path);
     }
 
     @Override
@@ -0,0 +1,83 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.metadata.MavenMetadataCache;
+import org.carlspring.strongbox.storage.metadata.VersionCollector;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link MavenMetadataCache} in line with the paths which have been changed by other means than the
+ * {@link org.carlspring.strongbox.storage.metadata.MavenMetadataManager} (uploads, deletes, moves etc).
+ * <p>
+ * A newly stored POM is added to the versions collected from its artifact base directory, instead of having the
+ * next metadata generation scan the whole directory again.
+ */
+@Component
+public class MavenMetadataCacheEventListener
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenMetadataCacheEventListener.class);
+
+    @Inject
+    private MavenMetadataCache mavenMetadataCache;
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!Maven2LayoutProvider.ALIAS.equals(event.getPath().getRepository().getLayout()))
+        {
+            return;
+        }
+
+        RepositoryPath path = event.getPath();
+        int type = event.getType();
+        if (type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+            type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+        {
+            mavenMetadataCache.invalidate(path);
+
+            if (path.getFileName().toString().endsWith(".pom"))
+            {
+                collectVersion(path);
+            }
+        }
+        else if (type == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType() ||
+                 type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED.getType())
+        {
+            mavenMetadataCache.invalidate(path);
+            mavenMetadataCache.invalidateVersionCollection(path);
+        }
+
+        if (event.getTargetPath() != null)
+        {
+            mavenMetadataCache.invalidate(event.getTargetPath());
+            mavenMetadataCache.invalidateVersionCollection(event.getTargetPath());
+        }
+    }
+
+    private void collectVersion(RepositoryPath pomPath)
+    {
+        try
+        {
+            if (new VersionCollector(mavenMetadataCache).collectVersion(pomPath))
+            {
+                logger.debug("Added the version of [{}] to the collected versions.", pomPath);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to add the version of [{}] to the collected versions.", pomPath, e);
+
+            mavenMetadataCache.invalidateVersionCollection(pomPath);
+        }
+    }
+
+}
@@ -8,6 +8,7 @@ import org.carlspring.strongbox.storage.metadata.VersionCollector;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -24,8 +25,6 @@ public abstract class AbstractMavenArtifactLocatorOperation
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractMavenArtifactLocatorOperation.class);
 
-    private RepositoryPath previousPath;
-
 
     public AbstractMavenArtifactLocatorOperation()
     {
@@ -49,7 +48,7 @@ public abstract class AbstractMavenArtifactLocatorOperation
         RepositoryPath artifactGroupDirectoryPath = direcotryPath.getParent();
         
         // Don't enter visited paths (i.e. version directories such as 1.2, 1.3, 1.4...)
-        if (getVisitedRootPaths().containsKey(artifactGroupDirectoryPath) && getVisitedRootPaths().get(artifactGroupDirectoryPath).contains(direcotryPath))
+        if (getVisitedRootPaths().putIfAbsent(artifactGroupDirectoryPath, Collections.emptyList()) != null)
         {
             return;
         }
@@ -60,18 +59,6 @@ public abstract class AbstractMavenArtifactLocatorOperation
             System.out.println(artifactGroupDirectoryPath);
         }
 
-        // The current directory is out of the tree
-        if (previousPath != null && !artifactGroupDirectoryPath.startsWith(previousPath))
-        {
-            getVisitedRootPaths().remove(previousPath);
-            previousPath = artifactGroupDirectoryPath;
-        }
-
-        if (previousPath == null)
-        {
-            previousPath = artifactGroupDirectoryPath;
-        }
-
         List<RepositoryPath> versionDirectories = getVersionDirectories(artifactGroupDirectoryPath);
         if (versionDirectories == null)
         {
@@ -79,7 +66,7 @@ public abstract class AbstractMavenArtifactLocatorOperation
         }
         getVisitedRootPaths().put(artifactGroupDirectoryPath, versionDirectories);
 
-        VersionCollector versionCollector = new VersionCollector();
+        VersionCollector versionCollector = createVersionCollector();
         VersionCollectionRequest request = versionCollector.collectVersions(artifactGroupDirectoryPath.toAbsolutePath());
 
         if (logger.isDebugEnabled())
@@ -94,6 +81,11 @@ public abstract class AbstractMavenArtifactLocatorOperation
         executeOperation(request, artifactGroupDirectoryPath, versionDirectories);
     }
 
+    protected VersionCollector createVersionCollector()
+    {
+        return new VersionCollector();
+    }
+
     public abstract void executeOperation(VersionCollectionRequest request,
                                           RepositoryPath artifactGroupDirectoryPath,
                                           List<RepositoryPath> versionDirectories)
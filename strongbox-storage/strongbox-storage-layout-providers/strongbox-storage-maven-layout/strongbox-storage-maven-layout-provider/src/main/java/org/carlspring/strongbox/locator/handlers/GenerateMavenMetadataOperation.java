@@ -4,6 +4,7 @@ import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.metadata.VersionCollectionRequest;
+import org.carlspring.strongbox.storage.metadata.VersionCollector;
 
 import javax.annotation.Nonnull;
 import java.util.List;
@@ -35,6 +36,12 @@ public class GenerateMavenMetadataOperation
         this.artifactEventListenerRegistry = artifactEventListenerRegistry;
     }
 
+    @Override
+    protected VersionCollector createVersionCollector()
+    {
+        return new VersionCollector(mavenMetadataManager.getMetadataCache());
+    }
+
     @Override
     public void executeOperation(VersionCollectionRequest request,
                                  RepositoryPath artifactGroupDirectoryPath,
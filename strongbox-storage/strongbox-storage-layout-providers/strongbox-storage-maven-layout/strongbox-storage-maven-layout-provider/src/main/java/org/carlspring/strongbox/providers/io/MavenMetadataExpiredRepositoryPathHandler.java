@@ -60,6 +60,12 @@ public class MavenMetadataExpiredRepositoryPathHandler
     public void handleExpiration(final RepositoryPath repositoryPath)
             throws IOException
     {
+        // A conditional request is cheaper than comparing the checksums, and it's conclusive when it's answered.
+        if (proxyRepositoryArtifactResolver.refreshIfNotModified(repositoryPath))
+        {
+            return;
+        }
+
         MetadataExpirationStrategy metadataExpirationStrategy = getMetadataStrategy(repositoryPath);
         MetadataExpirationStrategy.Decision refetchMetadata = metadataExpirationStrategy.decide(repositoryPath);
 
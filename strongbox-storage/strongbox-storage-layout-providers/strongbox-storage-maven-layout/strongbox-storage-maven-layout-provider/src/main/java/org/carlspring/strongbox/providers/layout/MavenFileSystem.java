@@ -53,6 +53,12 @@ public class MavenFileSystem
         return layoutProvider.getDigestAlgorithmSet();
     }
 
+    @Override
+    public Set<String> getRemoteChecksumAlgorithmSet()
+    {
+        return layoutProvider.getDigestAlgorithmSet();
+    }
+
     public RepositoryPath rebuildIndex(Repository repository)
             throws IOException
     {
@@ -61,6 +61,9 @@ public class MavenMetadataManager
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private MavenMetadataCache metadataCache;
+
 
     public Metadata readMetadata(MavenArtifact artifact)
             throws IOException,
@@ -93,14 +96,13 @@ public class MavenMetadataManager
             throws IOException, XmlPullParserException
     {
         Path metadataPath = MetadataHelper.getMetadataPath(artifactBasePath);
-        Metadata metadata;
-
-        try (InputStream is = Files.newInputStream(metadataPath))
-        {
-            metadata = readMetadata(is);
-        }
 
-        return metadata;
+        return metadataCache.getMetadata(metadataPath, p -> {
+            try (InputStream is = Files.newInputStream(p))
+            {
+                return readMetadata(is);
+            }
+        });
     }
 
     public Metadata readMetadata(InputStream is)
@@ -141,6 +143,10 @@ public class MavenMetadataManager
 
                              os.flush();
                          }
+
+                         // Keep the parsed form of what we've just written, so that the subsequent
+                         // reads and merges don't need to parse the file again.
+                         metadataCache.putMetadata(metadataPath, metadata);
                      }
                      catch (Exception ex)
                      {
@@ -150,6 +156,11 @@ public class MavenMetadataManager
         );
     }
 
+    public MavenMetadataCache getMetadataCache()
+    {
+        return metadataCache;
+    }
+
     /**
      * Generate a metadata file for an artifact.
      */
@@ -384,17 +395,7 @@ public class MavenMetadataManager
     {
         doInLock(metadataBasePath, path ->
         {
-            metadata.merge(mergeMetadata);
-
-            Versioning versioning = metadata.getVersioning();
-            if (versioning.getVersions() != null)
-            {
-                versioning.getVersions().sort(new VersionComparator());
-            }
-            if (versioning.getSnapshotVersions() != null)
-            {
-                versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
-            }
+            merge(metadata, mergeMetadata);
 
             try
             {
@@ -407,6 +408,29 @@ public class MavenMetadataManager
         });
     }
 
+    /**
+     * Merges the second metadata into the first one, keeping the versions sorted.
+     *
+     * @return the merged metadata
+     */
+    public Metadata merge(final Metadata metadata,
+                          final Metadata mergeMetadata)
+    {
+        metadata.merge(mergeMetadata);
+
+        Versioning versioning = metadata.getVersioning();
+        if (versioning.getVersions() != null)
+        {
+            versioning.getVersions().sort(new VersionComparator());
+        }
+        if (versioning.getSnapshotVersions() != null)
+        {
+            versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
+        }
+
+        return metadata;
+    }
+
     private void doInLock(RepositoryPath metadataBasePath,
                           Consumer<Path> operation) throws IOException
     {
@@ -14,11 +14,13 @@ import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.testing.artifact.ArtifactResolutionServiceHelper;
 
 import javax.inject.Inject;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.Objects;
 
 import org.junit.jupiter.api.AfterEach;
@@ -155,15 +157,39 @@ public abstract class MockedRestArtifactResolverTestBase
             Mockito.when(response.getStatus()).thenReturn(200);
             Mockito.when(response.getHeaderString("Accept-Ranges"))
                    .then((invocation) -> getContext().isByteRangeRequestSupported() ? "bytes" : "none");
+            Mockito.when(response.getHeaderString(HttpHeaders.ETAG))
+                   .then((invocation) -> getContext().getRemoteHeader(HttpHeaders.ETAG));
+            Mockito.when(response.getHeaderString(HttpHeaders.LAST_MODIFIED))
+                   .then((invocation) -> getContext().getRemoteHeader(HttpHeaders.LAST_MODIFIED));
 
             CloseableRestResponse restResponse = Mockito.mock(CloseableRestResponse.class);
             Mockito.when(restResponse.getResponse()).thenReturn(response);
 
+            Response checksumResponse = Mockito.mock(Response.class);
+            Mockito.when(checksumResponse.readEntity(InputStream.class))
+                   .then((i) -> getContext().getChecksumInputStream());
+            Mockito.when(checksumResponse.getStatus())
+                   .then((i) -> getContext().isChecksumPublished() ? 200 : 404);
+
+            CloseableRestResponse checksumRestResponse = Mockito.mock(CloseableRestResponse.class);
+            Mockito.when(checksumRestResponse.getResponse()).thenReturn(checksumResponse);
+
             RestArtifactResolver artifactResolver = Mockito.mock(RestArtifactResolver.class);
             Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class))).thenReturn(restResponse);
+            Mockito.when(artifactResolver.get(ArgumentMatchers.endsWith(".sha1"))).thenReturn(checksumRestResponse);
             Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class), ArgumentMatchers.any(Long.class)))
                    .thenReturn(restResponse);
             Mockito.when(artifactResolver.head(ArgumentMatchers.any(String.class))).thenReturn(restResponse);
+            Mockito.when(artifactResolver.head(ArgumentMatchers.any(String.class), ArgumentMatchers.anyMap()))
+                   .then((invocation) -> {
+                       Map<String, String> conditionalHeaders = invocation.getArgument(1);
+
+                       Response conditionalResponse = Mockito.mock(Response.class);
+                       Mockito.when(conditionalResponse.getStatus())
+                              .thenReturn(getContext().getRevalidationStatus(conditionalHeaders));
+
+                       return new CloseableRestResponse(conditionalResponse);
+                   });
             Mockito.when(artifactResolver.getConfiguration())
                    .then((a) -> createRemoteRepositoryConfiguration());
             Mockito.when(artifactResolver.isAlive()).thenReturn(true);
@@ -205,5 +231,34 @@ interface ArtifactResolverContext
     {
         return true;
     }
+
+    /**
+     * Whether the remote repository publishes the SHA-1 checksums of the artifacts.
+     */
+    default boolean isChecksumPublished()
+    {
+        return false;
+    }
+
+    default InputStream getChecksumInputStream()
+    {
+        return null;
+    }
+
+    /**
+     * @return the value of the header which the remote repository sends with the artifact
+     */
+    default String getRemoteHeader(String name)
+    {
+        return null;
+    }
+
+    /**
+     * @return the status of the response to a conditional request with the given headers
+     */
+    default int getRevalidationStatus(Map<String, String> conditionalHeaders)
+    {
+        return 200;
+    }
     
 }
@@ -0,0 +1,136 @@
+package org.carlspring.strongbox.providers.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.RepositorySetup;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The first download of the artifact doesn't match its remote checksum, so it's removed and downloaded again.
+ */
+public class RetryDownloadArtifactWithChecksumMismatchTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String REPOSITORY = "rdawcmt-repository";
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    private final AtomicInteger checksumRequests = new AtomicInteger();
+
+    private String sha1;
+
+    @Override
+    public InputStream getInputStream()
+    {
+        try
+        {
+            return jarArtifact.getInputStream();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isChecksumPublished()
+    {
+        return true;
+    }
+
+    @Override
+    public InputStream getChecksumInputStream()
+    {
+        // The first checksum doesn't match, as if the first download had been corrupted.
+        String checksum = checksumRequests.incrementAndGet() == 1 ? StringUtils.repeat('0', 40) : sha1;
+
+        return new ByteArrayInputStream(checksum.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Override
+    @BeforeEach
+    public void setup()
+            throws IOException
+    {
+        super.setup();
+
+        try (InputStream is = jarArtifact.getInputStream())
+        {
+            sha1 = DigestUtils.sha1Hex(is);
+        }
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void corruptedDownloadShouldBeRemovedAndRetried(@MavenRepository(repositoryId = REPOSITORY,
+                                                                            setup = TrashEnabledRepositorySetup.class)
+                                                           @Remote(url = PROXY_REPOSITORY_URL)
+                                                           Repository proxyRepository)
+            throws Exception
+    {
+        final String storageId = proxyRepository.getStorage().getId();
+        final String repositoryId = proxyRepository.getId();
+
+        Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC("org.apache.commons:commons-lang3:3.3");
+        String path = MavenArtifactUtils.convertArtifactToPath(artifact);
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository, path);
+
+        // given
+        assertThat(Files.exists(artifactPath)).isFalse();
+
+        // when
+        artifactResolutionServiceHelper.assertStreamNotNull(storageId, repositoryId, path);
+
+        // then
+        assertThat(checksumRequests.get()).isEqualTo(2);
+        assertThat(Files.exists(artifactPath)).isTrue();
+        assertThat(Files.size(artifactPath)).isEqualTo(Files.size(jarArtifact.getFile().toPath()));
+
+        // The corrupted download can't be restored from the trash.
+        assertThat(Files.exists(RepositoryFiles.trash(artifactPath))).isFalse();
+    }
+
+    public static class TrashEnabledRepositorySetup
+            implements RepositorySetup
+    {
+
+        @Override
+        public void setup(RepositoryDto repository)
+        {
+            repository.setTrashEnabled(true);
+        }
+
+    }
+
+}
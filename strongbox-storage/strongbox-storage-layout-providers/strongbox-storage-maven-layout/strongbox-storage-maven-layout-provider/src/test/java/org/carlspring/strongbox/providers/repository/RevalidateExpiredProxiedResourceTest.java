@@ -0,0 +1,201 @@
+package org.carlspring.strongbox.providers.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import javax.inject.Inject;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * An expired resource is revalidated with a conditional request, based on the validators which the remote
+ * repository has sent along with it, before it's downloaded again.
+ */
+public class RevalidateExpiredProxiedResourceTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    private static final String ETAG = "\"5f2b-1\"";
+
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private static final FileTime EXPIRED = FileTime.from(Instant.parse("2000-01-01T00:00:00Z"));
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
+    private final Map<String, String> remoteHeaders = new HashMap<>();
+
+    private final List<Map<String, String>> conditionalRequests = new ArrayList<>();
+
+    private int revalidationStatus;
+
+    private int downloads;
+
+    private byte[] remoteContent;
+
+    @Override
+    public InputStream getInputStream()
+    {
+        downloads++;
+
+        return new ByteArrayInputStream(remoteContent);
+    }
+
+    @Override
+    public String getRemoteHeader(String name)
+    {
+        return remoteHeaders.get(name);
+    }
+
+    @Override
+    public int getRevalidationStatus(Map<String, String> conditionalHeaders)
+    {
+        conditionalRequests.add(conditionalHeaders);
+
+        return revalidationStatus;
+    }
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void notModifiedResourceShouldBeRefreshedWithoutADownload(@MavenRepository(repositoryId = "rerptnm-repository")
+                                                                     @Remote(url = PROXY_REPOSITORY_URL)
+                                                                     Repository proxyRepository)
+            throws Exception
+    {
+        RepositoryPath artifactPath = fetchExpiredArtifact(proxyRepository, ETAG, LAST_MODIFIED);
+
+        // when
+        revalidationStatus = 304;
+        boolean refreshed = proxyRepositoryArtifactResolver.refreshIfNotModified(artifactPath);
+
+        // then
+        assertThat(refreshed).isTrue();
+        assertThat(conditionalRequests).hasSize(1);
+        assertThat(conditionalRequests.get(0)).containsEntry("If-None-Match", ETAG)
+                                              .containsEntry("If-Modified-Since", LAST_MODIFIED);
+        assertThat(downloads).isEqualTo(1);
+        assertThat(Files.getLastModifiedTime(artifactPath)).isGreaterThan(EXPIRED);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void modifiedResourceShouldBeReplaced(@MavenRepository(repositoryId = "rerptm-repository")
+                                                 @Remote(url = PROXY_REPOSITORY_URL)
+                                                 Repository proxyRepository)
+            throws Exception
+    {
+        RepositoryPath artifactPath = fetchExpiredArtifact(proxyRepository, ETAG, LAST_MODIFIED);
+
+        byte[] modifiedContent = Arrays.copyOf(remoteContent, remoteContent.length + 16);
+        remoteContent = modifiedContent;
+        remoteHeaders.put(HttpHeaders.ETAG, "\"5f2b-2\"");
+
+        // when
+        revalidationStatus = 200;
+        boolean refreshed = proxyRepositoryArtifactResolver.refreshIfNotModified(artifactPath);
+
+        // then
+        assertThat(refreshed).isFalse();
+        assertThat(conditionalRequests).hasSize(1);
+        assertThat(Files.getLastModifiedTime(artifactPath)).isEqualTo(EXPIRED);
+
+        proxyRepositoryArtifactResolver.fetchRemoteResource(artifactPath);
+
+        assertThat(downloads).isEqualTo(2);
+        try (InputStream is = Files.newInputStream(artifactPath))
+        {
+            assertThat(IOUtils.toByteArray(is)).isEqualTo(modifiedContent);
+        }
+
+        // The validators of the new content are used from now on.
+        revalidationStatus = 304;
+        assertThat(proxyRepositoryArtifactResolver.refreshIfNotModified(artifactPath)).isTrue();
+        assertThat(conditionalRequests.get(1)).containsEntry("If-None-Match", "\"5f2b-2\"");
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void resourceWithoutValidatorsShouldNotBeRevalidated(@MavenRepository(repositoryId = "rerptnv-repository")
+                                                                @Remote(url = PROXY_REPOSITORY_URL)
+                                                                Repository proxyRepository)
+            throws Exception
+    {
+        RepositoryPath artifactPath = fetchExpiredArtifact(proxyRepository, null, null);
+
+        // when
+        revalidationStatus = 304;
+        boolean refreshed = proxyRepositoryArtifactResolver.refreshIfNotModified(artifactPath);
+
+        // then
+        assertThat(refreshed).isFalse();
+        assertThat(conditionalRequests).isEmpty();
+        assertThat(Files.getLastModifiedTime(artifactPath)).isEqualTo(EXPIRED);
+    }
+
+    private RepositoryPath fetchExpiredArtifact(Repository proxyRepository,
+                                                String eTag,
+                                                String lastModified)
+            throws IOException
+    {
+        try (InputStream is = jarArtifact.getInputStream())
+        {
+            remoteContent = IOUtils.toByteArray(is);
+        }
+
+        if (eTag != null)
+        {
+            remoteHeaders.put(HttpHeaders.ETAG, eTag);
+        }
+        if (lastModified != null)
+        {
+            remoteHeaders.put(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+
+        Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC("org.apache.commons:commons-lang3:3.3");
+        String path = MavenArtifactUtils.convertArtifactToPath(artifact);
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository, path);
+
+        artifactResolutionServiceHelper.assertStreamNotNull(proxyRepository.getStorage().getId(),
+                                                            proxyRepository.getId(),
+                                                            path);
+
+        assertThat(downloads).isEqualTo(1);
+        Files.setLastModifiedTime(artifactPath, EXPIRED);
+
+        return artifactPath;
+    }
+
+}
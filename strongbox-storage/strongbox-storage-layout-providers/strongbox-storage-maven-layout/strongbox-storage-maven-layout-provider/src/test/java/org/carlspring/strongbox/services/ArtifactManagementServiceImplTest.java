@@ -11,6 +11,7 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
+import org.carlspring.strongbox.providers.storage.DeduplicatingStorageProvider;
 import org.carlspring.strongbox.repository.MavenRepositoryFeatures;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
 import org.carlspring.strongbox.storage.metadata.MavenSnapshotManager;
@@ -91,6 +92,10 @@ public class ArtifactManagementServiceImplTest
 
     private static final String LAST_VERSION_RELEASES = "last-version-releases";
 
+    private static final String TCD_RELEASES = "tcd-releases";
+
+    private static final String TCD_RELEASES_PROMOTED = "tcd-releases-promoted";
+
     @Inject
     private ArtifactManagementService mavenArtifactManagementService;
 
@@ -680,6 +685,40 @@ public class ArtifactManagementServiceImplTest
     }
 
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testCopyDirectoryLinksTheFiles(@MavenRepository(repositoryId = TCD_RELEASES,
+                                                                storageProvider = DeduplicatingStorageProvider.ALIAS)
+                                               Repository repository,
+                                               @MavenRepository(repositoryId = TCD_RELEASES_PROMOTED,
+                                                                storageProvider = DeduplicatingStorageProvider.ALIAS)
+                                               Repository promotedRepository,
+                                               @MavenTestArtifact(repositoryId = TCD_RELEASES,
+                                                                  id = "org.carlspring.strongbox.copy:promoted",
+                                                                  versions = "1.0")
+                                               Path artifact)
+            throws Exception
+    {
+        RepositoryPath artifactPath = (RepositoryPath) artifact;
+        RepositoryPath versionPath = artifactPath.getParent();
+        int linkCount = (Integer) Files.getAttribute(artifactPath, "unix:nlink");
+
+        RepositoryPath promotedVersionPath = repositoryPathResolver.resolve(promotedRepository,
+                                                                            RepositoryFiles.relativizePath(versionPath));
+        mavenArtifactManagementService.copy(versionPath, promotedVersionPath);
+
+        RepositoryPath promotedArtifactPath = promotedVersionPath.resolve(artifactPath.getFileName().toString());
+        assertThat(promotedArtifactPath).exists();
+        assertThat(Files.readAllBytes(promotedArtifactPath)).isEqualTo(Files.readAllBytes(artifactPath));
+
+        // The promoted file is a link to the same content, rather than a copy of it.
+        assertThat((Integer) Files.getAttribute(artifactPath, "unix:nlink")).isGreaterThan(linkCount);
+        assertThat(Files.getAttribute(promotedArtifactPath, "unix:nlink")).isEqualTo(
+                Files.getAttribute(artifactPath, "unix:nlink"));
+    }
+
+
     private Long getResult(int i,
                            CountDownLatch storedSync, 
                            RepositoryPath repositoryPath,
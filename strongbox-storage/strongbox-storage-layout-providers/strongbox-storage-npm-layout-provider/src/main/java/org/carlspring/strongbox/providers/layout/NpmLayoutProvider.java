@@ -1,11 +1,10 @@
 package org.carlspring.strongbox.providers.layout;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -132,8 +131,7 @@ public class NpmLayoutProvider
     @Override
     public Set<String> getDigestAlgorithmSet()
     {
-        return Stream.of(MessageDigestAlgorithms.SHA_1)
-                     .collect(Collectors.toSet());
+        return Collections.singleton(MessageDigestAlgorithms.SHA_1);
     }
 
 }
@@ -505,7 +505,7 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
                                Predicate predicate)
     {
         Selector<RemoteArtifactEntry> selector = new Selector<>(RemoteArtifactEntry.class);
-        selector.select("count(*)");
+        selector.select("count(*)").named("countRemotePackages");
         selector.where(Predicate.of(ExpOperator.EQ.of("storageId", storageId)))
                 .and(Predicate.of(ExpOperator.EQ.of("repositoryId", repositoryId)));
         if (!predicate.isEmpty())
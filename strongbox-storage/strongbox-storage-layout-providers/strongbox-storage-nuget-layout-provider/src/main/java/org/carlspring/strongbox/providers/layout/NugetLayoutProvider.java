@@ -3,9 +3,8 @@ package org.carlspring.strongbox.providers.layout;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -89,8 +88,7 @@ public class NugetLayoutProvider
     @Override
     protected Set<String> getDigestAlgorithmSet()
     {
-        return Stream.of(MessageDigestAlgorithms.SHA_512)
-                     .collect(Collectors.toSet());
+        return Collections.singleton(MessageDigestAlgorithms.SHA_512);
     }
 
     @Override
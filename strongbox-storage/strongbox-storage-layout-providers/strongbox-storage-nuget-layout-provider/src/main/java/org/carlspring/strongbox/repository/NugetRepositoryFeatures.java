@@ -295,7 +295,7 @@ public class NugetRepositoryFeatures
             }
 
             Selector<RemoteArtifactEntry> selector = new Selector<>(RemoteArtifactEntry.class);
-            selector.select("count(*)");
+            selector.select("count(*)").named("countRemotePackages");
             selector.where(Predicate.of(ExpOperator.EQ.of("storageId", event.getStorageId())))
                     .and(Predicate.of(ExpOperator.EQ.of("repositoryId", event.getRepositoryId())));
             if (!event.getPredicate().isEmpty())
@@ -4,12 +4,14 @@ package org.carlspring.strongbox.providers.layout;
 import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.p2.P2ArtifactReader;
 import org.carlspring.strongbox.repository.P2RepositoryFeatures;
 import org.carlspring.strongbox.repository.P2RepositoryManagementStrategy;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -23,6 +25,8 @@ public class P2LayoutProvider
 
     public static final String ALIAS = "P2 Repository";
 
+    private static final String ARTIFACTS_XML = "artifacts.xml";
+
     @Inject
     private P2RepositoryManagementStrategy p2RepositoryManagementStrategy;
 
@@ -38,14 +42,26 @@ public class P2LayoutProvider
 
     protected P2ArtifactCoordinates getArtifactCoordinates(RepositoryPath path) throws IOException
     {
-        return P2ArtifactCoordinates.create(RepositoryFiles.relativizePath(path));
+        String artifactPath = RepositoryFiles.relativizePath(path);
+
+        RepositoryPath repositoryRoot = path.getFileSystem().getRootDirectory();
+        if (Files.exists(repositoryRoot.resolve(ARTIFACTS_XML)))
+        {
+            P2ArtifactCoordinates coordinates = P2ArtifactReader.getArtifact(repositoryRoot, artifactPath);
+            if (coordinates != null)
+            {
+                return coordinates;
+            }
+        }
+
+        return P2ArtifactCoordinates.create(artifactPath);
     }
 
     public boolean isArtifactMetadata(RepositoryPath path)
     {
         String fileName = path.getFileName().toString();
         
-        return "content.xml".equals(fileName) || "artifacts.xml".equals(fileName) || "artifacts.jar".equals(fileName) ||
+        return "content.xml".equals(fileName) || ARTIFACTS_XML.equals(fileName) || "artifacts.jar".equals(fileName) ||
                 "content.jar".equals(fileName);
     }
 
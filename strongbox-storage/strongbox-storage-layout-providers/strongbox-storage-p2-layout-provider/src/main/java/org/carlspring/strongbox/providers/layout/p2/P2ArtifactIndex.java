@@ -0,0 +1,192 @@
+package org.carlspring.strongbox.providers.layout.p2;
+
+import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the artifacts of a P2 {@code artifacts.xml}, keyed by {id}/{version}/{classifier}, together
+ * with the precompiled mapping rules of the repository.
+ * <p>
+ * The index is built with a single streaming pass over the file, without materializing the {@link P2Repository}
+ * object graph.
+ */
+public class P2ArtifactIndex
+{
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final Map<String, Entry> entries;
+
+    private final List<P2ArtifactRuleProcessor> rules;
+
+
+    private P2ArtifactIndex(Map<String, Entry> entries,
+                            List<P2ArtifactRuleProcessor> rules)
+    {
+        this.entries = entries;
+        this.rules = rules;
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @param repoUrl the base of the repository, used to resolve the filename of the artifact
+     * @return a new {@link P2ArtifactCoordinates} for the artifact, or {@code null} if it's not in the index
+     */
+    public P2ArtifactCoordinates find(String repoUrl,
+                                      P2ArtifactCoordinates coordinates)
+    {
+        Entry entry = entries.get(toKey(coordinates.getId(), coordinates.getVersion(), coordinates.getClassifier()));
+        if (entry == null)
+        {
+            return null;
+        }
+
+        P2ArtifactCoordinates result = new P2ArtifactCoordinates(entry.id, entry.version, entry.classifier);
+        result.addProperty("repoUrl", repoUrl);
+        result.addProperty("id", entry.id);
+        result.addProperty("version", entry.version);
+        result.addProperty("classifier", entry.classifier);
+        entry.properties.forEach(result::addProperty);
+
+        result.setFilename(P2ArtifactRuleProcessor.getFilename(rules, result));
+
+        return result;
+    }
+
+    public static P2ArtifactIndex read(InputStream is)
+            throws IOException
+    {
+        Map<String, Entry> entries = new HashMap<>();
+        List<P2ArtifactRuleProcessor> rules = new ArrayList<>();
+
+        try
+        {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+            try
+            {
+                boolean inMappings = false;
+                Entry artifact = null;
+                while (reader.hasNext())
+                {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT)
+                    {
+                        switch (reader.getLocalName())
+                        {
+                            case "mappings":
+                                inMappings = true;
+                                break;
+                            case "rule":
+                                if (inMappings)
+                                {
+                                    rules.add(new P2ArtifactRuleProcessor(reader.getAttributeValue(null, "output"),
+                                                                          reader.getAttributeValue(null, "filter")));
+                                }
+                                break;
+                            case "artifact":
+                                artifact = new Entry(reader.getAttributeValue(null, "id"),
+                                                     reader.getAttributeValue(null, "version"),
+                                                     reader.getAttributeValue(null, "classifier"));
+                                break;
+                            case "property":
+                                // The repository has properties of its own, only the ones of an artifact are kept.
+                                if (artifact != null)
+                                {
+                                    artifact.properties.put(reader.getAttributeValue(null, "name"),
+                                                            reader.getAttributeValue(null, "value"));
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                    else if (event == XMLStreamConstants.END_ELEMENT)
+                    {
+                        if ("mappings".equals(reader.getLocalName()))
+                        {
+                            inMappings = false;
+                        }
+                        else if ("artifact".equals(reader.getLocalName()) && artifact != null)
+                        {
+                            if (artifact.isValid())
+                            {
+                                entries.put(toKey(artifact.id, artifact.version, artifact.classifier), artifact);
+                            }
+                            artifact = null;
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            throw new IOException("Failed to read artifacts.xml", e);
+        }
+
+        return new P2ArtifactIndex(Collections.unmodifiableMap(entries), Collections.unmodifiableList(rules));
+    }
+
+    private static String toKey(String id,
+                                String version,
+                                String classifier)
+    {
+        return id + "/" + version + "/" + classifier;
+    }
+
+    private static XMLInputFactory createXmlInputFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return factory;
+    }
+
+    private static class Entry
+    {
+
+        private final String id;
+
+        private final String version;
+
+        private final String classifier;
+
+        private final Map<String, String> properties = new LinkedHashMap<>();
+
+        Entry(String id,
+              String version,
+              String classifier)
+        {
+            this.id = id;
+            this.version = version;
+            this.classifier = classifier;
+        }
+
+        boolean isValid()
+        {
+            return id != null && version != null && classifier != null;
+        }
+
+    }
+
+}
@@ -2,22 +2,38 @@ package org.carlspring.strongbox.providers.layout.p2;
 
 import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Finds a {@link P2ArtifactCoordinates} from the provided repository base directory and artifact path.
  * The artifact path consists of {id}/{version}/{classifier}. E.g. bundle-name/1.0.0/osgi.bundle
+ * <p>
+ * The {@code artifacts.xml} of a repository is parsed once into a {@link P2ArtifactIndex}, which is kept for as
+ * long as the file stays unchanged (same last modified time and size).
  */
 public class P2ArtifactReader
 {
 
     private static final Logger logger = LoggerFactory.getLogger(P2ArtifactReader.class);
 
+    private static final String ARTIFACTS_FILENAME = "artifacts.xml";
+
+    private static final Cache<String, CachedIndex> INDEX_CACHE = CacheBuilder.newBuilder()
+                                                                              .maximumSize(64)
+                                                                              .build();
+
     /**
      * Finds a {@link P2ArtifactCoordinates} from the provided repository base directory and artifact path.
      *
@@ -29,52 +45,97 @@ public class P2ArtifactReader
                                                     String bundle)
             throws IOException
     {
-        // TODO we are dropping GenericParser and one day we will need to support P2
-        //GenericParser<P2Repository> repositoryParser = new GenericParser<>(P2Repository.class);
-        P2Repository p2Repository = null;//repositoryParser.parse(createPath(repositoryBaseDir).toUri().toURL());
-        final P2ArtifactCoordinates artifactToFind = P2ArtifactCoordinates.create(bundle);
-        for (P2Artifact p2Artifact : p2Repository.getArtifacts().getArtifacts())
-        {
-            P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
-                                                                            p2Artifact.getVersion(),
-                                                                            p2Artifact.getClassifier());
-            if (foundArtifact.equals(artifactToFind))
-            {
-                addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
-                String bundleFilename = P2ArtifactRuleProcessor.getFilename(p2Repository.getMappings(),
-                                                                            foundArtifact);
-                foundArtifact.setFilename(bundleFilename);
-                return foundArtifact;
-            }
-        }
+        return getArtifact(createPath(repositoryBaseDir), repositoryBaseDir, bundle);
+    }
+
+    /**
+     * Finds a {@link P2ArtifactCoordinates} in the {@code artifacts.xml} of the provided repository root.
+     *
+     * @param repositoryRoot The folder containing the repository
+     * @param bundle         The artifact path in the format of {id}/{version}/{classifier}
+     * @return P2ArtifactCoordinates if found otherwise null
+     */
+    public static P2ArtifactCoordinates getArtifact(Path repositoryRoot,
+                                                    String bundle)
+            throws IOException
+    {
+        return getArtifact(repositoryRoot.resolve(ARTIFACTS_FILENAME), repositoryRoot.toString(), bundle);
+    }
+
+    private static P2ArtifactCoordinates getArtifact(Path artifactsPath,
+                                                     String repoUrl,
+                                                     String bundle)
+            throws IOException
+    {
+        P2ArtifactIndex index = getIndex(artifactsPath);
+        P2ArtifactCoordinates artifactToFind = P2ArtifactCoordinates.create(bundle);
 
-        return null;
+        return index.find(repoUrl, artifactToFind);
     }
 
-    private static void addProperties(P2ArtifactCoordinates foundArtifact,
-                                      P2Artifact p2Artifact,
-                                      String baseDir)
+    static P2ArtifactIndex getIndex(Path artifactsPath)
+            throws IOException
     {
-        foundArtifact.addProperty("repoUrl", baseDir);
-        foundArtifact.addProperty("id", p2Artifact.getId());
-        foundArtifact.addProperty("version", p2Artifact.getVersion());
-        foundArtifact.addProperty("classifier", p2Artifact.getClassifier());
-        P2Properties properties = p2Artifact.getProperties();
-        if (properties != null)
+        if (!Files.exists(artifactsPath))
+        {
+            throw new FileNotFoundException(artifactsPath.toString());
+        }
+
+        String key = artifactsPath.toAbsolutePath().normalize().toString();
+
+        // The revision is taken before reading, so that a concurrent modification would make the entry stale
+        // rather than leaving the old content under the new revision.
+        BasicFileAttributes attributes = Files.readAttributes(artifactsPath, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        CachedIndex cachedIndex = INDEX_CACHE.getIfPresent(key);
+        if (cachedIndex != null && cachedIndex.lastModified == lastModified && cachedIndex.size == size)
+        {
+            return cachedIndex.index;
+        }
+
+        P2ArtifactIndex index;
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(artifactsPath)))
         {
-            properties.getPropertites().forEach(
-                    property -> foundArtifact.addProperty(property.getName(), property.getValue()));
+            index = P2ArtifactIndex.read(is);
         }
+
+        logger.debug("Indexed [{}] artifacts of [{}].", index.size(), artifactsPath);
+
+        INDEX_CACHE.put(key, new CachedIndex(index, lastModified, size));
+
+        return index;
     }
 
     private static Path createPath(String repositoryBaseDir)
     {
-        final String artifactsFilename = "artifacts.xml";
         if (repositoryBaseDir == null || repositoryBaseDir.isEmpty())
         {
-            return Paths.get(artifactsFilename);
+            return Paths.get(ARTIFACTS_FILENAME);
+        }
+
+        return Paths.get(repositoryBaseDir).resolve(ARTIFACTS_FILENAME);
+    }
+
+    private static class CachedIndex
+    {
+
+        private final P2ArtifactIndex index;
+
+        private final long lastModified;
+
+        private final long size;
+
+        CachedIndex(P2ArtifactIndex index,
+                    long lastModified,
+                    long size)
+        {
+            this.index = index;
+            this.lastModified = lastModified;
+            this.size = size;
         }
 
-        return Paths.get(repositoryBaseDir).resolve(artifactsFilename);
     }
+
 }
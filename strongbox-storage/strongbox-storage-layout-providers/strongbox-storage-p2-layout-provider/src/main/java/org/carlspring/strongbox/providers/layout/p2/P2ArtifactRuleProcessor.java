@@ -3,8 +3,8 @@ package org.carlspring.strongbox.providers.layout.p2;
 import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
@@ -18,12 +18,15 @@ public class P2ArtifactRuleProcessor
 
     private final String outputFormat;
 
+    private final List<String> outputKeys;
+
     private final Map<String, String> properties = new HashMap<>();
 
     public P2ArtifactRuleProcessor(String outputFormat,
                                    String filter)
     {
         this.outputFormat = outputFormat;
+        this.outputKeys = parseOutputKeys(outputFormat);
         parseFilter(filter);
     }
 
@@ -32,50 +35,37 @@ public class P2ArtifactRuleProcessor
         String clearedFilter = filter.replaceAll("\\(", "");
         clearedFilter = clearedFilter.replaceAll("\\)", "");
 
-        String[] splittedFilter = clearedFilter.split(" ");
+        String[] splittedFilter = clearedFilter.trim().split("\\s+");
         for (int i = 0; i < splittedFilter.length; i++)
         {
             String value = splittedFilter[i];
-            if (i != 0)
+            if (i != 0 && value.contains("="))
             {
-                String[] keyValuePair = value.split("=");
+                String[] keyValuePair = value.split("=", 2);
                 properties.put(keyValuePair[0], keyValuePair[1]);
             }
         }
     }
 
+    /**
+     * @return whether all the conditions of the filter are met by the properties
+     */
     public boolean matches(Map<String, String> properties)
     {
-        if (properties == null || properties.isEmpty())
+        if (properties == null || properties.isEmpty() || this.properties.isEmpty())
         {
             return false;
         }
 
-        boolean result = false;
         for (Entry<String, String> entry : this.properties.entrySet())
         {
-            final String key = entry.getKey();
-            if (properties.containsKey(key))
-            {
-                if (result)
-                {
-                    result &= this.properties.get(key).equals(properties.get(key));
-                }
-                else
-                {
-                    result = this.properties.get(key).equals(properties.get(key));
-                }
-            }
-            else
+            if (!entry.getValue().equals(properties.get(entry.getKey())))
             {
-                if (result)
-                {
-                    result = false;
-                }
+                return false;
             }
         }
 
-        return result;
+        return true;
     }
 
     public String getOutput(P2ArtifactCoordinates p2artifact)
@@ -84,7 +74,7 @@ public class P2ArtifactRuleProcessor
         if (matches(properties))
         {
             String output = outputFormat;
-            for (String key : getOutputPutKeys())
+            for (String key : outputKeys)
             {
                 output = replaceValue(output, key, properties.get(key));
             }
@@ -99,24 +89,24 @@ public class P2ArtifactRuleProcessor
                                 String key,
                                 String value)
     {
-        return format.replace(KEY_START + key + KEY_END, value);
+        return value != null ? format.replace(KEY_START + key + KEY_END, value) : format;
     }
 
-    private Collection<String> getOutputPutKeys()
+    private static List<String> parseOutputKeys(String outputFormat)
     {
-        final Collection keys = new ArrayList();
+        final List<String> keys = new ArrayList<>();
 
-        final int startOffset = KEY_START.length();
-        final int endOffset = KEY_END.length();
-
-        String format = outputFormat;
-        int startIndex = 0;
+        int startIndex = outputFormat.indexOf(KEY_START);
         while (startIndex >= 0)
         {
-            String key = format.substring(startIndex + startOffset, format.indexOf(KEY_END));
-            format = format.substring(format.indexOf(KEY_END) + endOffset);
-            keys.add(key);
-            startIndex = format.indexOf(KEY_START);
+            int endIndex = outputFormat.indexOf(KEY_END, startIndex + KEY_START.length());
+            if (endIndex < 0)
+            {
+                break;
+            }
+
+            keys.add(outputFormat.substring(startIndex + KEY_START.length(), endIndex));
+            startIndex = outputFormat.indexOf(KEY_START, endIndex + KEY_END.length());
         }
 
         return keys;
@@ -125,11 +115,22 @@ public class P2ArtifactRuleProcessor
     public static String getFilename(P2Mappings mappings,
                                      P2ArtifactCoordinates p2artifact)
     {
-        Collection<P2ArtifactRuleProcessor> artifacts = mappings.getRules().stream().map(
-                rule -> new P2ArtifactRuleProcessor(rule.getOutput(), rule.getFilter())).collect(
-                Collectors.toList());
+        List<P2ArtifactRuleProcessor> processors = mappings.getRules()
+                                                           .stream()
+                                                           .map(rule -> new P2ArtifactRuleProcessor(rule.getOutput(),
+                                                                                                    rule.getFilter()))
+                                                           .collect(Collectors.toList());
+
+        return getFilename(processors, p2artifact);
+    }
 
-        for (P2ArtifactRuleProcessor processor : artifacts)
+    /**
+     * @param processors the precompiled mapping rules, in the order of their precedence
+     */
+    public static String getFilename(List<P2ArtifactRuleProcessor> processors,
+                                     P2ArtifactCoordinates p2artifact)
+    {
+        for (P2ArtifactRuleProcessor processor : processors)
         {
             if (processor.matches(p2artifact.getProperties()))
             {
@@ -140,4 +141,4 @@ public class P2ArtifactRuleProcessor
         return null;
     }
 
-}
\ No newline at end of file
+}
@@ -6,6 +6,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -117,6 +119,27 @@ public class P2ArtifactReaderTest
         assertThat(foundArtifact.getFilename()).isEqualTo(expectedFilename);
     }
 
+    @Test
+    public void testMissingArtifact()
+            throws URISyntaxException, IOException
+    {
+        String path = String.format("%s/%s/%s", ID, "9.9.9", CLASSIFIER);
+
+        assertThat(P2ArtifactReader.getArtifact(getRepoDir(), path)).isNull();
+    }
+
+    @Test
+    public void testIndexIsReused()
+            throws URISyntaxException, IOException
+    {
+        Path artifactsPath = Paths.get(getRepoDir()).resolve("artifacts.xml");
+
+        P2ArtifactIndex index = P2ArtifactReader.getIndex(artifactsPath);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(P2ArtifactReader.getIndex(artifactsPath)).isSameAs(index);
+    }
+
     private P2ArtifactCoordinates getArtifact()
             throws URISyntaxException, IOException
     {
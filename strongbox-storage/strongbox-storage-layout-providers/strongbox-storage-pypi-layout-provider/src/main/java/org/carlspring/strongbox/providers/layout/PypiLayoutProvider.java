@@ -11,10 +11,9 @@ import org.carlspring.strongbox.repository.RepositoryManagementStrategy;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.slf4j.Logger;
@@ -124,7 +123,7 @@ public class PypiLayoutProvider
     @Override
     public Set<String> getDigestAlgorithmSet()
     {
-        return Stream.of(MessageDigestAlgorithms.SHA_256).collect(Collectors.toSet());
+        return Collections.singleton(MessageDigestAlgorithms.SHA_256);
     }
 
 }
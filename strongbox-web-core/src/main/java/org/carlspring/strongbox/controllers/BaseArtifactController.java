@@ -1,14 +1,30 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.storage.CompressingFileSystemProvider;
+import org.carlspring.strongbox.providers.storage.CompressingStorageProvider;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 
 import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +37,18 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    private static final int ASYNC_DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${strongbox.download.async.enabled:true}")
+    private boolean asyncDownloadEnabled;
+
+    /**
+     * The artifacts of at least this size are written asynchronously, so that a slow client doesn't hold on to a
+     * container thread for the whole transfer.
+     */
+    @Value("${strongbox.download.async.minSizeInBytes:1048576}")
+    private long asyncDownloadMinSizeInBytes;
+
     protected boolean provideArtifactDownloadResponse(HttpServletRequest request,
                                                       HttpServletResponse response,
                                                       HttpHeaders httpHeaders,
@@ -28,6 +56,12 @@ public abstract class BaseArtifactController
             throws Exception
     {
         logger.debug("Resolved path: {}", repositoryPath);
+        if (!ArtifactControllerHelper.isRangedRequest(httpHeaders) &&
+            provideStoredChecksumResponse(request, response, repositoryPath))
+        {
+            return true;
+        }
+
         ArtifactControllerHelper.provideArtifactHeaders(response, repositoryPath);
         if (response.getStatus() == HttpStatus.NOT_FOUND.value())
         {
@@ -38,6 +72,19 @@ public abstract class BaseArtifactController
             return true;
         }
 
+        if (!ArtifactControllerHelper.isRangedRequest(httpHeaders) && isCompressedDownload(httpHeaders, repositoryPath))
+        {
+            provideCompressedDownloadResponse(response, repositoryPath);
+
+            return true;
+        }
+
+        if (!ArtifactControllerHelper.isRangedRequest(httpHeaders) && isAsyncDownload(request, response))
+        {
+            provideAsyncDownloadResponse(request, response, repositoryPath);
+
+            return true;
+        }
         
         try (InputStream is = artifactResolutionService.getInputStream(repositoryPath))
         {
@@ -56,9 +103,250 @@ public abstract class BaseArtifactController
         return true;
     }
 
+    private boolean isCompressedDownload(HttpHeaders httpHeaders,
+                                         RepositoryPath repositoryPath)
+            throws IOException
+    {
+        return CompressingStorageProvider.ALIAS.equals(repositoryPath.getRepository().getStorageProvider()) &&
+               acceptsGzip(httpHeaders.get(HttpHeaders.ACCEPT_ENCODING)) &&
+               CompressingFileSystemProvider.isCompressed(repositoryPath.getTarget());
+    }
+
+    private static boolean acceptsGzip(List<String> acceptEncodings)
+    {
+        if (acceptEncodings == null)
+        {
+            return false;
+        }
+
+        for (String acceptEncoding : acceptEncodings)
+        {
+            for (String coding : acceptEncoding.split(","))
+            {
+                String[] parameters = coding.split(";");
+                if (!"gzip".equalsIgnoreCase(parameters[0].trim()))
+                {
+                    continue;
+                }
+
+                return parameters.length < 2 || !parameters[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Sends a file which is stored compressed as it is, leaving its decompression to the client. The artifact stream
+     * is still opened, for the locking and the events of the download, but it isn't read.
+     */
+    private void provideCompressedDownloadResponse(HttpServletResponse response,
+                                                   RepositoryPath repositoryPath)
+            throws IOException
+    {
+        Path compressedPath = repositoryPath.getTarget();
+
+        try (InputStream is = artifactResolutionService.getInputStream(repositoryPath);
+             InputStream compressed = Files.newInputStream(compressedPath))
+        {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(Files.size(compressedPath)));
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            copyToResponse(compressed, response);
+        }
+    }
+
+    private boolean isAsyncDownload(HttpServletRequest request,
+                                    HttpServletResponse response)
+    {
+        if (!asyncDownloadEnabled || !request.isAsyncSupported())
+        {
+            return false;
+        }
+
+        String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+
+        return contentLength != null && Long.parseLong(contentLength) >= asyncDownloadMinSizeInBytes;
+    }
+
+    /**
+     * Writes the artifact with the non-blocking I/O of the container: its chunks are written by the container
+     * threads whenever the client can take them, so that a slow client doesn't hold on to a thread.
+     * <p>
+     * The locks of the paths belong to the threads which take them, so the artifact stream is opened, read and closed
+     * on the request thread, before anything is committed (a missing artifact is still reported as such). Only its
+     * first chunk is read from it, for the download events; the rest is read from a stream of the stored file which is
+     * opened while the read lock is held. The stored files are replaced by moves, so that stream keeps reading the
+     * content which has been locked.
+     */
+    private void provideAsyncDownloadResponse(HttpServletRequest request,
+                                              HttpServletResponse response,
+                                              RepositoryPath repositoryPath)
+            throws IOException
+    {
+        byte[] buffer = new byte[ASYNC_DOWNLOAD_BUFFER_SIZE];
+        int length;
+        InputStream remaining = null;
+        try (InputStream is = artifactResolutionService.getInputStream(repositoryPath))
+        {
+            length = IOUtils.read(is, buffer);
+            if (length == buffer.length)
+            {
+                remaining = Files.newInputStream(repositoryPath);
+                // Skipping opens the stream, while the read lock is still held.
+                IOUtils.skipFully(remaining, length);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            IOUtils.closeQuietly(remaining);
+
+            throw e;
+        }
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        // The stalled clients are dropped by the idle timeout of the connector.
+        asyncContext.setTimeout(0);
+
+        // The listener is first called once this request has been handled, so after the filters have added their
+        // headers on the way out.
+        ServletOutputStream out = response.getOutputStream();
+        out.setWriteListener(new ArtifactWriteListener(repositoryPath, remaining, out, asyncContext, buffer, length));
+    }
+
+    /**
+     * Serves a checksum file from the checksum which has been recorded in the {@link ArtifactEntry} of its artifact,
+     * without opening the checksum file.
+     *
+     * @return false if the checksum has not been recorded, and the checksum file has to be served instead
+     */
+    private boolean provideStoredChecksumResponse(HttpServletRequest request,
+                                                  HttpServletResponse response,
+                                                  RepositoryPath repositoryPath)
+            throws IOException
+    {
+        if (repositoryPath == null || !RepositoryFiles.isChecksum(repositoryPath))
+        {
+            return false;
+        }
+
+        String checksumPath = RepositoryFiles.relativizePath(repositoryPath);
+        int extensionIndex = checksumPath.lastIndexOf('.');
+        if (extensionIndex <= 0)
+        {
+            return false;
+        }
+
+        Repository repository = repositoryPath.getRepository();
+        ArtifactEntry artifactEntry = repositoryPathResolver.resolve(repository,
+                                                                     checksumPath.substring(0, extensionIndex))
+                                                            .getArtifactEntry();
+        if (artifactEntry == null)
+        {
+            return false;
+        }
+
+        // Resolved from the entry, so that it's not looked up again.
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+
+        String checksum = ArtifactControllerHelper.getStoredChecksum(artifactPath, repositoryPath);
+        if (checksum == null)
+        {
+            return false;
+        }
+
+        ArtifactControllerHelper.provideStoredChecksumHeaders(response, artifactPath, checksum);
+        if (!request.getMethod().equals(RequestMethod.HEAD.name()))
+        {
+            copyToResponse(new ByteArrayInputStream(checksum.getBytes(StandardCharsets.UTF_8)), response);
+        }
+
+        return true;
+    }
+
     public ResponseEntity<String> checkRepositoryAccess()
     {
         return new ResponseEntity<>("success", HttpStatus.OK);
     }
 
+    /**
+     * Writes the chunks of an artifact whenever the client can take them, and completes the request at the end.
+     */
+    private class ArtifactWriteListener
+            implements WriteListener
+    {
+
+        private final RepositoryPath repositoryPath;
+
+        private final InputStream is;
+
+        private final ServletOutputStream out;
+
+        private final AsyncContext asyncContext;
+
+        private final byte[] buffer;
+
+        /**
+         * The number of bytes in the buffer which are yet to be written.
+         */
+        private int length;
+
+        ArtifactWriteListener(RepositoryPath repositoryPath,
+                              InputStream is,
+                              ServletOutputStream out,
+                              AsyncContext asyncContext,
+                              byte[] buffer,
+                              int length)
+        {
+            this.repositoryPath = repositoryPath;
+            this.is = is;
+            this.out = out;
+            this.asyncContext = asyncContext;
+            this.buffer = buffer;
+            this.length = length;
+        }
+
+        @Override
+        public void onWritePossible()
+                throws IOException
+        {
+            while (out.isReady())
+            {
+                if (length > 0)
+                {
+                    out.write(buffer, 0, length);
+                    length = 0;
+
+                    continue;
+                }
+
+                length = is != null ? is.read(buffer) : -1;
+                if (length == -1)
+                {
+                    complete();
+
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t)
+        {
+            // The headers have already been committed, so the failure can only be logged.
+            logger.error("Failed to download [{}].", repositoryPath, t);
+
+            complete();
+        }
+
+        private void complete()
+        {
+            IOUtils.closeQuietly(is);
+
+            asyncContext.complete();
+        }
+
+    }
+
 }
@@ -507,10 +507,13 @@ public class NugetArtifactController
         String path = String.format("%s/%s/%s", packageId, packageVersion, fileName);
 
         RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
-        if (provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath))
+        // Set beforehand, as the package may be written asynchronously.
+        if (repositoryPath != null && Files.isRegularFile(repositoryPath))
         {
             response.setHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", fileName));
         }
+
+        provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
     }
 
 
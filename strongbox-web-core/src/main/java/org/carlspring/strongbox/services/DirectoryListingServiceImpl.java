@@ -5,7 +5,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -18,6 +18,7 @@ import org.apache.commons.lang.StringUtils;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.domain.FileContent;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -29,6 +30,10 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
 
     private static final Logger logger = LoggerFactory.getLogger(DirectoryListingService.class);
 
+    private static final String LISTING_ATTRIBUTES = RepositoryFiles.formatAttributes(RepositoryFileAttributeType.STORAGE_ID,
+                                                                                      RepositoryFileAttributeType.REPOSITORY_ID,
+                                                                                      RepositoryFileAttributeType.ARTIFACT_PATH);
+
     private String baseUrl;
 
     public DirectoryListingServiceImpl(String baseUrl)
@@ -127,14 +132,22 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
         {
             FileContent file = new FileContent(contentPath.getFileName().toString());
 
-            Map<String, Object> fileAttributes = Files.readAttributes(contentPath, "*");
+            // Only the basic attributes are read for every entry; the strongbox attributes which are rendered are
+            // requested explicitly, so that the expensive ones are not resolved for nothing.
+            BasicFileAttributes fileAttributes = Files.readAttributes(contentPath, BasicFileAttributes.class);
 
-            file.setStorageId((String) fileAttributes.get(RepositoryFileAttributeType.STORAGE_ID.getName()));
-            file.setRepositoryId((String) fileAttributes.get(RepositoryFileAttributeType.REPOSITORY_ID.getName()));
+            RepositoryPath repositoryPath = contentPath instanceof RepositoryPath ? (RepositoryPath) contentPath : null;
+            if (repositoryPath != null)
+            {
+                Map<String, Object> repositoryFileAttributes = Files.readAttributes(repositoryPath,
+                                                                                    LISTING_ATTRIBUTES);
 
-            file.setArtifactPath((String) fileAttributes.get("artifactPath"));
+                file.setStorageId((String) repositoryFileAttributes.get(RepositoryFileAttributeType.STORAGE_ID.getName()));
+                file.setRepositoryId((String) repositoryFileAttributes.get(RepositoryFileAttributeType.REPOSITORY_ID.getName()));
+                file.setArtifactPath((String) repositoryFileAttributes.get(RepositoryFileAttributeType.ARTIFACT_PATH.getName()));
+            }
 
-            if (Boolean.TRUE.equals(fileAttributes.get("isDirectory")))
+            if (fileAttributes.isDirectory())
             {
                 file.setUrl(calculateDirectoryUrl(file));
 
@@ -143,10 +156,13 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
                 continue;
             }
 
-            file.setUrl((URL) fileAttributes.get(RepositoryFileAttributeType.RESOURCE_URL.getName()));
+            if (repositoryPath != null)
+            {
+                file.setUrl(RepositoryFiles.readResourceUrl(repositoryPath));
+            }
 
-            file.setLastModified(new Date(((FileTime) fileAttributes.get("lastModifiedTime")).toMillis()));
-            file.setSize((Long) fileAttributes.get("size"));
+            file.setLastModified(new Date(fileAttributes.lastModifiedTime().toMillis()));
+            file.setSize(fileAttributes.size());
 
             files.add(file);
         }
@@ -3,25 +3,37 @@ package org.carlspring.strongbox.utils;
 import org.carlspring.commons.http.range.ByteRange;
 import org.carlspring.commons.http.range.ByteRangeHeaderParser;
 import org.carlspring.commons.http.range.validation.ByteRangeValidationException;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RemoteArtifactEntry;
 import org.carlspring.strongbox.exception.ExceptionHandlingOutputStream;
 import org.carlspring.strongbox.io.ByteRangeInputStream;
 import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -46,7 +58,7 @@ public class ArtifactControllerHelper
 
     private static final String FULL_FILE_RANGE_REGEX = "^bytes=(0\\/\\*|0-|0)$";
 
-    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
 
     private static final String CRLF = "\r\n";
 
@@ -132,7 +144,7 @@ public class ArtifactControllerHelper
 
             prepareResponseBuilderForPartialRequestWithMultipleRanges(response);
 
-            copyPartialMultipleRangeToResponse(is, response, byteRanges, rangesContentType);
+            copyPartialMultipleRangeToResponse(is, response, byteRanges, length, rangesContentType);
         }
     }
 
@@ -201,15 +213,20 @@ public class ArtifactControllerHelper
 
         response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
 
+        // The checksums which have been recorded when the artifact was stored spare opening the checksum files.
+        Map<String, String> storedChecksums = getStoredChecksums(path);
         path.getFileSystem().provider().resolveChecksumPathMap(path).forEach((key, value) -> {
-            String checksumValue;
-            try
+            String checksumValue = storedChecksums.get(key);
+            if (checksumValue == null)
             {
-                checksumValue = new String(Files.readAllBytes(value), StandardCharsets.UTF_8).trim();
-            }
-            catch (IOException ioe)
-            {
-                return;
+                try
+                {
+                    checksumValue = new String(Files.readAllBytes(value), StandardCharsets.UTF_8).trim();
+                }
+                catch (IOException ioe)
+                {
+                    return;
+                }
             }
 
             String checksumName = String.format("Checksum-%s",
@@ -219,6 +236,78 @@ public class ArtifactControllerHelper
         });
     }
 
+    /**
+     * Provides the headers of a checksum file which is served from the checksum recorded in the
+     * {@link ArtifactEntry} of its artifact.
+     */
+    public static void provideStoredChecksumHeaders(HttpServletResponse response,
+                                                    RepositoryPath artifactPath,
+                                                    String checksum)
+            throws IOException
+    {
+        response.setHeader(HttpHeaders.CONTENT_LENGTH,
+                           String.valueOf(checksum.getBytes(StandardCharsets.UTF_8).length));
+
+        Date lastUpdated = artifactPath.getArtifactEntry().getLastUpdated();
+        if (lastUpdated != null)
+        {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.ofInstant(lastUpdated.toInstant(), ZoneId.systemDefault())));
+        }
+
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    }
+
+    /**
+     * @param artifactPath the artifact of the checksum file
+     * @param checksumPath the checksum file
+     * @return the checksum recorded in the {@link ArtifactEntry} of the artifact, or {@code null} if there is none
+     *         and the checksum file has to be read
+     */
+    public static String getStoredChecksum(RepositoryPath artifactPath,
+                                           RepositoryPath checksumPath)
+            throws IOException
+    {
+        Map<String, String> storedChecksums = getStoredChecksums(artifactPath);
+        if (storedChecksums.isEmpty())
+        {
+            return null;
+        }
+
+        String checksumFileName = checksumPath.getFileName().toString();
+
+        return artifactPath.getFileSystem()
+                           .provider()
+                           .resolveChecksumPathMap(artifactPath)
+                           .entrySet()
+                           .stream()
+                           .filter(e -> e.getValue().getFileName().toString().equals(checksumFileName))
+                           .map(e -> storedChecksums.get(e.getKey()))
+                           .filter(Objects::nonNull)
+                           .findFirst()
+                           .orElse(null);
+    }
+
+    private static Map<String, String> getStoredChecksums(RepositoryPath path)
+            throws IOException
+    {
+        if (!RepositoryFiles.isArtifact(path))
+        {
+            return Collections.emptyMap();
+        }
+
+        ArtifactEntry artifactEntry = path.getArtifactEntry();
+        if (artifactEntry == null ||
+            artifactEntry instanceof RemoteArtifactEntry &&
+            !Boolean.TRUE.equals(((RemoteArtifactEntry) artifactEntry).getIsCached()))
+        {
+            return Collections.emptyMap();
+        }
+
+        return artifactEntry.getChecksums();
+    }
+
     private static String getContentType(RepositoryPath path)
             throws IOException
     {
@@ -239,92 +328,142 @@ public class ArtifactControllerHelper
 
     }
 
+    /**
+     * Writes the {@code multipart/byteranges} body of the requested ranges, once they have been sorted and the
+     * overlapping or adjacent ones have been coalesced.
+     * <p>
+     * Each part is read with a positional read on the {@link SeekableByteChannel} of the artifact (which goes through
+     * its storage provider), while the repository stream is still holding the read lock. The stream itself is only
+     * read from when it is not backed by a repository path.
+     */
     private static void copyPartialMultipleRangeToResponse(InputStream is,
                                                            HttpServletResponse response,
                                                            List<ByteRange> byteRanges,
+                                                           long inputLength,
                                                            String contentType)
             throws IOException
     {
-        BufferedInputStream bis = new BufferedInputStream(is, DEFAULT_BUFFER_SIZE);
-        long inputLength = Long.parseLong(response.getHeader(HttpHeaders.CONTENT_LENGTH));
-        long totalBytes = 0L;
+        List<long[]> parts = coalesce(byteRanges, inputLength);
+        List<byte[]> partHeaders = new ArrayList<>(parts.size());
+        byte[] closingBoundary = toByteArray(CRLF + "--" + MULTIPART_BOUNDARY + "--");
 
-        try (OutputStream os = new ExceptionHandlingOutputStream(response.getOutputStream()))
+        long contentLength = closingBoundary.length;
+        for (long[] part : parts)
         {
-            for (ByteRange byteRange : byteRanges)
+            StringBuilder partHeader = new StringBuilder().append(CRLF)
+                                                          .append("--").append(MULTIPART_BOUNDARY).append(CRLF);
+            if (contentType != null)
             {
-                long start = byteRange.getOffset();
-                long end = byteRange.getLimit();
-                long length = end - start + 1;
+                partHeader.append(HttpHeaders.CONTENT_TYPE).append(": ").append(contentType).append(CRLF);
+            }
+            partHeader.append(String.format("%s: bytes %d-%d/%d",
+                                            HttpHeaders.CONTENT_RANGE,
+                                            part[0],
+                                            part[1],
+                                            inputLength))
+                      .append(CRLF);
 
-                os.write(toByteArray(""));
-                os.write(toByteArray("--" + MULTIPART_BOUNDARY));
+            byte[] partHeaderBytes = toByteArray(partHeader.toString());
+            partHeaders.add(partHeaderBytes);
 
-                final String contentTypeHeader = String.format("%s: %s",
-                                                               HttpHeaders.CONTENT_TYPE,
-                                                               contentType);
-                os.write(toByteArray(contentTypeHeader));
+            contentLength += partHeaderBytes.length + part[1] - part[0] + 1;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(contentLength));
+
+        RepositoryInputStream ris = StreamUtils.findSource(RepositoryInputStream.class, is);
+        try (OutputStream os = new ExceptionHandlingOutputStream(response.getOutputStream());
+             SeekableByteChannel channel = ris != null ? Files.newByteChannel(ris.getPath()) : null)
+        {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long position = 0L;
 
-                final String contentRangeHeader = String.format("%s: bytes %d-%d/%d",
-                                                                HttpHeaders.CONTENT_RANGE,
-                                                                start,
-                                                                end,
-                                                                inputLength);
-                os.write(toByteArray(contentRangeHeader));
+            for (int i = 0; i < parts.size(); i++)
+            {
+                long start = parts.get(i)[0];
+                long length = parts.get(i)[1] - start + 1;
 
-                os.write(toByteArray(""));
+                os.write(partHeaders.get(i));
 
-                // Check if it is allowed to read the stream more than once.
-                if (bis.markSupported())
+                if (channel != null)
+                {
+                    channel.position(start);
+                    copyRange(Channels.newInputStream(channel), os, buffer, length);
+                }
+                else
                 {
-                    int readLength;
-                    byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-                    long toRead = length;
-
-                    long markLimit = Math.max(toRead, DEFAULT_BUFFER_SIZE) + 1L;
-                    int markLimitInt = Math.toIntExact(markLimit);
-                    // Needed for reading the stream more than once.
-                    bis.mark(markLimitInt);
-
-                    // Skip to the byte range offset.
-                    bis.skip(start);
-
-                    while ((readLength = bis.read()) != -1)
-                    {
-                        toRead -= readLength;
-
-                        // Range length is greater than the buffer length.
-                        if (toRead > 0)
-                        {
-                            os.write(buffer, 0, readLength);
-                            os.flush();
-
-                            totalBytes += readLength;
-                        }
-                        else
-                        {
-                            os.write(buffer, 0, (int) toRead + readLength);
-                            os.flush();
-
-                            totalBytes += (toRead + readLength);
-                            break;
-                        }
-                    }
-
-                    // Needed for reading the stream more than once.
-                    bis.reset();
+                    // The coalesced ranges are in ascending order, so that the stream is read only once.
+                    IOUtils.skipFully(is, start - position);
+                    copyRange(is, os, buffer, length);
+                    position = start + length;
                 }
             }
 
-            os.write(toByteArray(""));
-            os.write(toByteArray("--" + MULTIPART_BOUNDARY + "--"));
+            os.write(closingBoundary);
             os.flush();
 
-            response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(totalBytes));
             response.flushBuffer();
         }
     }
 
+    /**
+     * @return the {@code [start, end]} pairs of the byte ranges, sorted and with the overlapping or adjacent ranges
+     *         merged together
+     */
+    private static List<long[]> coalesce(List<ByteRange> byteRanges,
+                                         long inputLength)
+    {
+        List<long[]> ranges = new ArrayList<>(byteRanges.size());
+        for (ByteRange byteRange : byteRanges)
+        {
+            long start = byteRange.getOffset();
+            Long limit = byteRange.getLimit();
+
+            // Open ended ranges, such as "bytes=500-", go up to the end of the file.
+            long end = limit == null || limit < start || limit >= inputLength ? inputLength - 1 : limit;
+
+            ranges.add(new long[]{ start, end });
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+
+        List<long[]> coalesced = new ArrayList<>(ranges.size());
+        for (long[] range : ranges)
+        {
+            long[] last = coalesced.isEmpty() ? null : coalesced.get(coalesced.size() - 1);
+            if (last != null && range[0] <= last[1] + 1)
+            {
+                last[1] = Math.max(last[1], range[1]);
+            }
+            else
+            {
+                coalesced.add(range);
+            }
+        }
+
+        return coalesced;
+    }
+
+    private static void copyRange(InputStream is,
+                                  OutputStream os,
+                                  byte[] buffer,
+                                  long length)
+            throws IOException
+    {
+        long remaining = length;
+        while (remaining > 0)
+        {
+            int read = is.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read == -1)
+            {
+                throw new EOFException(String.format("Unexpected end of the stream, [%d] bytes were missing.",
+                                                     remaining));
+            }
+
+            os.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
     private static byte[] toByteArray(String string)
     {
         return (string.concat(CRLF)).getBytes(StandardCharsets.UTF_8);
@@ -0,0 +1,261 @@
+package org.carlspring.strongbox.controllers.layout.maven;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The large artifacts are written with the non-blocking I/O of the container. The mock response can only be written
+ * in a blocking way, so the response is wrapped in one which behaves like a slow client: it only takes a few writes
+ * at a time and calls the listener again later, on another thread.
+ */
+@IntegrationTest
+public class MavenArtifactAsyncDownloadTest
+        extends MavenRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_RELEASES = "maadt-releases";
+
+    private static final int WRITES_PER_CALL = 4;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void shouldWriteTheArtifactWhenTheClientIsReady(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                                           Repository repository,
+                                                           @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                              id = "org.carlspring.strongbox.maven.test:async-download",
+                                                                              versions = "1.0",
+                                                                              bytesSize = 2 * 1024 * 1024)
+                                                           Path artifactPath)
+            throws Exception
+    {
+        // Given
+        byte[] content = Files.readAllBytes(artifactPath);
+        assertThat(content.length).isGreaterThanOrEqualTo(1024 * 1024);
+
+        String path = RepositoryFiles.relativizePath((RepositoryPath) artifactPath);
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try
+        {
+            NonBlockingResponseFilter filter = new NonBlockingResponseFilter(executorService);
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                                             .addFilters(filter)
+                                             .build();
+
+            // When
+            MockHttpServletResponse response = mockMvc.perform(get("/storages/{storageId}/{repositoryId}/{path}",
+                                                                   repository.getStorage().getId(),
+                                                                   repository.getId(),
+                                                                   path))
+                                                      .andReturn()
+                                                      .getResponse();
+
+            // Then
+            assertThat(filter.completed.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(filter.failure).isNull();
+
+            // The artifact has been written over several calls of the listener, instead of blocking a thread.
+            assertThat(filter.listenerCalls.get()).isGreaterThan(1);
+
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+            assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(content.length));
+            assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static class NonBlockingResponseFilter
+            extends OncePerRequestFilter
+    {
+
+        private final ExecutorService executorService;
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private final AtomicInteger listenerCalls = new AtomicInteger();
+
+        private volatile Throwable failure;
+
+        private NonBlockingOutputStream out;
+
+        NonBlockingResponseFilter(ExecutorService executorService)
+        {
+            this.executorService = executorService;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        FilterChain filterChain)
+                throws ServletException, IOException
+        {
+            HttpServletResponseWrapper responseWrapper = new HttpServletResponseWrapper(response)
+            {
+
+                @Override
+                public ServletOutputStream getOutputStream()
+                        throws IOException
+                {
+                    if (out == null)
+                    {
+                        out = new NonBlockingOutputStream(response.getOutputStream());
+                    }
+
+                    return out;
+                }
+
+            };
+
+            filterChain.doFilter(request, responseWrapper);
+
+            if (!request.isAsyncStarted())
+            {
+                completed.countDown();
+
+                return;
+            }
+
+            request.getAsyncContext().addListener(new AsyncListener()
+            {
+
+                @Override
+                public void onComplete(AsyncEvent event)
+                {
+                    completed.countDown();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event)
+                {
+                }
+
+                @Override
+                public void onError(AsyncEvent event)
+                {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event)
+                {
+                }
+
+            });
+
+            // Like a container, the listener is first called once the request thread has been released.
+            out.resume();
+        }
+
+        private class NonBlockingOutputStream
+                extends ServletOutputStream
+        {
+
+            private final ServletOutputStream target;
+
+            private WriteListener writeListener;
+
+            private int writes;
+
+            NonBlockingOutputStream(ServletOutputStream target)
+            {
+                this.target = target;
+            }
+
+            @Override
+            public boolean isReady()
+            {
+                if (writes < WRITES_PER_CALL)
+                {
+                    return true;
+                }
+
+                writes = 0;
+                resume();
+
+                return false;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener)
+            {
+                this.writeListener = writeListener;
+            }
+
+            @Override
+            public void write(int b)
+                    throws IOException
+            {
+                writes++;
+                target.write(b);
+            }
+
+            @Override
+            public void write(byte[] b,
+                              int off,
+                              int len)
+                    throws IOException
+            {
+                writes++;
+                target.write(b, off, len);
+            }
+
+            void resume()
+            {
+                executorService.execute(() -> {
+                    listenerCalls.incrementAndGet();
+                    try
+                    {
+                        writeListener.onWritePossible();
+                    }
+                    catch (Throwable t)
+                    {
+                        failure = t;
+                        writeListener.onError(t);
+                    }
+                });
+            }
+
+        }
+
+    }
+
+}
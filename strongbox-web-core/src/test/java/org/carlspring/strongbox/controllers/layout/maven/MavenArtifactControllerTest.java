@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -113,6 +114,10 @@ public class MavenArtifactControllerTest
 
     private static final String REPOSITORY_RELEASES_6 = "mact-releases-6";
 
+    private static final String REPOSITORY_RELEASES_7 = "mact-releases-7";
+
+    private static final String REPOSITORY_RELEASES_8 = "mact-releases-8";
+
     private static final String REPOSITORY_SNAPSHOTS = "mact-snapshots";
 
     private static final String REPOSITORY_RELEASES_OUT_OF_SERVICE = "mact-releases-out-of-service";
@@ -1171,6 +1176,98 @@ public class MavenArtifactControllerTest
         assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).startsWith("bytes */");
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void shouldServeTheStoredChecksum(@MavenRepository(repositoryId = REPOSITORY_RELEASES_7)
+                                             Repository repository,
+                                             @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_7,
+                                                                id = "org.carlspring.strongbox.maven.test:stored-checksum",
+                                                                versions = "1.0")
+                                             Path artifactPath)
+            throws IOException
+    {
+        // Given
+        ArtifactEntry artifactEntry = findArtifactEntry(repository, artifactPath);
+        String storedChecksum = artifactEntry.getChecksums().get(EncryptionAlgorithmsEnum.SHA1.getAlgorithm());
+        assertThat(storedChecksum).isNotNull();
+
+        // The checksum file isn't read when the checksum has been recorded in the database.
+        writeChecksumFile(artifactPath, "not-the-stored-checksum");
+
+        // When
+        MockMvcResponse response = getChecksumFile(repository, artifactPath);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_PLAIN_VALUE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(storedChecksum.length()));
+        assertThat(response.asString()).isEqualTo(storedChecksum);
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void shouldServeTheChecksumFileWhenNoChecksumIsStored(@MavenRepository(repositoryId = REPOSITORY_RELEASES_8)
+                                                                 Repository repository,
+                                                                 @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_8,
+                                                                                    id = "org.carlspring.strongbox.maven.test:unstored-checksum",
+                                                                                    versions = "1.0")
+                                                                 Path artifactPath)
+            throws IOException
+    {
+        // Given
+        // As if the artifact had been stored before its checksums were recorded.
+        ArtifactEntry artifactEntry = findArtifactEntry(repository, artifactPath);
+        artifactEntry.getChecksums().clear();
+        artifactEntryService.save(artifactEntry);
+
+        writeChecksumFile(artifactPath, "checksum-from-the-file");
+
+        // When
+        MockMvcResponse response = getChecksumFile(repository, artifactPath);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.asString()).isEqualTo("checksum-from-the-file");
+    }
+
+    private ArtifactEntry findArtifactEntry(Repository repository,
+                                            Path artifactPath)
+            throws IOException
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                                           repository.getId(),
+                                                                           RepositoryFiles.relativizePath(
+                                                                                   (RepositoryPath) artifactPath));
+        assertThat(artifactEntry).isNotNull();
+
+        return artifactEntry;
+    }
+
+    private void writeChecksumFile(Path artifactPath,
+                                   String checksum)
+            throws IOException
+    {
+        Path checksumPath = artifactPath.resolveSibling(artifactPath.getFileName().toString() +
+                                                        EncryptionAlgorithmsEnum.SHA1.getExtension());
+
+        Files.write(checksumPath, checksum.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockMvcResponse getChecksumFile(Repository repository,
+                                            Path artifactPath)
+            throws IOException
+    {
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactPath}";
+        String checksumPath = RepositoryFiles.relativizePath((RepositoryPath) artifactPath) +
+                              EncryptionAlgorithmsEnum.SHA1.getExtension();
+
+        return mockMvc.when()
+                      .get(url, repository.getStorage().getId(), repository.getId(), checksumPath)
+                      .thenReturn();
+    }
+
     private MockMvcResponse getMockMvcResponseForPartialDownload(String byteRanges,
                                                                  Repository repository,
                                                                  Path artifactPath)
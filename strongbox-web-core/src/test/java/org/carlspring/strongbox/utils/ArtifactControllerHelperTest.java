@@ -12,8 +12,10 @@ import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementT
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.stream.Stream;
@@ -54,6 +56,8 @@ class ArtifactControllerHelperTest
 
     private static final String REPOSITORY_RELEASES_8 = "acht-releases-8";
 
+    private static final String REPOSITORY_RELEASES_9 = "acht-releases-9";
+
     @Inject
     private ArtifactResolutionService artifactResolutionService;
 
@@ -188,6 +192,42 @@ class ArtifactControllerHelperTest
         }
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void handlePartialDownloadWithOverlappingMultipleRanges(@MavenRepository(repositoryId = REPOSITORY_RELEASES_9)
+                                                            Repository repository,
+                                                            @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_9,
+                                                                               id = "org.carlspring.strongbox:partial-multiple-overlapping",
+                                                                               versions = "1.0")
+                                                            Path artifactPath)
+            throws IOException
+    {
+        // Given
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        byte[] content = Files.readAllBytes(artifactRepositoryPath);
+        try(InputStream is = artifactResolutionService.getInputStream(artifactRepositoryPath))
+        {
+            HttpHeaders httpHeaders = getHttpHeaders("510-519,0-100,50-200");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length));
+
+            // When
+            ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+
+            // Then
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            writePart(expected, content, 0, 200);
+            writePart(expected, content, 510, 519);
+            expected.write(("\r\n--" + MULTIPART_BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+            assertThat(response.getContentAsByteArray()).isEqualTo(expected.toByteArray());
+            assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(expected.size()));
+        }
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -308,6 +348,23 @@ class ArtifactControllerHelperTest
     }
 
 
+    private void writePart(ByteArrayOutputStream os,
+                           byte[] content,
+                           int start,
+                           int end)
+            throws IOException
+    {
+        String partHeaders = String.format("\r\n--%s\r\nContent-Type: %s\r\nContent-Range: bytes %d-%d/%d\r\n\r\n",
+                                           MULTIPART_BOUNDARY,
+                                           MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                                           start,
+                                           end,
+                                           content.length);
+
+        os.write(partHeaders.getBytes(StandardCharsets.UTF_8));
+        os.write(content, start, end - start + 1);
+    }
+
     private HttpHeaders getHttpHeaders(String byteRanges)
     {
         final HttpHeaders httpHeaders = new HttpHeaders();